@@ -0,0 +1,113 @@
+package org.apache.fineract.core.service;
+
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data source checkout throughput of the tenant registry with many threads spread over many tenants,
+ * compared with the previous registry guarded by a single lock.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class DataSourceCheckoutBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Registry {
+
+        @Param({"1", "50", "500"})
+        int tenants;
+
+        DataSourcePerTenantService service;
+        SynchronizedRegistry synchronizedRegistry;
+        TenantServerConnection[] connections;
+
+        @Setup
+        public void setup() {
+            service = new DataSourcePerTenantService() {
+                @Override
+                protected DataSource createNewDataSourceFor(TenantServerConnection tenant) {
+                    return new StubDataSource();
+                }
+            };
+            synchronizedRegistry = new SynchronizedRegistry();
+            connections = new TenantServerConnection[tenants];
+            for (int i = 0; i < tenants; i++) {
+                TenantServerConnection connection = new TenantServerConnection();
+                connection.setId((long) i + 1);
+                connections[i] = connection;
+            }
+        }
+
+        void pickTenant() {
+            ThreadLocalContextUtil.setTenant(connections[ThreadLocalRandom.current().nextInt(tenants)]);
+        }
+
+        @TearDown
+        public void tearDown() {
+            service.destroy();
+        }
+    }
+
+    @Benchmark
+    public DataSource concurrentRegistry(Registry registry) {
+        registry.pickTenant();
+        return registry.service.retrieveDataSource();
+    }
+
+    @Benchmark
+    public DataSource synchronizedRegistry(Registry registry) {
+        registry.pickTenant();
+        return registry.synchronizedRegistry.retrieveDataSource();
+    }
+
+    /**
+     * The lookup as it was before the concurrent registry, every checkout takes the same monitor.
+     */
+    static class SynchronizedRegistry {
+
+        private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>();
+
+        DataSource retrieveDataSource() {
+            TenantServerConnection tenant = ThreadLocalContextUtil.getTenant();
+            synchronized (this.tenantToDataSourceMap) {
+                DataSource dataSource = this.tenantToDataSourceMap.get(tenant.getId());
+                if (dataSource == null) {
+                    dataSource = new StubDataSource();
+                    this.tenantToDataSourceMap.put(tenant.getId(), dataSource);
+                }
+                return dataSource;
+            }
+        }
+    }
+
+    static class StubDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() {
+            return null;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return null;
+        }
+    }
+}
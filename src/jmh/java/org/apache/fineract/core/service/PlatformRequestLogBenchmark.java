@@ -0,0 +1,60 @@
+package org.apache.fineract.core.service;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request log line written by the tenant filter after every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlatformRequestLogBenchmark {
+
+    PlatformRequestLog requestLog;
+
+    @Setup
+    public void setup() throws IOException {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("page", new String[]{"0"});
+        parameters.put("size", new String[]{"20"});
+        parameters.put("status", new String[]{"COMPLETED"});
+        parameters.put("sortedOrder", new String[]{"DESC"});
+        StringBuffer url = new StringBuffer("http://ops-bk.sandbox.fynarfin.io/api/v1/transfers");
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURL":
+                            return url;
+                        case "getParameterMap":
+                            return parameters;
+                        case "getMethod":
+                            return "GET";
+                        default:
+                            return null;
+                    }
+                });
+        StopWatch task = new StopWatch();
+        task.start();
+        task.stop();
+        requestLog = PlatformRequestLog.from(task, request);
+    }
+
+    @Benchmark
+    public String requestLogToString() {
+        return requestLog.toString();
+    }
+}
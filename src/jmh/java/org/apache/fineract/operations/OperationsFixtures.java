@@ -0,0 +1,76 @@
+package org.apache.fineract.operations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Transfers and transaction requests shaped like the rows of the operations tables.
+ */
+public final class OperationsFixtures {
+
+    public static final String ERROR_INFORMATION = "{\"errorCode\":\"10002\",\"errorDescription\":\"Payee account not found\","
+            + "\"developerMessage\":\"Payee FSP returned 404 for the account lookup\"}";
+
+    private OperationsFixtures() {}
+
+    public static List<Transfer> transfers(int count) {
+        List<Transfer> transfers = new ArrayList<>(count);
+        Date now = new Date();
+        for (int i = 0; i < count; i++) {
+            Transfer transfer = new Transfer();
+            transfer.setWorkflowInstanceKey(2251799813685248L + i);
+            transfer.setTransactionId("c0a8f1e2-5b1d-4c6e-9f5a-" + String.format("%012d", i));
+            transfer.setStartedAt(now);
+            transfer.setCompletedAt(now);
+            transfer.setStatus(i % 10 == 0 ? TransferStatus.FAILED : TransferStatus.COMPLETED);
+            transfer.setStatusDetail("Transfer processed");
+            transfer.setPayeeDfspId("payeefsp1");
+            transfer.setPayeePartyId("2547" + (10000000 + i));
+            transfer.setPayeePartyIdType("MSISDN");
+            transfer.setPayeeFee(BigDecimal.ZERO);
+            transfer.setPayeeFeeCurrency("KES");
+            transfer.setPayerPartyId("2547" + (20000000 + i));
+            transfer.setPayerPartyIdType("MSISDN");
+            transfer.setPayerFee(BigDecimal.ONE);
+            transfer.setPayerFeeCurrency("KES");
+            transfer.setAmount(new BigDecimal("1250.50"));
+            transfer.setCurrency("KES");
+            transfer.setDirection("OUTGOING");
+            transfer.setBatchId("batch-" + i / 100);
+            transfer.setClientCorrelationId("corr-" + i);
+            if (i % 10 == 0) {
+                transfer.setErrorInformation(ERROR_INFORMATION);
+            }
+            transfers.add(transfer);
+        }
+        return transfers;
+    }
+
+    public static List<TransactionRequest> transactionRequests(int count) {
+        List<TransactionRequest> requests = new ArrayList<>(count);
+        Date now = new Date();
+        for (int i = 0; i < count; i++) {
+            TransactionRequest request = new TransactionRequest();
+            request.setWorkflowInstanceKey(String.valueOf(2251799813685248L + i));
+            request.setTransactionId("7d3b2c1a-8e4f-4a2b-b6c7-" + String.format("%012d", i));
+            request.setExternalId("ext-" + i);
+            request.setStartedAt(now);
+            request.setCompletedAt(now);
+            request.setState(TransactionRequestState.ACCEPTED);
+            request.setPayeeDfspId("payeefsp1");
+            request.setPayeePartyId("2547" + (10000000 + i));
+            request.setPayeePartyIdType("MSISDN");
+            request.setPayerPartyId("2547" + (20000000 + i));
+            request.setPayerPartyIdType("MSISDN");
+            request.setAmount(new BigDecimal("830.00"));
+            request.setCurrency("KES");
+            request.setDirection("INCOMING");
+            request.setScenario("MPESA");
+            request.setClientCorrelationId("corr-" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,97 @@
+package org.apache.fineract.operations;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.fineract.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per row cost of building the {@link TransferResponse} of the transfers listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferResponseBenchmark {
+
+    @Param({"20", "200"})
+    int pageSize;
+
+    ObjectMapper objectMapper;
+    ObjectMapper roundTripMapper;
+    Transfer transfer;
+    List<Transfer> page;
+    String escapedErrorInformation;
+
+    @Setup
+    public void setup() {
+        objectMapper = new JacksonConfig().objectMapper();
+        // transfers serialise amsBusinessShortCode, which the response does not have
+        roundTripMapper = new JacksonConfig().objectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        transfer = OperationsFixtures.transfers(1).get(0);
+        transfer.setErrorInformation(null);
+        page = OperationsFixtures.transfers(pageSize);
+        escapedErrorInformation = OperationsFixtures.ERROR_INFORMATION.replace("\"", "\\\"");
+    }
+
+    @Benchmark
+    public TransferResponse jsonRoundTrip() throws IOException {
+        return roundTripMapper.readValue(roundTripMapper.writeValueAsString(transfer), TransferResponse.class);
+    }
+
+    @Benchmark
+    public TransferResponse directMapping() throws IOException {
+        return TransferResponse.from(transfer, objectMapper);
+    }
+
+    /**
+     * The listing as it was before {@link TransferResponse#from}, every row went through json and back.
+     */
+    @Benchmark
+    public List<TransferResponse> pageJsonRoundTrip() throws IOException {
+        List<TransferResponse> responses = new ArrayList<>(page.size());
+        for (Transfer row : page) {
+            String json = row.getErrorInformation();
+            row.setErrorInformation(null);
+            TransferResponse response = roundTripMapper.readValue(roundTripMapper.writeValueAsString(row), TransferResponse.class);
+            row.setErrorInformation(json);
+            response.parseErrorInformation(json, objectMapper);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<TransferResponse> pageDirectMapping() throws IOException {
+        List<TransferResponse> responses = new ArrayList<>(page.size());
+        for (Transfer row : page) {
+            responses.add(TransferResponse.from(row, objectMapper));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public TransferResponse parseErrorInformation() throws IOException {
+        TransferResponse response = new TransferResponse();
+        response.parseErrorInformation(OperationsFixtures.ERROR_INFORMATION, objectMapper);
+        return response;
+    }
+
+    @Benchmark
+    public TransferResponse parseEscapedErrorInformation() throws IOException {
+        TransferResponse response = new TransferResponse();
+        response.parseErrorInformation(escapedErrorInformation, objectMapper);
+        return response;
+    }
+}
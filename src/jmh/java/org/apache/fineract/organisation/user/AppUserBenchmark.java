@@ -0,0 +1,74 @@
+package org.apache.fineract.organisation.user;
+
+import org.apache.fineract.organisation.permission.Permission;
+import org.apache.fineract.organisation.role.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authority resolution of a user, done on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AppUserBenchmark {
+
+    @Param({"1", "5"})
+    int roles;
+
+    @Param({"20", "200"})
+    int permissionsPerRole;
+
+    AppUser user;
+    List<Role> userRoles;
+
+    @Setup
+    public void setup() {
+        userRoles = new ArrayList<>();
+        for (int r = 0; r < roles; r++) {
+            Role role = new Role();
+            role.setName("role" + r);
+            role.setDisabled(false);
+            List<Permission> permissions = new ArrayList<>();
+            for (int p = 0; p < permissionsPerRole; p++) {
+                Permission permission = new Permission();
+                // roles share half of their permissions, as the default roles do
+                permission.setCode("PERMISSION_" + (p % 2 == 0 ? p : r * permissionsPerRole + p));
+                permissions.add(permission);
+            }
+            role.setPermissions(permissions);
+            userRoles.add(role);
+        }
+        user = new AppUser();
+        user.setRoles(userRoles);
+    }
+
+    /**
+     * Authorities of a user whose snapshot is already built.
+     */
+    @Benchmark
+    public Collection<GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+
+    /**
+     * Building the snapshot by walking the roles, as done once for a user loaded without one.
+     */
+    @Benchmark
+    public Collection<GrantedAuthority> buildAuthorities() {
+        user.setRoles(userRoles);
+        return user.getAuthorities();
+    }
+}
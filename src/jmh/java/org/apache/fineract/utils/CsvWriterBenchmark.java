@@ -0,0 +1,58 @@
+package org.apache.fineract.utils;
+
+import org.apache.commons.io.output.NullWriter;
+import org.apache.fineract.exception.WriteToCsvException;
+import org.apache.fineract.operations.OperationsFixtures;
+import org.apache.fineract.operations.TransactionRequest;
+import org.apache.fineract.operations.Transfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Csv export of transfer and transaction request pages, written to a discarding writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvWriterBenchmark {
+
+    @Param({"100", "10000"})
+    int rows;
+
+    List<Transfer> transfers;
+    List<TransactionRequest> transactionRequests;
+
+    @Setup
+    public void setup() {
+        transfers = OperationsFixtures.transfers(rows);
+        transactionRequests = OperationsFixtures.transactionRequests(rows);
+    }
+
+    @Benchmark
+    public void writeTransfers() throws WriteToCsvException {
+        new CsvWriter.Builder<Transfer>()
+                .setPrintWriter(new PrintWriter(new NullWriter()))
+                .setData(transfers)
+                .build()
+                .write();
+    }
+
+    @Benchmark
+    public void writeTransactionRequests() throws WriteToCsvException {
+        new CsvWriter.Builder<TransactionRequest>()
+                .setPrintWriter(new PrintWriter(new NullWriter()))
+                .setData(transactionRequests)
+                .build()
+                .write();
+    }
+}
@@ -0,0 +1,37 @@
+package org.apache.fineract.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of the date filters of the listing apis from the interface time zone to UTC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilBenchmark {
+
+    @Param({"UTC", "Africa/Nairobi"})
+    String timezone;
+
+    DateUtil dateUtil;
+
+    @Setup
+    public void setup() {
+        dateUtil = new DateUtil();
+        dateUtil.interfaceTimezone = timezone;
+    }
+
+    @Benchmark
+    public String getUTCFormat() {
+        return dateUtil.getUTCFormat("2022-09-20 14:35:12");
+    }
+}
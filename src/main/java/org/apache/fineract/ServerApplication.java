@@ -21,7 +21,7 @@ package org.apache.fineract;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.fineract.core.service.AudienceVerifier;
 import org.apache.fineract.core.service.TenantAwareHeaderFilter;
-import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.apache.fineract.core.service.TenantConnectionCache;
 import org.mifos.connector.common.interceptor.annotation.EnableJsonWebSignature;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
@@ -38,6 +38,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.ProviderManager;
@@ -69,6 +70,7 @@ import java.util.stream.Collectors;
         ErrorMvcAutoConfiguration.class})
 @EnableJsonWebSignature
 @EnableJpaAuditing
+@EnableScheduling
 public class ServerApplication {
 
     /**
@@ -78,6 +80,9 @@ public class ServerApplication {
     @Value("${security.filter-order}")
     private int securityFilterOrder;
 
+    @Value("${fineract.datasource.replica.read-only-routes}")
+    private String[] readOnlyRoutes;
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
@@ -103,9 +108,9 @@ public class ServerApplication {
     }
 
     @Bean
-    public FilterRegistrationBean tenantFilter(TenantServerConnectionRepository repository) {
+    public FilterRegistrationBean tenantFilter(TenantConnectionCache tenantConnectionCache) {
         FilterRegistrationBean registration = new FilterRegistrationBean();
-        registration.setFilter(new TenantAwareHeaderFilter(repository));
+        registration.setFilter(new TenantAwareHeaderFilter(tenantConnectionCache, readOnlyRoutes));
         registration.addUrlPatterns("/*");
         registration.setName("tenantFilter");
         registration.setOrder(Integer.MIN_VALUE+1);
@@ -47,7 +47,8 @@ public class AuditApiResource {
                                                   @RequestParam(value = "limit", required = false) @Parameter(description = "limit") final Integer limit,
                                                   @RequestParam(value = "orderBy", required = false) @Parameter(description = "orderBy") final String orderBy,
                                                   @RequestParam(value = "sortOrder", required = false) @Parameter(description = "sortOrder") final String sortOrder,
-                                                  @QueryParam("dateFormat") @Parameter(description = "dateFormat") final String dateFormat) {
+                                                  @QueryParam("dateFormat") @Parameter(description = "dateFormat") final String dateFormat,
+                                                  @RequestParam(value = "exactMatch", required = false, defaultValue = "false") @Parameter(description = "exactMatch") final boolean exactMatch) {
         AuditSpec auditSpec = new AuditSpec();
         LocalDateTime parsedMakerDateFrom = null;
         LocalDateTime parsedMakerDateTo = null;
@@ -59,7 +60,7 @@ public class AuditApiResource {
             parsedMakerDateTo = DateUtil.parseDateTime(makerDateTimeTo, formatter);
         }
 
-        AuditSearch search = new AuditSearch(actionName, entityName, resourceId, makerId, parsedMakerDateFrom, parsedMakerDateTo, processingResult);
+        AuditSearch search = new AuditSearch(actionName, entityName, resourceId, makerId, parsedMakerDateFrom, parsedMakerDateTo, processingResult, exactMatch);
         int defaultPage = (page != null) ? page : 0;
         int defaultLimit = (limit != null) ? limit : 10;
         String defaultOrderBy = (StringUtils.isNotEmpty(orderBy)) ? orderBy : "id";
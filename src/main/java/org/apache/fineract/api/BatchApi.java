@@ -1,7 +1,11 @@
 package org.apache.fineract.api;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import org.apache.fineract.config.PaymentModeConfiguration;
+import org.apache.fineract.batch.service.BatchStatisticsService;
+import org.apache.fineract.batch.service.BatchSummaryCache;
+import org.apache.fineract.core.service.CursorQueryService;
+import org.apache.fineract.core.service.KeysetQueryService;
+import org.apache.fineract.data.KeysetPage;
 import org.apache.fineract.file.FileTransferService;
 import org.apache.fineract.operations.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,12 +21,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.math.BigDecimal;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
-
-import static org.apache.fineract.core.service.OperatorUtils.strip;
 
 @RestController
 @SecurityRequirement(name = "auth")
@@ -34,15 +34,21 @@ public class BatchApi {
     @Autowired
     private BatchRepository batchRepository;
 
-    @Autowired
-    private VariableRepository variableRepository;
-
     @Autowired
     @Qualifier("awsStorage")
     private FileTransferService fileTransferService;
 
     @Autowired
-    private PaymentModeConfiguration paymentModeConfig;
+    private BatchStatisticsService batchStatisticsService;
+
+    @Autowired
+    private BatchSummaryCache batchSummaryCache;
+
+    @Autowired
+    private CursorQueryService cursorQueryService;
+
+    @Autowired
+    private KeysetQueryService keysetQueryService;
 
     @Value("${application.bucket-name}")
     private String bucketName;
@@ -51,7 +57,8 @@ public class BatchApi {
     public Page<Batch> getBatches(@RequestParam(value = "page", required = false, defaultValue = "1") Integer page,
                                   @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
                                   @RequestParam(value = "sortedBy", required = false) String sortedBy,
-                                  @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder
+                                  @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder,
+                                  @RequestParam(value = "count", required = false, defaultValue = "true") boolean count
     ) {
         Specifications<Batch> specifications = BatchSpecs.match(Batch_.subBatchId, null);
 
@@ -62,31 +69,42 @@ public class BatchApi {
             pager = new PageRequest(page, size, new Sort(Sort.Direction.fromString(sortedOrder), sortedBy));
         }
 
+        if (!count) {
+            return keysetQueryService.findWithoutCount(Batch.class, specifications, pager);
+        }
         return batchRepository.findAll(specifications, pager);
     }
 
+    /**
+     * Scrolls through the batches ordered by start date, an empty cursor returns the first page.
+     */
+    @GetMapping(path = "/batches", params = "cursor")
+    public KeysetPage<Batch> scrollBatches(@RequestParam(value = "cursor") String cursor,
+                                           @RequestParam(value = "size", required = false, defaultValue = "10") Integer size,
+                                           @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder
+    ) {
+        return keysetQueryService.seek(Batch.class, BatchSpecs.match(Batch_.subBatchId, null), "startedAt",
+                Batch::getStartedAt, Sort.Direction.fromString(sortedOrder), cursor, size);
+    }
+
     @GetMapping("/batch")
     public BatchDTO batchDetails(@RequestParam(value = "batchId", required = false) String batchId,
                                  @RequestParam(value = "requestId", required = false) String requestId) {
+        return batchSummaryCache.get(batchId, requestId, () -> summarize(batchId, requestId));
+    }
+
+    private BatchDTO summarize(String batchId, String requestId) {
         Batch batch = batchRepository.findByBatchId(batchId);
-        if (batch != null) {
-            if (batch.getResultGeneratedAt() != null) {
-//                Checks if last status was checked before 10 mins
-                if (new Date().getTime() - batch.getResultGeneratedAt().getTime() < 600000) {
-                    return generateDetails(batch);
-                } else {
-                    return generateDetails(batch);
-                }
-            } else {
-                return generateDetails(batch);
-            }
-        } else {
-           Batch batch1 = new Batch();
-           batch1.setBatchId(batchId);
-           batch1.setRequestId(requestId);
-           return generateDetails(batch1);
+        if (batch == null) {
+            batch = new Batch();
+            batch.setBatchId(batchId);
+            batch.setRequestId(requestId);
         }
-
+        // counters are maintained by the reconciliation job, recompute only when they are older than max-age-seconds
+        if (batchStatisticsService.isStale(batch)) {
+            batch = batchStatisticsService.refresh(batch);
+        }
+        return generateDetails(batch);
     }
 
     @GetMapping("/batch/detail")
@@ -140,52 +158,10 @@ public class BatchApi {
 
         StringBuilder modes = new StringBuilder();
 
-        List<Transfer> transfers = transferRepository.findAllByBatchId(batch.getBatchId());
-
         List<Batch> allBatches = batchRepository.findAllByBatchId(batch.getBatchId());
 
-        Long completed = 0L;
-        Long failed = 0L;
-        Long total = 0L;
-        Long ongoing = 0L;
         Double batchFailedPercent = 0.0;
         Double batchCompletedPercent = 0.0;
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        BigDecimal completedAmount = BigDecimal.ZERO;
-        BigDecimal ongoingAmount = BigDecimal.ZERO;
-        BigDecimal failedAmount = BigDecimal.ZERO;
-
-        for (Transfer transfer : transfers) {
-            Optional<Variable> variable = variableRepository.findByWorkflowInstanceKeyAndVariableName("paymentMode",
-                    transfer.getWorkflowInstanceKey());
-            if (variable.isPresent()) {
-                // this will prevent 2x count of variables by eliminating data from transfers table
-                if (paymentModeConfig.getByMode(strip(variable.get().getValue()))
-                        .getType().equalsIgnoreCase("BATCH")) {
-                    continue;
-                }
-            }
-            total++;
-            BigDecimal amount = transfer.getAmount();
-            totalAmount = totalAmount.add(amount);
-            if (transfer.getStatus().equals(TransferStatus.COMPLETED)) {
-                completed++;
-                completedAmount = completedAmount.add(amount);
-            } else if (transfer.getStatus().equals(TransferStatus.FAILED)) {
-                failed++;
-                failedAmount = failedAmount.add(amount);
-            } else if (transfer.getStatus().equals(TransferStatus.IN_PROGRESS)) {
-                ongoing++;
-                ongoingAmount = ongoingAmount.add(amount);
-            }
-        }
-
-        // calculating matrices for sub batches
-        Long subBatchFailed = 0L;
-        Long subBatchCompleted = 0L;
-        Long subBatchOngoing = 0L;
-        Long subBatchTotal = 0L;
-
 
         for (Batch bt: allBatches) {
             if (bt.getPaymentMode() != null && !modes.toString().contains(bt.getPaymentMode())) {
@@ -194,57 +170,30 @@ public class BatchApi {
                 }
                 modes.append(bt.getPaymentMode());
             }
-            if (bt.getSubBatchId() == null || bt.getSubBatchId().isEmpty()) {
-                continue;
-            }
-            if (bt.getFailed() != null) {
-                subBatchFailed += bt.getFailed();
-                failedAmount = failedAmount.add(BigDecimal.valueOf(bt.getFailedAmount()));
-            }
-            if (bt.getCompleted() != null) {
-                subBatchCompleted += bt.getCompleted();
-                completedAmount = completedAmount.add(BigDecimal.valueOf(bt.getCompletedAmount()));
-            }
-            if (bt.getOngoing() != null) {
-                subBatchOngoing += bt.getOngoing();
-                ongoingAmount = ongoingAmount.add(BigDecimal.valueOf(bt.getOngoingAmount()));
-            }
-            if (bt.getTotalTransactions() != null) {
-                subBatchTotal += bt.getTotalTransactions();
-                totalAmount = totalAmount.add(BigDecimal.valueOf(bt.getTotalAmount()));
-            }
         }
 
-        // updating the data with sub batches details
-        completed += subBatchCompleted;
-        failed += subBatchFailed;
-        total += subBatchTotal;
-
-
-        ongoing += subBatchOngoing;
-
         if (batch.getResult_file() == null || (batch.getResult_file() != null && batch.getResult_file().isEmpty())) {
-            batch.setResult_file(createDetailsFile(transfers));
+            batch.setResult_file(createDetailsFile(batch.getBatchId()));
+            if (batch.getId() != null) {
+                batchRepository.updateResultFile(batch.getId(), batch.getResult_file());
+            } else {
+                batch = batchRepository.save(batch);
+            }
         }
-        batch.setCompleted(completed);
-        batch.setFailed(failed);
-        batch.setResultGeneratedAt(new Date());
-        batch.setOngoing(ongoing);
-        batch.setTotalTransactions(total);
-        batchRepository.save(batch);
+        Long total = batch.getTotalTransactions();
         batchCompletedPercent = (double) batch.getCompleted() / total * 100;
         batchFailedPercent = (double) batch.getFailed() / total * 100;
 
         BatchDTO response = new BatchDTO(batch.getBatchId(),
                 batch.getRequestId(), batch.getTotalTransactions(), batch.getOngoing(),
-                batch.getFailed(), batch.getCompleted(), totalAmount, completedAmount,
-                ongoingAmount, failedAmount, batch.getResult_file(), batch.getNote(),
+                batch.getFailed(), batch.getCompleted(), toAmount(batch.getTotalAmount()),
+                toAmount(batch.getCompletedAmount()), toAmount(batch.getOngoingAmount()),
+                toAmount(batch.getFailedAmount()), batch.getResult_file(), batch.getNote(),
                 batchCompletedPercent.toString(), batchFailedPercent.toString());
 
         response.setCreated_at(""+batch.getStartedAt());
         response.setModes(modes.toString());
         response.setPurpose("Unknown purpose");
-       System.out.println("Batch details generated for batchId: " + response.getSuccessPercentage());
 
         if (batch.getCompleted().longValue() == batch.getTotalTransactions().longValue()) {
             response.setStatus("COMPLETED");
@@ -259,44 +208,52 @@ public class BatchApi {
         return response;
     }
 
-    private String createDetailsFile(List<Transfer> transfers) {
+    private BigDecimal toAmount(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+
+    private String createDetailsFile(String batchId) {
         String CSV_SEPARATOR = ",";
-        File tempFile = new File(System.currentTimeMillis() + "_response.csv");
-        try (
-                FileWriter writer = new FileWriter(tempFile.getName());
-                BufferedWriter bw = new BufferedWriter(writer)) {
-            for (Transfer transfer : transfers)
-            {
-                StringBuffer oneLine = new StringBuffer();
-                oneLine.append(transfer.getTransactionId());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getStatus().toString());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getPayeeDfspId());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getPayeePartyId());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getAmsBusinessShortCode());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getPayerPartyId());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getAmount().toString());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getCurrency());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getErrorInformation());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getStartedAt().toString());
-                oneLine.append(CSV_SEPARATOR);
-                oneLine.append(transfer.getCompletedAt().toString());
-                oneLine.append(CSV_SEPARATOR);
-                bw.write(oneLine.toString());
-                bw.newLine();
+        File tempFile = new File(System.getProperty("java.io.tmpdir"), System.currentTimeMillis() + "_response.csv");
+        try {
+            try (
+                    FileWriter writer = new FileWriter(tempFile);
+                    BufferedWriter bw = new BufferedWriter(writer)) {
+                // transfers are read through a cursor and written one by one, the batch is never held in memory
+                cursorQueryService.stream(Transfer.class, TransferSpecs.match(Transfer_.batchId, batchId),
+                        Sort.Direction.ASC, "startedAt", transfer -> {
+                    StringBuffer oneLine = new StringBuffer();
+                    oneLine.append(transfer.getTransactionId());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getStatus().toString());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getPayeeDfspId());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getPayeePartyId());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getAmsBusinessShortCode());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getPayerPartyId());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getAmount().toString());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getCurrency());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getErrorInformation());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getStartedAt().toString());
+                    oneLine.append(CSV_SEPARATOR);
+                    oneLine.append(transfer.getCompletedAt().toString());
+                    oneLine.append(CSV_SEPARATOR);
+                    bw.write(oneLine.toString());
+                    bw.newLine();
+                });
+                bw.flush();
             }
-            bw.flush();
             return fileTransferService.uploadFile(tempFile, bucketName);
         } catch (Exception e) {
             System.err.format("Exception: %s%n", e);
+            tempFile.delete();
         }
         return null;
     }
@@ -0,0 +1,45 @@
+package org.apache.fineract.api;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.apache.fineract.export.data.ExportJob;
+import org.apache.fineract.export.data.ExportJobStatus;
+import org.apache.fineract.export.service.ExportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@SecurityRequirement(name = "auth")
+@RequestMapping("/api/v1")
+public class ExportJobApi {
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @GetMapping("/exports/{jobId}")
+    public ExportJob exportJob(HttpServletResponse response, @PathVariable("jobId") String jobId) {
+        ExportJob job = exportJobService.getJob(jobId);
+        if (job == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+        return job;
+    }
+
+    @GetMapping("/exports/{jobId}/download")
+    public void downloadExport(HttpServletResponse response, @PathVariable("jobId") String jobId) throws IOException {
+        ExportJob job = exportJobService.getJob(jobId);
+        if (job == null || !ExportJobStatus.COMPLETED.equals(job.getStatus()) || job.getFileLocation() == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // streamed for every storage, the stored object is not readable without the owner check of getJob
+        response.setContentType("text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + job.getFileLocation());
+        exportJobService.download(job, response.getOutputStream());
+    }
+}
@@ -1,14 +1,22 @@
 package org.apache.fineract.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.fineract.core.idempotency.IdempotencyService;
+import org.apache.fineract.core.idempotency.IdempotentResponse;
 import org.apache.fineract.data.IMUConversionData;
+import org.apache.fineract.exception.WriteNotAppliedException;
 import org.apache.fineract.operations.CurrencyRate;
-import org.apache.fineract.operations.CurrencyRateLock;
-import org.apache.fineract.operations.CurrencyRateLockRepository;
 import org.apache.fineract.operations.CurrencyRateRepository;
+import org.apache.fineract.operations.exchange.CurrencyRateMasterWriter;
+import org.apache.fineract.operations.exchange.CurrencyRateSnapshotService;
+import org.apache.fineract.operations.exchange.RateLock;
+import org.apache.fineract.operations.exchange.RateLockStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,7 +32,19 @@ public class IMUConversionApi {
     private CurrencyRateRepository currencyRateRepository;
 
     @Autowired
-    private CurrencyRateLockRepository currencyRateLockRepository;
+    private CurrencyRateMasterWriter currencyRateMasterWriter;
+
+    @Autowired
+    private CurrencyRateSnapshotService currencyRateSnapshotService;
+
+    @Autowired
+    private RateLockStore rateLockStore;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Value("${config.imu.rate-validity-seconds}")
     private Integer imuRateValidSeconds;
@@ -37,14 +57,13 @@ public class IMUConversionApi {
         BigDecimal rate = null;
         String uniqueKey = null;
         if(imuConversion.getLockKey() != null){
-            CurrencyRateLock lockedRate = currencyRateLockRepository.findOneByUniqueKey(imuConversion.getLockKey());
+            RateLock lockedRate = rateLockStore.find(imuConversion.getLockKey());
             if(lockedRate == null){
                 uniqueKey = imuConversion.getLockKey();
             }else if(!lockedRate.isExpiredAtDate(currentDate)){//??
                 rate = lockedRate.getRate();
                 if(!imuConversion.getFailWhenExpired()){
-                    lockedRate.setExpireBy(expireBy);
-                    currencyRateLockRepository.save(lockedRate);
+                    lockedRate = rateLockStore.extend(lockedRate, expireBy);
                 }
                 imuConversion.setExpireBy(lockedRate.getExpireBy());
             }else if(imuConversion.getFailWhenExpired()){
@@ -55,14 +74,12 @@ public class IMUConversionApi {
             }
         }
         if(rate == null){
-            CurrencyRate exchange = currencyRateRepository.findOneByFromCurrencyAndToCurrency(imuConversion.getFrom(), imuConversion.getTo());
-            if (exchange != null) {
-                rate = exchange.getRate();
+            rate = currencyRateSnapshotService.getRate(imuConversion.getFrom(), imuConversion.getTo());
+            if (rate != null) {
                 if(uniqueKey == null){
                     uniqueKey = UUID.randomUUID().toString();
                 }
-                CurrencyRateLock lockedRate = exchange.getLock(uniqueKey, expireBy);
-                currencyRateLockRepository.save(lockedRate);
+                rateLockStore.create(uniqueKey, imuConversion.getFrom(), imuConversion.getTo(), rate, expireBy);
                 imuConversion.setLockKey(uniqueKey);
                 imuConversion.setExpireBy(expireBy);
             }
@@ -80,23 +97,22 @@ public class IMUConversionApi {
     }
 
     @PostMapping(path = "/imuexchange/master", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public void create(@RequestBody List<IMUConversionData> exchangeRates, HttpServletResponse response) {
-
-        List<CurrencyRate> currencyRates = new ArrayList<>();
-
-        Date currentDate =  new Date();
-        for(IMUConversionData exchangeRate : exchangeRates){
-            CurrencyRate exchange = currencyRateRepository.findOneByFromCurrencyAndToCurrency(exchangeRate.getFrom(), exchangeRate.getTo());
-
-            if(exchange != null){
-                exchange.setRate(exchangeRate.getRate());
-                exchange.setLastUpdated(currentDate);
-            }else{
-                exchange = new CurrencyRate(exchangeRate.getFrom(), exchangeRate.getTo(), exchangeRate.getRate(), currentDate);
-            }
-            currencyRates.add(exchange);
+    public void create(@RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                       @RequestBody List<IMUConversionData> exchangeRates, HttpServletResponse response) throws JsonProcessingException {
+        IdempotentResponse result = idempotencyService.execute(idempotencyKey, "imuexchange-master",
+                objectMapper.writeValueAsString(exchangeRates), () -> {
+                    try {
+                        currencyRateMasterWriter.upsert(exchangeRates);
+                    } catch (DataAccessException e) {
+                        // the upsert runs in one transaction, it was rolled back
+                        throw new WriteNotAppliedException("Could not store the rate master data", e);
+                    }
+                    currencyRateSnapshotService.refresh();
+                    return new IdempotentResponse(HttpServletResponse.SC_OK, null);
+                });
+        if (result.isReplayed()) {
+            response.setHeader(IdempotencyService.IDEMPOTENT_REPLAYED_HEADER, "true");
         }
-        currencyRateRepository.saveAll(currencyRates);
     }
 
     @DeleteMapping(path = "/imuexchange/master", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -104,6 +120,7 @@ public class IMUConversionApi {
         CurrencyRate exchange = currencyRateRepository.findOneByFromCurrencyAndToCurrency(imuConversion.getFrom(), imuConversion.getTo());
         if (exchange != null) {
             currencyRateRepository.delete(exchange);
+            currencyRateSnapshotService.refresh();
         } else {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             imuConversion.setErrorCode("001");
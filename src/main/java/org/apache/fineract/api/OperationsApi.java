@@ -1,7 +1,13 @@
 package org.apache.fineract.api;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.apache.fineract.core.http.ChannelConnectorClient;
+import org.apache.fineract.core.idempotency.IdempotencyService;
+import org.apache.fineract.core.idempotency.IdempotentResponse;
+import org.apache.fineract.data.BulkRefundRequest;
+import org.apache.fineract.exception.WriteNotAppliedException;
 import org.apache.fineract.operations.BatchRepository;
 import org.apache.fineract.operations.BusinessKey;
 import org.apache.fineract.operations.BusinessKeyRepository;
@@ -16,15 +22,14 @@ import org.apache.fineract.operations.TransferRepository;
 import org.apache.fineract.operations.TransferStatus;
 import org.apache.fineract.operations.Variable;
 import org.apache.fineract.operations.VariableRepository;
-import org.json.JSONArray;
+import org.apache.fineract.operations.refund.BulkRefundService;
+import org.apache.fineract.operations.refund.RefundRequests;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -34,10 +39,22 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -65,92 +82,107 @@ public class OperationsApi {
     private BatchRepository batchRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ChannelConnectorClient channelConnectorClient;
 
-    @Value("${channel-connector.url}")
-    private String channelConnectorUrl;
+    @Autowired
+    private BulkRefundService bulkRefundService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
-    @Value("${channel-connector.transfer-path}")
-    private String channelConnectorTransferPath;
+    @Autowired
+    @Qualifier("detailQueryExecutor")
+    private Executor detailQueryExecutor;
 
     @PostMapping("/transfer/{transactionId}/refund")
     public String refundTransfer(@RequestHeader("Platform-TenantId") String tenantId,
+                                 @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                                  @PathVariable("transactionId") String transactionId,
                                  @RequestBody String requestBody,
                                  HttpServletResponse response) {
-        Transfer existingIncomingTransfer = transferRepository.findFirstByTransactionIdAndDirection(transactionId, "INCOMING");
+        IdempotentResponse result = idempotencyService.execute(idempotencyKey, "refund:" + transactionId, requestBody,
+                () -> refund(tenantId, transactionId, requestBody));
+        if (result.isReplayed()) {
+            response.setHeader(IdempotencyService.IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        response.setStatus(result.getStatusCode());
+        return result.getBody();
+    }
+
+    private IdempotentResponse refund(String tenantId, String transactionId, String requestBody) {
+        Transfer existingIncomingTransfer;
+        try {
+            existingIncomingTransfer = transferRepository.findFirstByTransactionIdAndDirection(transactionId, "INCOMING");
+        } catch (DataAccessException e) {
+            throw new WriteNotAppliedException("Could not load the transfer to refund", e);
+        }
         if (existingIncomingTransfer == null || !TransferStatus.COMPLETED.equals(existingIncomingTransfer.getStatus())) {
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             JSONObject failResponse = new JSONObject();
             failResponse.put("response", "Requested incoming transfer does not exist or not yet completed!");
-            return failResponse.toString();
+            return new IdempotentResponse(HttpServletResponse.SC_NOT_FOUND, failResponse.toString());
         }
 
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add("Platform-TenantId", tenantId);
-        httpHeaders.add("Content-Type", "application/json");
-        // httpHeaders.add("Authorization", "Bearer token"); TODO auth needed?
-
-        JSONObject channelRequest = new JSONObject();
-        JSONObject payer = new JSONObject();
-        JSONObject payerPartyIdInfo = new JSONObject();
-        payerPartyIdInfo.put("partyIdType", existingIncomingTransfer.getPayeePartyIdType());
-        payerPartyIdInfo.put("partyIdentifier", existingIncomingTransfer.getPayeePartyId());
-        payer.put("partyIdInfo", payerPartyIdInfo);
-        channelRequest.put("payer", payer);
-        JSONObject payee = new JSONObject();
-        JSONObject payeePartyIdInfo = new JSONObject();
-        payeePartyIdInfo.put("partyIdType", existingIncomingTransfer.getPayerPartyIdType());
-        payeePartyIdInfo.put("partyIdentifier", existingIncomingTransfer.getPayerPartyId());
-        payee.put("partyIdInfo", payeePartyIdInfo);
-        channelRequest.put("payee", payee);
-        JSONObject amount = new JSONObject();
-        amount.put("amount", existingIncomingTransfer.getAmount());
-        amount.put("currency", existingIncomingTransfer.getCurrency());
-        channelRequest.put("amount", amount);
+        String comment = null;
         try {
-            JSONObject body = new JSONObject(requestBody);
-            String comment = body.optString("comment", null);
-            if (comment != null) {
-                JSONObject extensionList = new JSONObject();
-                JSONArray extensions = new JSONArray();
-                addExtension(extensions, "comment", comment);
-                extensionList.put("extension", extensions);
-                channelRequest.put("extensionList", extensionList);
-            }
+            comment = new JSONObject(requestBody).optString("comment", null);
         } catch (Exception e) {
             logger.error("Could not parse refund request body {}, can not set comment on refund!", requestBody);
         }
 
-        ResponseEntity<String> channelResponse = restTemplate.exchange(channelConnectorUrl + channelConnectorTransferPath,
-                HttpMethod.POST,
-                new HttpEntity<String>(channelRequest.toString(), httpHeaders),
-                String.class);
-        response.setStatus(channelResponse.getStatusCodeValue());
-        return channelResponse.getBody();
+        JSONObject channelRequest = RefundRequests.channelRequest(existingIncomingTransfer, comment);
+        ResponseEntity<String> channelResponse = channelConnectorClient.postTransfer(tenantId, channelRequest.toString());
+        return new IdempotentResponse(channelResponse.getStatusCodeValue(), channelResponse.getBody());
     }
 
-    private void addExtension(JSONArray extensionList, String key, String value) {
-        JSONObject extension = new JSONObject();
-        extension.put("key", key);
-        extension.put("value", value);
-        extensionList.put(extension);
+    /**
+     * Refunds the completed incoming transfers of the transaction ids, streaming one JSON outcome per line as the
+     * refunds complete.
+     */
+    @PostMapping("/transfer/refunds")
+    public void bulkRefund(@RequestHeader("Platform-TenantId") String tenantId,
+                           @RequestBody BulkRefundRequest request,
+                           HttpServletResponse response) throws IOException {
+        if (request.getTransactionIds() == null || request.getTransactionIds().isEmpty()
+                || request.getTransactionIds().size() > bulkRefundService.getMaxTransactions()) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("application/json");
+            JSONObject failResponse = new JSONObject();
+            failResponse.put("response", "Between 1 and " + bulkRefundService.getMaxTransactions() + " transaction ids are required!");
+            response.getWriter().write(failResponse.toString());
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        PrintWriter writer = response.getWriter();
+        bulkRefundService.refund(tenantId, request.getTransactionIds(), request.getComment(), outcome -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(outcome));
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                logger.error("Could not write refund outcome of transaction {}", outcome.getTransactionId(), e);
+            }
+        });
     }
 
     @GetMapping("/transfer/{workflowInstanceKey}")
     public TransferDetail transferDetails(@PathVariable Long workflowInstanceKey) {
-        Transfer transfer = transferRepository.findFirstByWorkflowInstanceKey(workflowInstanceKey);
-        List<Task> tasks = taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey);
+        CompletableFuture<Transfer> transfer = fetchAsync(() -> transferRepository.findFirstByWorkflowInstanceKey(workflowInstanceKey));
+        CompletableFuture<List<Task>> tasks = fetchAsync(() -> taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey));
         List<Variable> variables = variableRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey);
-        return new TransferDetail(transfer, tasks, variables);
+        return new TransferDetail(await(transfer), await(tasks), variables);
     }
 
     @GetMapping("/transactionRequest/{workflowInstanceKey}")
     public TransactionRequestDetail transactionRequestDetails(@PathVariable Long workflowInstanceKey) {
-        TransactionRequest transactionRequest = transactionRequestRepository.findFirstByWorkflowInstanceKey(workflowInstanceKey);
-        List<Task> tasks = taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey);
+        CompletableFuture<TransactionRequest> transactionRequest = fetchAsync(() -> transactionRequestRepository.findFirstByWorkflowInstanceKey(workflowInstanceKey));
+        CompletableFuture<List<Task>> tasks = fetchAsync(() -> taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey));
         List<Variable> variables = variableRepository.findByWorkflowInstanceKeyOrderByTimestamp(workflowInstanceKey);
-        return new TransactionRequestDetail(transactionRequest, tasks, variables);
+        return new TransactionRequestDetail(await(transactionRequest), await(tasks), variables);
     }
 
     @GetMapping("/variables")
@@ -158,9 +190,17 @@ public class OperationsApi {
             @RequestParam(value = "businessKey") String businessKey,
             @RequestParam(value = "businessKeyType") String businessKeyType
     ) {
-        return loadTransfers(businessKey, businessKeyType).stream()
-                .map(transfer -> variableRepository.findByWorkflowInstanceKeyOrderByTimestamp(transfer.getWorkflowInstanceKey()))
+        List<Long> workflowInstanceKeys = loadTransfers(businessKey, businessKeyType).stream()
+                .map(BusinessKey::getWorkflowInstanceKey)
                 .collect(Collectors.toList());
+        Set<Long> distinctKeys = distinctKeys(workflowInstanceKeys);
+        if (distinctKeys.isEmpty()) {
+            return inKeyOrder(workflowInstanceKeys, Collections.emptyMap());
+        }
+        Map<Long, List<Variable>> variables = variableRepository
+                .findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(distinctKeys).stream()
+                .collect(Collectors.groupingBy(Variable::getWorkflowInstanceKey));
+        return inKeyOrder(workflowInstanceKeys, variables);
     }
 
     @GetMapping("/tasks")
@@ -168,9 +208,57 @@ public class OperationsApi {
             @RequestParam(value = "businessKey") String businessKey,
             @RequestParam(value = "businessKeyType") String businessKeyType
     ) {
-        return loadTransfers(businessKey, businessKeyType).stream()
-                .map(transfer -> taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(transfer.getWorkflowInstanceKey()))
+        List<Long> workflowInstanceKeys = loadTransfers(businessKey, businessKeyType).stream()
+                .map(BusinessKey::getWorkflowInstanceKey)
                 .collect(Collectors.toList());
+        Set<Long> distinctKeys = distinctKeys(workflowInstanceKeys);
+        if (distinctKeys.isEmpty()) {
+            return inKeyOrder(workflowInstanceKeys, Collections.emptyMap());
+        }
+        Map<Long, List<Task>> tasks = taskRepository
+                .findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(distinctKeys).stream()
+                .collect(Collectors.groupingBy(Task::getWorkflowInstanceKey));
+        return inKeyOrder(workflowInstanceKeys, tasks);
+    }
+
+    /**
+     * Runs the query on the detail query executor, or on the calling thread when the executor is saturated.
+     */
+    private <T> CompletableFuture<T> fetchAsync(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, detailQueryExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.debug("detail query executor saturated, running query on the request thread");
+            return CompletableFuture.completedFuture(query.get());
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Set<Long> distinctKeys(List<Long> workflowInstanceKeys) {
+        return workflowInstanceKeys.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Lists the grouped rows in the order of the business keys, an instance without rows gets an empty list.
+     */
+    private <T> List<List<T>> inKeyOrder(List<Long> workflowInstanceKeys, Map<Long, List<T>> grouped) {
+        List<List<T>> result = new ArrayList<>(workflowInstanceKeys.size());
+        for (Long workflowInstanceKey : workflowInstanceKeys) {
+            result.add(grouped.getOrDefault(workflowInstanceKey, Collections.emptyList()));
+        }
+        return result;
     }
 
     private List<BusinessKey> loadTransfers(@RequestParam("businessKey") String
@@ -3,16 +3,24 @@ package org.apache.fineract.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.fineract.core.service.CursorQueryService;
+import org.apache.fineract.core.service.KeysetQueryService;
 import org.apache.fineract.data.ErrorResponse;
+import org.apache.fineract.data.KeysetPage;
 import org.apache.fineract.exception.WriteToCsvException;
+import org.apache.fineract.export.data.ExportJob;
+import org.apache.fineract.export.service.ExportJobService;
 import org.apache.fineract.operations.*;
 import org.apache.fineract.organisation.user.AppUser;
 import org.apache.fineract.organisation.user.AppUserRepository;
+import org.apache.fineract.utils.CsvStreamWriter;
 import org.apache.fineract.utils.CsvUtility;
 import org.apache.fineract.utils.DateUtil;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,6 +31,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.net.URLDecoder;
@@ -43,6 +52,7 @@ public class OperationsDetailedApi {
     private static final String PARSE_DATE_FAILURE_MESSAGE = "failed to parse dates {} / {}";
     private static final String STARTED_AT_STRING = "startedAt";
     private static final String UTF = "UTF-8";
+    private static final int ERROR_DESCRIPTION_LENGTH = 512;
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
@@ -63,17 +73,23 @@ public class OperationsDetailedApi {
     @Autowired
     private AMSConfig amsConfig;
 
+    @Autowired
+    private CursorQueryService cursorQueryService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private KeysetQueryService keysetQueryService;
+
     @GetMapping("/ams/sources")
     public List<AMSConfig.AmsSource> getAmsSourcesList() {
         return amsConfig.getAmsSourcesList();
     }
 
     @GetMapping("/transfers")
-    public Page<TransferResponse> transfers(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "status", required = false) String status, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "sortedBy", required = false) String sortedBy, @RequestParam(value = "partyId", required = false) String partyId, @RequestParam(value = "partyIdType", required = false) String partyIdType, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder) {
-        List<Specifications<Transfer>> specs = getSearchSpecifications(status, amount, currency, direction, partyId, partyIdType, clientCorrelationId);
-        specs.addAll(getSearchSpecification(payerPartyId, payerDfspId, payeeDfspId, payeePartyId, transactionId));
-
-        specs.addAll(getDateSearchSpecs(startFrom, startTo));
+    public Page<TransferResponse> transfers(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "status", required = false) String status, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "sortedBy", required = false) String sortedBy, @RequestParam(value = "partyId", required = false) String partyId, @RequestParam(value = "partyIdType", required = false) String partyIdType, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "count", required = false, defaultValue = "true") boolean count) {
+        List<Specifications<Transfer>> specs = getTransferSearchSpecs(payerPartyId, payerDfspId, payeePartyId, payeeDfspId, transactionId, status, amount, currency, startFrom, startTo, direction, partyId, partyIdType, clientCorrelationId);
 
         PageRequest pager;
         if (sortedBy == null || STARTED_AT_STRING.equals(sortedBy)) {
@@ -82,23 +98,15 @@ public class OperationsDetailedApi {
             pager = new PageRequest(page, size, new Sort(Sort.Direction.fromString(sortedOrder), sortedBy));
         }
 
-        Page<Transfer> transferPage = getTransfers(specs, pager);
+        Page<Transfer> transferPage = count ? getTransfers(specs, pager)
+                : keysetQueryService.findWithoutCount(Transfer.class, combineSpecs(Specifications.<Transfer>where(null), specs), pager);
 
-        List<TransferResponse> transferResponseList = new ArrayList<>();
+        List<TransferResponse> transferResponseList = new ArrayList<>(transferPage.getNumberOfElements());
         for (Transfer transfer : transferPage.getContent()) {
-            TransferResponse transferResponse = null;
             try {
-                String json = transfer.getErrorInformation();
-                transfer.setErrorInformation(null);
-                transferResponse = objectMapper.readValue(objectMapper.writeValueAsString(transfer), TransferResponse.class);
-                transferResponse.parseErrorInformation(json, objectMapper);
-                transferResponseList.add(transferResponse);
-            } catch (Exception e) {
+                transferResponseList.add(TransferResponse.from(transfer, objectMapper));
+            } catch (IOException e) {
                 logger.error("Error parsing errorInformation into DTO: {}", e.getMessage());
-                e.printStackTrace();
-                if (transferResponse != null) {
-                    transferResponseList.add(transferResponse);
-                }
             }
         }
 
@@ -106,6 +114,35 @@ public class OperationsDetailedApi {
 
     }
 
+    /**
+     * Scrolls through the transfers ordered by start date, an empty cursor returns the first page.
+     */
+    @GetMapping(path = "/transfers", params = "cursor")
+    public KeysetPage<TransferResponse> scrollTransfers(@RequestParam(value = "cursor") String cursor, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "status", required = false) String status, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "partyId", required = false) String partyId, @RequestParam(value = "partyIdType", required = false) String partyIdType, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder) {
+        List<Specifications<Transfer>> specs = getTransferSearchSpecs(payerPartyId, payerDfspId, payeePartyId, payeeDfspId, transactionId, status, amount, currency, startFrom, startTo, direction, partyId, partyIdType, clientCorrelationId);
+
+        KeysetPage<Transfer> transferPage = keysetQueryService.seek(Transfer.class, combineSpecs(Specifications.<Transfer>where(null), specs),
+                STARTED_AT_STRING, Transfer::getStartedAt, Sort.Direction.fromString(sortedOrder), cursor, size);
+
+        List<TransferResponse> transferResponseList = new ArrayList<>(transferPage.getContent().size());
+        for (Transfer transfer : transferPage.getContent()) {
+            try {
+                transferResponseList.add(TransferResponse.from(transfer, objectMapper));
+            } catch (IOException e) {
+                logger.error("Error parsing errorInformation into DTO: {}", e.getMessage());
+            }
+        }
+        return new KeysetPage<>(transferResponseList, transferPage.getSize(), transferPage.getNextCursor());
+    }
+
+    private List<Specifications<Transfer>> getTransferSearchSpecs(String payerPartyId, String payerDfspId, String payeePartyId, String payeeDfspId, String transactionId, String status, BigDecimal amount, String currency, String startFrom, String startTo, String direction, String partyId, String partyIdType, String clientCorrelationId) {
+        List<Specifications<Transfer>> specs = getSearchSpecifications(status, amount, currency, direction, partyId, partyIdType, clientCorrelationId);
+        specs.addAll(getSearchSpecification(payerPartyId, payerDfspId, payeeDfspId, payeePartyId, transactionId));
+
+        specs.addAll(getDateSearchSpecs(startFrom, startTo));
+        return specs;
+    }
+
     /**
      * Get the list of transfers based on the specs
      * @param specs list of specifications
@@ -231,7 +268,32 @@ public class OperationsDetailedApi {
     }
 
     @GetMapping("/transactionRequests")
-    public Page<TransactionRequest> transactionRequests(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeePartyIdType", required = false) String payeePartyIdType, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "state", required = false) String state, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId,@RequestParam(value = "externalId", required = false) String externalId, @RequestParam(value = "sortedBy", required = false) String sortedBy, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder) {
+    public Page<TransactionRequest> transactionRequests(@RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeePartyIdType", required = false) String payeePartyIdType, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "state", required = false) String state, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId,@RequestParam(value = "externalId", required = false) String externalId, @RequestParam(value = "sortedBy", required = false) String sortedBy, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "count", required = false, defaultValue = "true") boolean count) {
+        List<Specifications<TransactionRequest>> specs = getTransactionRequestSearchSpecs(payerPartyId, payeeDfspId, payerDfspId, transactionId, state, amount, startFrom, startTo, direction, clientCorrelationId, externalId);
+
+        PageRequest pageRequest = getPager(sortedBy, page, size, sortedOrder);
+
+        return transactionRequestFilter(pageRequest, specs, currency, payeePartyId, payeePartyIdType, count);
+    }
+
+    /**
+     * Scrolls through the transaction requests ordered by start date, an empty cursor returns the first page.
+     */
+    @GetMapping(path = "/transactionRequests", params = "cursor")
+    public KeysetPage<TransactionRequest> scrollTransactionRequests(@RequestParam(value = "cursor") String cursor, @RequestParam(value = "size", required = false, defaultValue = "20") Integer size, @RequestParam(value = "payerPartyId", required = false) String payerPartyId, @RequestParam(value = "payeePartyId", required = false) String payeePartyId, @RequestParam(value = "payeePartyIdType", required = false) String payeePartyIdType, @RequestParam(value = "payeeDfspId", required = false) String payeeDfspId, @RequestParam(value = "payerDfspId", required = false) String payerDfspId, @RequestParam(value = "transactionId", required = false) String transactionId, @RequestParam(value = "state", required = false) String state, @RequestParam(value = "amount", required = false) BigDecimal amount, @RequestParam(value = "currency", required = false) String currency, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "direction", required = false) String direction, @RequestParam(value = "clientCorrelationId", required = false) String clientCorrelationId, @RequestParam(value = "externalId", required = false) String externalId, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.info("authenticated user not found");
+            return new KeysetPage<>(Collections.emptyList(), size, null);
+        }
+        List<Specifications<TransactionRequest>> specs = getTransactionRequestSearchSpecs(payerPartyId, payeeDfspId, payerDfspId, transactionId, state, amount, startFrom, startTo, direction, clientCorrelationId, externalId);
+        specs.addAll(checkAssignments(authentication, payeePartyId, payeePartyIdType, currency));
+
+        return keysetQueryService.seek(TransactionRequest.class, combineSpecs(Specifications.<TransactionRequest>where(null), specs),
+                STARTED_AT_STRING, TransactionRequest::getStartedAt, Sort.Direction.fromString(sortedOrder), cursor, size);
+    }
+
+    private List<Specifications<TransactionRequest>> getTransactionRequestSearchSpecs(String payerPartyId, String payeeDfspId, String payerDfspId, String transactionId, String state, BigDecimal amount, String startFrom, String startTo, String direction, String clientCorrelationId, String externalId) {
         List<Specifications<TransactionRequest>> specs = new ArrayList<>();
         if (payerPartyId != null) {
             specs.add(TransactionRequestSpecs.like(TransactionRequest_.payerPartyId, payerPartyId));
@@ -262,10 +324,7 @@ public class OperationsDetailedApi {
         }
         List<Specifications<TransactionRequest>> dateSpecs = checkDates(startFrom, startTo);
         if (!dateSpecs.isEmpty()) specs.addAll(dateSpecs);
-
-        PageRequest pageRequest = getPager(sortedBy, page, size, sortedOrder);
-
-        return transactionRequestFilter(pageRequest, specs, currency, payeePartyId, payeePartyIdType);
+        return specs;
     }
 
     private List<Specifications<TransactionRequest>> checkDates(String startFrom, String startTo) {
@@ -301,6 +360,10 @@ public class OperationsDetailedApi {
     }
 
     public Page<TransactionRequest> transactionRequestFilter(PageRequest pager, List<Specifications<TransactionRequest>> specs, String currency, String payeePartyId, String payeePartyIdType) {
+        return transactionRequestFilter(pager, specs, currency, payeePartyId, payeePartyIdType, true);
+    }
+
+    private Page<TransactionRequest> transactionRequestFilter(PageRequest pager, List<Specifications<TransactionRequest>> specs, String currency, String payeePartyId, String payeePartyIdType, boolean count) {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         // Check if the user is authenticated
@@ -311,6 +374,9 @@ public class OperationsDetailedApi {
             return new PageImpl<>(Collections.emptyList(), pager, 0);
         }
 
+        if (!count) {
+            return keysetQueryService.findWithoutCount(TransactionRequest.class, combineSpecs(Specifications.<TransactionRequest>where(null), specs), pager);
+        }
         return transactionRequestsResponse(specs, pager);
     }
 
@@ -450,10 +516,31 @@ public class OperationsDetailedApi {
     @PostMapping("/transactionRequests")
     public Map<String, String> filterTransactionRequests(HttpServletResponse response, @RequestParam(value = "command", required = false, defaultValue = "export") String command, @RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "10000") Integer size, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "state", required = false) String state, @RequestBody Map<String, List<String>> body) {
 
+        if (!command.equalsIgnoreCase("export") && !command.equalsIgnoreCase("stream") && !command.equalsIgnoreCase("async")) {
+            return new ErrorResponse.Builder().setErrorCode("" + HttpServletResponse.SC_NOT_FOUND).setErrorDescription(command + " not supported").setDeveloperMessage("Possible supported commands are export, stream and async").build();
+        }
+
+        List<Specifications<TransactionRequest>> specs = getTransactionRequestExportSpecs(startFrom, startTo, state, body);
         if (!command.equalsIgnoreCase("export")) {
-            return new ErrorResponse.Builder().setErrorCode("" + HttpServletResponse.SC_NOT_FOUND).setErrorDescription(command + " not supported").setDeveloperMessage("Possible supported command is " + command).build();
+            return exportAssignedTransactionRequests(response, command, specs, sortedOrder);
+        }
+        PageRequest pager = new PageRequest(page, size, new Sort(Sort.Direction.valueOf(sortedOrder), STARTED_AT_STRING));
+        // passing nulls for currency, payeePartyId and payeePartyIdType here to mean that the results should be restricted to the user's assignments
+        Page<TransactionRequest> result = transactionRequestFilter(pager, specs, null, null, null);
+        List<TransactionRequest> data = result.getContent();
+        if (data.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return ErrorResponse.forEmptyResult();
+        }
+        try {
+            CsvUtility.writeToCsv(response, data, generateCsvFileName("transactionRequest_"));
+        } catch (WriteToCsvException e) {
+            return new ErrorResponse.Builder().setErrorCode(e.getErrorCode()).setErrorDescription(e.getErrorDescription()).setDeveloperMessage(e.getDeveloperMessage()).build();
         }
+        return null;
+    }
 
+    private List<Specifications<TransactionRequest>> getTransactionRequestExportSpecs(String startFrom, String startTo, String state, Map<String, List<String>> body) {
         List<String> filterByList = new ArrayList<>(body.keySet());
 
         List<Specifications<TransactionRequest>> specs = new ArrayList<>();
@@ -490,25 +577,66 @@ public class OperationsDetailedApi {
                 specs.add(spec);
             }
         }
+        return specs;
+    }
+
+    /*
+     * Streams or submits as export job the matching [TransactionRequest] rows restricted to the user's assignments
+     */
+    private Map<String, String> exportAssignedTransactionRequests(HttpServletResponse response, String command, List<Specifications<TransactionRequest>> specs, String sortedOrder) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.info("authenticated user not found");
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return ErrorResponse.forEmptyResult();
+        }
+        specs.addAll(checkAssignments(authentication, null, null, null));
+        if (command.equalsIgnoreCase("async")) {
+            return submitExportJob(response, TransactionRequest.class, specs, sortedOrder, "transactionRequest_");
+        }
+        return streamToCsv(response, TransactionRequest.class, specs, sortedOrder, generateCsvFileName("transactionRequest_"));
+    }
+
+    @PostMapping("/transfers/export")
+    public Map<String, String> exportTransfers(HttpServletResponse response, @RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "10000") Integer size, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "state", required = false) String state, @RequestBody Map<String, List<String>> body) {
+
+        List<Specifications<Transfer>> specs = getTransferExportSpecs(startFrom, startTo, state, body);
         PageRequest pager = new PageRequest(page, size, new Sort(Sort.Direction.valueOf(sortedOrder), STARTED_AT_STRING));
-        // passing nulls for currency, payeePartyId and payeePartyIdType here to mean that the results should be restricted to the user's assignments
-        Page<TransactionRequest> result = transactionRequestFilter(pager, specs, null, null, null);
-        List<TransactionRequest> data = result.getContent();
+        Page<Transfer> result = getTransfers(specs, pager);
+        List<Transfer> data = result.getContent();
         if (data.isEmpty()) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             return ErrorResponse.forEmptyResult();
         }
         try {
-            CsvUtility.writeToCsv(response, data, generateCsvFileName("transactionRequest_"));
+            CsvUtility.writeToCsv(response, data, generateCsvFileName("transfer_"));
         } catch (WriteToCsvException e) {
             return new ErrorResponse.Builder().setErrorCode(e.getErrorCode()).setErrorDescription(e.getErrorDescription()).setDeveloperMessage(e.getDeveloperMessage()).build();
         }
         return null;
     }
 
-    @PostMapping("/transfers/export")
-    public Map<String, String> exportTransfers(HttpServletResponse response, @RequestParam(value = "page", required = false, defaultValue = "0") Integer page, @RequestParam(value = "size", required = false, defaultValue = "10000") Integer size, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "state", required = false) String state, @RequestBody Map<String, List<String>> body) {
+    /**
+     * Same as [exportTransfers], but scrolls through all the matching transfers with a database cursor instead of
+     * loading a single page, so the export is not limited in size
+     */
+    @PostMapping(path = "/transfers/export", params = "command=stream")
+    public Map<String, String> streamTransfers(HttpServletResponse response, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "state", required = false) String state, @RequestBody Map<String, List<String>> body) {
+        List<Specifications<Transfer>> specs = getTransferExportSpecs(startFrom, startTo, state, body);
+        return streamToCsv(response, Transfer.class, specs, sortedOrder, generateCsvFileName("transfer_"));
+    }
 
+    /**
+     * Submits the export of all the matching transfers as a background job, the result file is delivered through
+     * the object storage, see [ExportJobApi]
+     */
+    @PostMapping(path = "/transfers/export", params = "command=async")
+    public Map<String, String> submitTransfersExport(HttpServletResponse response, @RequestParam(value = "sortedOrder", required = false, defaultValue = "DESC") String sortedOrder, @RequestParam(value = "startFrom", required = false) String startFrom, @RequestParam(value = "startTo", required = false) String startTo, @RequestParam(value = "state", required = false) String state, @RequestBody Map<String, List<String>> body) {
+        List<Specifications<Transfer>> specs = getTransferExportSpecs(startFrom, startTo, state, body);
+        return submitExportJob(response, Transfer.class, specs, sortedOrder, "transfer_");
+    }
+
+    private List<Specifications<Transfer>> getTransferExportSpecs(String startFrom, String startTo, String state, Map<String, List<String>> body) {
         List<String> filterByList = new ArrayList<>(body.keySet());
         List<Specifications<Transfer>> specs = new ArrayList<>();
         if (state != null && parseStatus(state) != null) {
@@ -531,21 +659,43 @@ public class OperationsDetailedApi {
                 specs.add(spec);
             }
         }
-        PageRequest pager = new PageRequest(page, size, new Sort(Sort.Direction.valueOf(sortedOrder), STARTED_AT_STRING));
-        Page<Transfer> result = getTransfers(specs, pager);
-        List<Transfer> data = result.getContent();
-        if (data.isEmpty()) {
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            return ErrorResponse.forEmptyResult();
-        }
+        return specs;
+    }
+
+    /*
+     * Writes all the entities matching the specifications into the response as csv, row by row
+     */
+    private <T> Map<String, String> streamToCsv(HttpServletResponse response, Class<T> entityClass, List<Specifications<T>> specs, String sortedOrder, String filename) {
+        CsvStreamWriter<T> writer = new CsvStreamWriter<>(response, entityClass, filename);
         try {
-            CsvUtility.writeToCsv(response, data, generateCsvFileName("transfer_"));
+            cursorQueryService.stream(entityClass, combineSpecs(Specifications.<T>where(null), specs), Sort.Direction.valueOf(sortedOrder), STARTED_AT_STRING, writer::write);
+            if (writer.getRowCount() == 0) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return ErrorResponse.forEmptyResult();
+            }
+            writer.close();
+            logger.info("Streamed {} {} row(s) into {}", writer.getRowCount(), entityClass.getSimpleName(), filename);
         } catch (WriteToCsvException e) {
             return new ErrorResponse.Builder().setErrorCode(e.getErrorCode()).setErrorDescription(e.getErrorDescription()).setDeveloperMessage(e.getDeveloperMessage()).build();
         }
         return null;
     }
 
+    private <T> Map<String, String> submitExportJob(HttpServletResponse response, Class<T> entityClass, List<Specifications<T>> specs, String sortedOrder, String filePrefix) {
+        try {
+            ExportJob job = exportJobService.submit(entityClass, combineSpecs(Specifications.<T>where(null), specs), Sort.Direction.valueOf(sortedOrder), STARTED_AT_STRING, filePrefix);
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            Map<String, String> result = new HashMap<>();
+            result.put("jobId", job.getJobId());
+            result.put("status", job.getStatus().name());
+            result.put("location", "/api/v1/exports/" + job.getJobId());
+            return result;
+        } catch (TaskRejectedException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return new ErrorResponse.Builder().setErrorCode("" + HttpServletResponse.SC_SERVICE_UNAVAILABLE).setErrorDescription("Too many exports in progress, retry later").setDeveloperMessage(e.getMessage()).build();
+        }
+    }
+
     /*
      * Returns respective [TransactionRequest] specifications based on filter
      * @param filter the filter we want to apply
@@ -570,7 +720,7 @@ public class OperationsDetailedApi {
                 spec = TransactionRequestSpecs.in(TransactionRequest_.state, parseStates(listOfValues));
                 break;
             case ERRORDESCRIPTION:
-                spec = TransactionRequestSpecs.filterByErrorDescription(parseErrorDescription(listOfValues));
+                spec = TransactionRequestSpecs.errorDescriptionIn(parseErrorDescription(listOfValues));
                 break;
             case EXTERNALID:
                 spec = TransactionRequestSpecs.in(TransactionRequest_.externalId, listOfValues);
@@ -638,14 +788,14 @@ public class OperationsDetailedApi {
     }
 
     /*
-     * Generates the exhaustive errorDescription list by prefixing and suffixing it with double quotes (")
+     * Strips the double quotes (") the error description variables are stored with and cuts them to the stored length
      *
-     * Example: [ "AMS Local is disabled"] => [ "AMS Local is disabled", "\"AMS Local is disabled\""]
+     * Example: [ "\"AMS Local is disabled\""] => [ "AMS Local is disabled"]
      */
     private List<String> parseErrorDescription(List<String> description) {
-        List<String> errorDesc = new ArrayList<>(description);
+        List<String> errorDesc = new ArrayList<>(description.size());
         for (String s : description) {
-            errorDesc.add(String.format("\"%s\"", s));
+            errorDesc.add(StringUtils.left(StringUtils.strip(s, "\""), ERROR_DESCRIPTION_LENGTH));
         }
         return errorDesc;
     }
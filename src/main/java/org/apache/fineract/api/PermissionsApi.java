@@ -20,6 +20,7 @@ package org.apache.fineract.api;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.permission.Permission;
 import org.apache.fineract.organisation.permission.PermissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +46,9 @@ public class PermissionsApi {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @GetMapping(path = "/permissions", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<Permission> retrieveAll() {
         return this.permissionRepository.findAll();
@@ -79,6 +83,7 @@ public class PermissionsApi {
             permission.setId(permissionId);
             permission.setRoles(existing.getRoles());
             permissionRepository.saveAndFlush(permission);
+            userAuthorityCache.invalidateTenant();
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -88,6 +93,7 @@ public class PermissionsApi {
     public void delete(@PathVariable("permissionId") Long permissionId, HttpServletResponse response) {
         if(permissionRepository.existsById(permissionId)) {
             permissionRepository.deleteById(permissionId);
+            userAuthorityCache.invalidateTenant();
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -20,6 +20,7 @@ package org.apache.fineract.api;
 
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.permission.Permission;
 import org.apache.fineract.organisation.permission.PermissionRepository;
 import org.apache.fineract.organisation.role.Role;
@@ -52,6 +53,9 @@ public class RolesApi {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @GetMapping(path = "/roles", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<Role> retrieveAll() {
         return this.roleRepository.findAll();
@@ -98,6 +102,7 @@ public class RolesApi {
             role.setAppUsers(existing.getAppusers());
             role.setPermissions(existing.getPermissions());
             roleRepository.saveAndFlush(role);
+            userAuthorityCache.invalidateTenant();
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -107,6 +112,7 @@ public class RolesApi {
     public void delete(@PathVariable("roleId") Long roleId, HttpServletResponse response) {
         if(roleRepository.existsById(roleId)) {
             roleRepository.deleteById(roleId);
+            userAuthorityCache.invalidateTenant();
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -146,6 +152,7 @@ public class RolesApi {
                 }
                 existingRole.setPermissions(permissionToAssign);
                 roleRepository.saveAndFlush(existingRole);
+                userAuthorityCache.invalidateTenant();
             }
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
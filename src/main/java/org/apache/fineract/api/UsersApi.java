@@ -21,6 +21,7 @@ package org.apache.fineract.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.role.Role;
 import org.apache.fineract.organisation.role.RoleRepository;
 import org.apache.fineract.organisation.user.AppUser;
@@ -54,6 +55,9 @@ public class UsersApi {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @GetMapping(path = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<AppUser> retrieveAll() {
         return this.appuserRepository.findAll();
@@ -110,6 +114,7 @@ public class UsersApi {
                 appUser.setPassword(passwordEncoder.encode(appUser.getPassword()));
             appUser.setRoles(existing.get().getRoles());
             appuserRepository.saveAndFlush(appUser);
+            userAuthorityCache.invalidate(userId);
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -144,6 +149,7 @@ public class UsersApi {
     public void delete(@PathVariable("userId") Long userId, HttpServletResponse response) {
         if (appuserRepository.findById(userId).isPresent()) {
             appuserRepository.deleteById(userId);
+            userAuthorityCache.invalidate(userId);
         } else {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -224,6 +230,7 @@ public class UsersApi {
             }
             existingUser.setRoles(rolesToAssign);
             appuserRepository.saveAndFlush(existingUser);
+            userAuthorityCache.invalidate(existingUser.getId());
         }
     }
 }
\ No newline at end of file
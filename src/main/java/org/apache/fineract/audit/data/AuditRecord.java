@@ -0,0 +1,34 @@
+package org.apache.fineract.audit.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit entry waiting in the write-behind queue, captured with the tenant and the user name of the request it
+ * was made in.
+ */
+@Getter
+@AllArgsConstructor
+public class AuditRecord {
+
+    private final TenantServerConnection tenant;
+
+    private final Long resourceId;
+
+    private final String actionName;
+
+    private final String entityName;
+
+    private final String dataAsJson;
+
+    private final String makerName;
+
+    private final String processingResult;
+
+    private final LocalDateTime madeOnDate;
+
+    private final long enqueuedAtNanos;
+}
@@ -19,4 +19,13 @@ public class AuditSearch {
     private final LocalDateTime makerDateTimeFrom;
     private final LocalDateTime makerDateTimeTo;
     private final String processingResult;
+    /**
+     * Match the name filters as a whole instead of as a part, which lets the search use the indexes.
+     */
+    private final boolean exactMatch;
+
+    public AuditSearch(String actionName, String entityName, Long resourceId, Long makerId, LocalDateTime makerDateTimeFrom,
+                       LocalDateTime makerDateTimeTo, String processingResult) {
+        this(actionName, entityName, resourceId, makerId, makerDateTimeFrom, makerDateTimeTo, processingResult, false);
+    }
 }
@@ -0,0 +1,83 @@
+package org.apache.fineract.audit.service;
+
+import org.apache.fineract.audit.data.AuditRecord;
+import org.apache.fineract.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts the audit entries of one tenant with a single batch statement, the tenant has to be set on the calling
+ * thread.
+ */
+@Component
+public class AuditBatchWriter {
+
+    private static final String INSERT_AUDIT = "INSERT INTO m_audit_source "
+            + "(action_name, entity_name, resource_id, data_as_json, maker_id, made_on_date, processing_result, "
+            + "created_date, created_by, last_modified_date, last_modified_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_MAKERS = "SELECT id, username FROM m_appuser WHERE username IN (:usernames)";
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void setup() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(routingDataSource);
+    }
+
+    /**
+     * @return the number of entries written, entries whose maker is not a known user are skipped as the audit
+     * table requires one
+     */
+    @Transactional
+    public int insert(List<AuditRecord> records) {
+        Map<String, Long> makerIds = findMakerIds(records);
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            Long makerId = makerIds.get(record.getMakerName());
+            if (makerId == null) {
+                continue;
+            }
+            // the entry is created by its maker when the audited action happened, as the entity listener would
+            Timestamp madeOn = Timestamp.valueOf(record.getMadeOnDate());
+            rows.add(new Object[]{record.getActionName(), record.getEntityName(), record.getResourceId(), record.getDataAsJson(),
+                    makerId, madeOn, record.getProcessingResult(), madeOn, record.getMakerName(), madeOn, record.getMakerName()});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_AUDIT, rows);
+        }
+        return rows.size();
+    }
+
+    private Map<String, Long> findMakerIds(List<AuditRecord> records) {
+        Set<String> usernames = records.stream()
+                .map(AuditRecord::getMakerName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Long> makerIds = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return makerIds;
+        }
+        jdbcTemplate.query(SELECT_MAKERS, new MapSqlParameterSource("usernames", usernames),
+                (RowCallbackHandler) rs -> makerIds.put(rs.getString("username"), rs.getLong("id")));
+        return makerIds;
+    }
+}
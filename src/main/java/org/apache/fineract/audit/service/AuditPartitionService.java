@@ -0,0 +1,197 @@
+package org.apache.fineract.audit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.RoutingDataSource;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.file.FileTransferService;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.supercsv.io.CsvListWriter;
+import org.supercsv.io.ICsvListWriter;
+import org.supercsv.prefs.CsvPreference;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly range partitions of m_audit_source on made_on_date: partitions are split off p_future ahead
+ * of time, and partitions past the retention period are archived as gzipped csv files to the configured storage
+ * before they are dropped. The tenant has to be set on the calling thread.
+ */
+@Service
+@Slf4j
+public class AuditPartitionService {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final Pattern PARTITION_NAME = Pattern.compile("p_?[a-z0-9]+");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] ARCHIVE_COLUMNS = {"id", "action_name", "entity_name", "resource_id", "data_as_json",
+            "maker_id", "made_on_date", "processing_result", "created_date", "last_modified_date", "created_by", "last_modified_by"};
+
+    // the upper bound is converted in the session time zone, the same one UNIX_TIMESTAMP() used when the bound was set
+    private static final String SELECT_PARTITIONS = "SELECT PARTITION_NAME, "
+            + "IF(PARTITION_DESCRIPTION = 'MAXVALUE', NULL, FROM_UNIXTIME(PARTITION_DESCRIPTION)) AS UPPER_BOUND "
+            + "FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'm_audit_source' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    @Autowired
+    private BeanFactory beanFactory;
+
+    @Value("${audit.retention.storage}")
+    private String storage;
+
+    @Value("${application.bucket-name}")
+    private String bucketName;
+
+    @Value("${export.stream.fetch-size}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Splits monthly partitions off p_future until the partitions cover the given number of months after the current
+     * one.
+     *
+     * @return the number of partitions created
+     */
+    public int ensureFuturePartitions(int monthsAhead) {
+        List<AuditPartition> partitions = findPartitions();
+        if (partitions.isEmpty() || !FUTURE_PARTITION.equals(partitions.get(partitions.size() - 1).name)) {
+            log.warn("m_audit_source of tenant {} is not partitioned, skipping partition maintenance", tenantName());
+            return 0;
+        }
+        LocalDateTime lastBound = partitions.size() > 1 ? partitions.get(partitions.size() - 2).upperBound : null;
+        YearMonth next = lastBound != null ? YearMonth.from(lastBound) : YearMonth.now();
+        YearMonth until = YearMonth.now().plusMonths(monthsAhead);
+
+        int created = 0;
+        while (!next.isAfter(until)) {
+            String bound = next.plusMonths(1).atDay(1).atStartOfDay().format(BOUND_FORMAT);
+            jdbcTemplate.execute("ALTER TABLE m_audit_source REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                    + "PARTITION p" + next.format(PARTITION_SUFFIX) + " VALUES LESS THAN (UNIX_TIMESTAMP('" + bound + "')), "
+                    + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            created++;
+            next = next.plusMonths(1);
+        }
+        if (created > 0) {
+            log.info("Created {} audit partition(s) for tenant {}", created, tenantName());
+        }
+        return created;
+    }
+
+    /**
+     * Archives and drops the partitions holding only entries made before the start of the month the given number of
+     * months ago. A partition whose archive could not be stored is kept.
+     *
+     * @return the number of partitions dropped
+     */
+    public int archiveExpiredPartitions(int retentionMonths) {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        int dropped = 0;
+        for (AuditPartition partition : findPartitions()) {
+            if (partition.upperBound == null || partition.upperBound.isAfter(cutoff)) {
+                continue;
+            }
+            if (!PARTITION_NAME.matcher(partition.name).matches()) {
+                log.warn("Skipping audit partition with unexpected name {} of tenant {}", partition.name, tenantName());
+                continue;
+            }
+            try {
+                archive(partition.name);
+                jdbcTemplate.execute("ALTER TABLE m_audit_source DROP PARTITION " + partition.name);
+                dropped++;
+                log.info("Archived and dropped audit partition {} of tenant {}", partition.name, tenantName());
+            } catch (Exception e) {
+                log.error("Could not archive audit partition {} of tenant {}, keeping it", partition.name, tenantName(), e);
+            }
+        }
+        return dropped;
+    }
+
+    private void archive(String partitionName) throws IOException {
+        File tempFile = File.createTempFile("audit-" + partitionName, ".csv.gz");
+        try {
+            try (ICsvListWriter csvWriter = new CsvListWriter(new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8)), CsvPreference.STANDARD_PREFERENCE)) {
+                csvWriter.writeHeader(ARCHIVE_COLUMNS);
+                jdbcTemplate.query("SELECT " + String.join(", ", ARCHIVE_COLUMNS) + " FROM m_audit_source PARTITION ("
+                        + partitionName + ") ORDER BY id", (RowCallbackHandler) rs -> {
+                    List<Object> row = new ArrayList<>(ARCHIVE_COLUMNS.length);
+                    for (int i = 1; i <= ARCHIVE_COLUMNS.length; i++) {
+                        row.add(rs.getObject(i));
+                    }
+                    try {
+                        csvWriter.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            String fileName = "audit-archive/" + tenantName() + "/m_audit_source_" + partitionName + ".csv.gz";
+            String location = fileTransferService().uploadFile(tempFile, fileName, bucketName);
+            if (location == null) {
+                throw new IllegalStateException("Upload of the audit archive " + fileName + " failed");
+            }
+        } finally {
+            if (!tempFile.delete()) {
+                log.warn("Unable to delete temp file {}", tempFile.getPath());
+            }
+        }
+    }
+
+    private List<AuditPartition> findPartitions() {
+        return jdbcTemplate.query(SELECT_PARTITIONS, (rs, rowNum) -> {
+            Timestamp upperBound = rs.getTimestamp("UPPER_BOUND");
+            return new AuditPartition(rs.getString("PARTITION_NAME"), upperBound != null ? upperBound.toLocalDateTime() : null);
+        });
+    }
+
+    private String tenantName() {
+        return ThreadLocalContextUtil.getTenant() != null ? ThreadLocalContextUtil.getTenant().getSchemaName() : "default";
+    }
+
+    private FileTransferService fileTransferService() {
+        return BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, FileTransferService.class, storage);
+    }
+
+    private static class AuditPartition {
+        private final String name;
+        private final LocalDateTime upperBound;
+
+        AuditPartition(String name, LocalDateTime upperBound) {
+            this.name = name;
+            this.upperBound = upperBound;
+        }
+    }
+}
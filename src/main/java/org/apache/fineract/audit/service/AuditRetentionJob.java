@@ -0,0 +1,45 @@
+package org.apache.fineract.audit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the audit partitions of every tenant ahead of time and archives the ones past the retention period.
+ */
+@Component
+@Slf4j
+public class AuditRetentionJob {
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private AuditPartitionService auditPartitionService;
+
+    @Value("${audit.retention.months}")
+    private int retentionMonths;
+
+    @Value("${audit.retention.months-ahead}")
+    private int monthsAhead;
+
+    @Scheduled(cron = "${audit.retention.cron}")
+    public void maintainPartitions() {
+        for (TenantServerConnection tenant : repository.findAll()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                auditPartitionService.ensureFuturePartitions(monthsAhead);
+                auditPartitionService.archiveExpiredPartitions(retentionMonths);
+            } catch (Exception e) {
+                log.error("Error when maintaining audit partitions of tenant: {}", tenant.getSchemaName(), e);
+            } finally {
+                ThreadLocalContextUtil.clear();
+            }
+        }
+    }
+}
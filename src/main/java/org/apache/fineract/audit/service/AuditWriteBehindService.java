@@ -0,0 +1,112 @@
+package org.apache.fineract.audit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.audit.data.AuditRecord;
+import org.apache.fineract.core.service.WriteBehindQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes the entity audit entries off the request path: entries are queued in a bounded in-memory queue and a
+ * background writer inserts them in batches per tenant. When the queue stays full for the offer timeout the entry
+ * is dropped and counted, the queue is drained before shutdown completes.
+ */
+@Service
+@Slf4j
+public class AuditWriteBehindService {
+
+    @Autowired
+    private AuditBatchWriter auditBatchWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.write-behind.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${audit.write-behind.batch-size}")
+    private int batchSize;
+
+    @Value("${audit.write-behind.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${audit.write-behind.offer-timeout-ms}")
+    private long offerTimeoutMs;
+
+    @Value("${audit.write-behind.shutdown-timeout-ms}")
+    private long shutdownTimeoutMs;
+
+    private WriteBehindQueue<AuditRecord> queue;
+
+    private Counter written;
+    private Counter droppedQueueFull;
+    private Counter droppedNoMaker;
+    private Counter droppedShutdown;
+    private Timer lag;
+
+    @PostConstruct
+    public void start() {
+        written = meterRegistry.counter("audit.write_behind.written");
+        droppedQueueFull = meterRegistry.counter("audit.write_behind.dropped", "reason", "queue_full");
+        droppedNoMaker = meterRegistry.counter("audit.write_behind.dropped", "reason", "unknown_maker");
+        droppedShutdown = meterRegistry.counter("audit.write_behind.dropped", "reason", "shutdown");
+        lag = meterRegistry.timer("audit.write_behind.lag");
+        queue = new WriteBehindQueue<>("audit", queueCapacity, batchSize, flushIntervalMs, shutdownTimeoutMs,
+                AuditRecord::getTenant, this::insert, meterRegistry.counter("audit.write_behind.failed"));
+        meterRegistry.gauge("audit.write_behind.queue.size", queue, WriteBehindQueue::size);
+        queue.start();
+    }
+
+    /**
+     * Queues the entry, waiting at most the offer timeout for room in the queue.
+     *
+     * @return false when the entry was dropped
+     */
+    public boolean submit(AuditRecord record) {
+        if (!queue.isRunning()) {
+            droppedShutdown.increment();
+            return false;
+        }
+        if (queue.offer(record, offerTimeoutMs)) {
+            return true;
+        }
+        droppedQueueFull.increment();
+        log.warn("Audit queue full, dropped {} audit of {}", record.getActionName(), record.getEntityName());
+        return false;
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, the tenant of the caller is kept.
+     */
+    public void flush() {
+        queue.flush();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    private void insert(List<AuditRecord> records) {
+        int count = auditBatchWriter.insert(records);
+        written.increment(count);
+        droppedNoMaker.increment(records.size() - count);
+        long now = System.nanoTime();
+        for (AuditRecord record : records) {
+            lag.record(now - record.getEnqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -31,7 +31,6 @@ public class AuditSpec extends BaseSpecification<AuditSource, AuditSearch> {
     @Override
     public Specification<AuditSource> getFilter(AuditSearch request) {
         return (root, query, cb) -> {
-            query.distinct(true);
             List<Predicate> predicates = new ArrayList<>();
 
             addDateFilterPredicates(request, root, cb, predicates);
@@ -52,33 +51,42 @@ public class AuditSpec extends BaseSpecification<AuditSource, AuditSearch> {
         LocalDateTime endDateTime = request.getMakerDateTimeTo() != null
                 ? request.getMakerDateTimeTo().withHour(23).withMinute(59).withSecond(59).withNano(999999999)
                 : null;
-        if (startDateTime != null || endDateTime != null) {
-            if (startDateTime == null) {
-                startDateTime = LocalDateTime.MIN;
-            }
-            if (endDateTime == null) {
-                endDateTime = LocalDateTime.now();
-            }
-            predicates.add(cb.between(root.get("madeOnDate"), startDateTime, endDateTime));
+        // open ended bounds are left out so that the partitions of made_on_date can be pruned on the given one
+        if (startDateTime != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("madeOnDate"), startDateTime));
+        }
+        if (endDateTime != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("madeOnDate"), endDateTime));
         }
     }
 
     private void addActionNameFilterPredicate(AuditSearch request, Root<AuditSource> root, CriteriaBuilder cb, List<Predicate> predicates) {
         if (request.getActionName() != null) {
-            predicates.add(cb.like(cb.lower(root.get("actionName")), "%" + request.getActionName().toLowerCase() + "%"));
+            predicates.add(nameMatches(request, root, cb, "actionName", request.getActionName()));
         }
     }
 
     private void addEntityNameFilterPredicate(AuditSearch request, Root<AuditSource> root, CriteriaBuilder cb, List<Predicate> predicates) {
         if (request.getEntityName() != null) {
-            predicates.add(cb.like(cb.lower(root.get("entityName")), "%" + request.getEntityName().toLowerCase() + "%"));
+            predicates.add(nameMatches(request, root, cb, "entityName", request.getEntityName()));
         }
     }
 
     private void addProcessingResultFilterPredicate(AuditSearch request, Root<AuditSource> root, CriteriaBuilder cb, List<Predicate> predicates) {
         if (request.getProcessingResult() != null) {
-            predicates.add(cb.like(cb.lower(root.get("processingResult")), "%" + request.getProcessingResult().toLowerCase() + "%"));
+            predicates.add(nameMatches(request, root, cb, "processingResult", request.getProcessingResult()));
+        }
+    }
+
+    /**
+     * An exact match compares the column as is, the case insensitive collation of the column takes care of the case
+     * and the index on the column stays usable.
+     */
+    private Predicate nameMatches(AuditSearch request, Root<AuditSource> root, CriteriaBuilder cb, String attribute, String value) {
+        if (request.isExactMatch()) {
+            return cb.equal(root.get(attribute), value);
         }
+        return cb.like(cb.lower(root.get(attribute)), containsLowerCase(value));
     }
 
     private void addMakerIdFilterPredicate(AuditSearch request, Root<AuditSource> root, CriteriaBuilder cb, List<Predicate> predicates) {
@@ -0,0 +1,42 @@
+package org.apache.fineract.batch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the batch counters which were not refreshed within the configured max age. Transfers are
+ * written by the importer, so this job is what keeps the stored counters up to date.
+ */
+@Component
+@Slf4j
+public class BatchReconciliationJob {
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private BatchStatisticsService batchStatisticsService;
+
+    @Scheduled(fixedDelayString = "${batch.statistics.reconcile-interval-ms}",
+            initialDelayString = "${batch.statistics.reconcile-interval-ms}")
+    public void reconcileTenants() {
+        for (TenantServerConnection tenant : repository.findAll()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                int refreshed = batchStatisticsService.reconcile();
+                if (refreshed > 0) {
+                    log.info("Reconciled {} batch(es) of tenant {}", refreshed, tenant.getSchemaName());
+                }
+            } catch (Exception e) {
+                log.error("Error when reconciling batches of tenant: {}", tenant.getSchemaName(), e);
+            } finally {
+                ThreadLocalContextUtil.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.apache.fineract.batch.service;
+
+import org.apache.fineract.operations.Batch;
+
+/**
+ * Maintains the counters and amounts stored on the {@link Batch} rows. They are recounted by the reconciliation job
+ * and on reads once they are older than {@code batch.statistics.max-age-seconds}.
+ */
+public interface BatchStatisticsService {
+
+    /**
+     * Recomputes the counters and amounts of the batch from its transfers and sub batches and saves them.
+     */
+    Batch refresh(Batch batch);
+
+    /**
+     * Tells whether the stored counters of the batch are too old to be served as they are.
+     */
+    boolean isStale(Batch batch);
+
+    /**
+     * Refreshes one chunk of stale batches of the current tenant.
+     * @return the number of refreshed batches
+     */
+    int reconcile();
+}
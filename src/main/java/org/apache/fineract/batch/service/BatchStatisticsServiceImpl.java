@@ -0,0 +1,146 @@
+package org.apache.fineract.batch.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.config.PaymentModeConfiguration;
+import org.apache.fineract.operations.Batch;
+import org.apache.fineract.operations.BatchRepository;
+import org.apache.fineract.operations.TransferRepository;
+import org.apache.fineract.operations.TransferStatus;
+import org.apache.fineract.operations.TransferStatusSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.apache.fineract.core.service.OperatorUtils.strip;
+
+@Service
+@Slf4j
+public class BatchStatisticsServiceImpl implements BatchStatisticsService {
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private PaymentModeConfiguration paymentModeConfig;
+
+    @Value("${batch.statistics.max-age-seconds}")
+    private long maxAgeSeconds;
+
+    @Value("${batch.statistics.reconcile-chunk-size}")
+    private int reconcileChunkSize;
+
+    @Override
+    public Batch refresh(Batch batch) {
+        long completed = 0L;
+        long failed = 0L;
+        long total = 0L;
+        long ongoing = 0L;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal completedAmount = BigDecimal.ZERO;
+        BigDecimal ongoingAmount = BigDecimal.ZERO;
+        BigDecimal failedAmount = BigDecimal.ZERO;
+
+        for (TransferStatusSummary summary : transferRepository.summarizeByBatchId(batch.getBatchId())) {
+            // this will prevent 2x count of variables by eliminating data from transfers table
+            if (isBatchPaymentMode(summary.getPaymentMode())) {
+                continue;
+            }
+            total += summary.getCount();
+            totalAmount = totalAmount.add(summary.getAmount());
+            if (TransferStatus.COMPLETED.equals(summary.getStatus())) {
+                completed += summary.getCount();
+                completedAmount = completedAmount.add(summary.getAmount());
+            } else if (TransferStatus.FAILED.equals(summary.getStatus())) {
+                failed += summary.getCount();
+                failedAmount = failedAmount.add(summary.getAmount());
+            } else if (TransferStatus.IN_PROGRESS.equals(summary.getStatus())) {
+                ongoing += summary.getCount();
+                ongoingAmount = ongoingAmount.add(summary.getAmount());
+            }
+        }
+
+        // adding up the matrices of the sub batches
+        for (Batch bt : batchRepository.findAllByBatchId(batch.getBatchId())) {
+            if (bt.getSubBatchId() == null || bt.getSubBatchId().isEmpty()) {
+                continue;
+            }
+            if (bt.getFailed() != null) {
+                failed += bt.getFailed();
+                failedAmount = failedAmount.add(toAmount(bt.getFailedAmount()));
+            }
+            if (bt.getCompleted() != null) {
+                completed += bt.getCompleted();
+                completedAmount = completedAmount.add(toAmount(bt.getCompletedAmount()));
+            }
+            if (bt.getOngoing() != null) {
+                ongoing += bt.getOngoing();
+                ongoingAmount = ongoingAmount.add(toAmount(bt.getOngoingAmount()));
+            }
+            if (bt.getTotalTransactions() != null) {
+                total += bt.getTotalTransactions();
+                totalAmount = totalAmount.add(toAmount(bt.getTotalAmount()));
+            }
+        }
+
+        Date generatedAt = new Date();
+        if (batch.getId() != null) {
+            // only the counter columns are written, and only if no other recount stored counters since the batch was read
+            int updated = batchRepository.storeCounters(batch.getId(), batch.getStatisticsVersion(), total, ongoing,
+                    completed, failed, totalAmount, ongoingAmount, completedAmount, failedAmount, generatedAt);
+            if (updated == 0) {
+                log.debug("Counters of batch {} were stored by another recount, keeping them", batch.getBatchId());
+                return batch;
+            }
+            batch.setStatisticsVersion(batch.getStatisticsVersion() + 1);
+        }
+        batch.setCompleted(completed);
+        batch.setFailed(failed);
+        batch.setOngoing(ongoing);
+        batch.setTotalTransactions(total);
+        batch.setCompletedAmount(completedAmount);
+        batch.setFailedAmount(failedAmount);
+        batch.setOngoingAmount(ongoingAmount);
+        batch.setTotalAmount(totalAmount);
+        batch.setResultGeneratedAt(generatedAt);
+        return batch.getId() != null ? batch : batchRepository.save(batch);
+    }
+
+    @Override
+    public boolean isStale(Batch batch) {
+        Date generatedAt = batch.getResultGeneratedAt();
+        if (generatedAt == null) {
+            return true;
+        }
+        // counters taken after the batch completed can not change anymore
+        if (batch.getCompletedAt() != null && !generatedAt.before(batch.getCompletedAt())) {
+            return false;
+        }
+        return System.currentTimeMillis() - generatedAt.getTime() > maxAgeSeconds * 1000;
+    }
+
+    @Override
+    public int reconcile() {
+        Date threshold = new Date(System.currentTimeMillis() - maxAgeSeconds * 1000);
+        List<Batch> staleBatches = batchRepository.findStaleBatches(threshold, PageRequest.of(0, reconcileChunkSize));
+        for (Batch batch : staleBatches) {
+            refresh(batch);
+        }
+        return staleBatches.size();
+    }
+
+    private boolean isBatchPaymentMode(String paymentMode) {
+        return paymentMode != null && paymentModeConfig.getByMode(strip(paymentMode)).getType().equalsIgnoreCase("BATCH");
+    }
+
+    private BigDecimal toAmount(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.fineract.batch.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.core.service.SingleFlightCache;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.operations.BatchDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces the batch summary requests of a tenant: concurrent requests for the same batch share one computation
+ * and its result is served for the time to live, so dashboards polling a batch cost one computation per period.
+ */
+@Service
+public class BatchSummaryCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${batch.summary-cache.ttl-ms}")
+    private long ttlMs;
+
+    @Value("${batch.summary-cache.max-size}")
+    private int maxSize;
+
+    private SingleFlightCache<BatchDTO> summaries;
+
+    private Counter hits;
+    private Counter coalesced;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        summaries = new SingleFlightCache<>(maxSize);
+        hits = Counter.builder("batch.summary.cache").tag("result", "hit").register(meterRegistry);
+        coalesced = Counter.builder("batch.summary.cache").tag("result", "coalesced").register(meterRegistry);
+        misses = Counter.builder("batch.summary.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public BatchDTO get(String batchId, String requestId, Supplier<BatchDTO> compute) {
+        String key = ThreadLocalContextUtil.tenantScoped(batchId + ":" + requestId);
+        BatchDTO cached = summaries.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        SingleFlightCache.Flight<BatchDTO> flight = summaries.flight(key);
+        if (!flight.isLeader()) {
+            coalesced.increment();
+            return flight.await();
+        }
+        misses.increment();
+        return flight.lead(() -> {
+            BatchDTO summary = compute.get();
+            summaries.put(key, summary, System.currentTimeMillis() + ttlMs);
+            return summary;
+        });
+    }
+}
@@ -1,34 +1,68 @@
 package org.apache.fineract.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.EhCache2Metrics;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.config.CacheConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.ehcache.EhCacheCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds one tenant partitioned region per entry of caching.regions, the regions used by the application are
+ * always created and take their defaults when they are not configured. Hits, misses, puts and evictions of every
+ * region are exported as cache metrics.
+ */
 @EnableCaching
 @Configuration
 @ConditionalOnExpression("${caching.enabled}")
 public class CacheConfig {
 
     public static final String CACHE_USER_BY_NAME = "userByName";
+    public static final String CACHE_PERMISSIONS = "permissions";
+    public static final String CACHE_ERROR_CODES = "errorCodes";
+
+    private static final List<String> REGIONS = Arrays.asList(CACHE_USER_BY_NAME, CACHE_PERMISSIONS, CACHE_ERROR_CODES);
+
+    @Bean(destroyMethod = "shutdown")
+    public net.sf.ehcache.CacheManager ehCacheManager() {
+        return net.sf.ehcache.CacheManager.newInstance(new net.sf.ehcache.config.Configuration().name("fineract"));
+    }
 
     @Bean
     @Primary
-    public CacheManager cacheManager()  {
-        CacheConfiguration cacheConfiguration = new CacheConfiguration(CACHE_USER_BY_NAME, 1000);
-        cacheConfiguration.timeToLiveSeconds(10);
-        CacheConfiguration.CacheEventListenerFactoryConfiguration factory = new CacheConfiguration.CacheEventListenerFactoryConfiguration();
-        factory.setClass("org.apache.fineract.config.CustomCacheEventListenerFactory");
-        cacheConfiguration.addCacheEventListenerFactory(factory);
+    public CacheManager cacheManager(net.sf.ehcache.CacheManager ehCacheManager, CacheRegionProperties properties,
+                                     MeterRegistry meterRegistry) {
+        Map<String, CacheRegionProperties.Region> regions = properties.getRegions();
+        for (String region : REGIONS) {
+            regions.putIfAbsent(region, new CacheRegionProperties.Region());
+        }
+
+        List<TenantAwareCache> caches = new ArrayList<>();
+        for (Map.Entry<String, CacheRegionProperties.Region> region : regions.entrySet()) {
+            CacheConfiguration cacheConfiguration = new CacheConfiguration(region.getKey(), region.getValue().getMaxEntries());
+            cacheConfiguration.timeToLiveSeconds(region.getValue().getTtlSeconds());
+            CacheConfiguration.CacheEventListenerFactoryConfiguration factory = new CacheConfiguration.CacheEventListenerFactoryConfiguration();
+            factory.setClass("org.apache.fineract.config.CustomCacheEventListenerFactory");
+            cacheConfiguration.addCacheEventListenerFactory(factory);
 
-        net.sf.ehcache.CacheManager ehCacheManager = new net.sf.ehcache.CacheManager();
-        ehCacheManager.addCache(new Cache(cacheConfiguration));
+            Cache cache = new Cache(cacheConfiguration);
+            ehCacheManager.addCache(cache);
+            EhCache2Metrics.monitor(meterRegistry, cache, "cacheManager", "fineract");
+            caches.add(new TenantAwareCache(cache));
+        }
 
-        return new EhCacheCacheManager(ehCacheManager);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
     }
 }
@@ -14,32 +14,32 @@ public class CacheEventLogger implements CacheEventListener {
 
     @Override
     public void notifyElementRemoved(Ehcache ehcache, Element element) throws CacheException {
-        logger.info("Cache remove {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
+        logger.debug("Cache remove {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
     }
 
     @Override
     public void notifyElementPut(Ehcache ehcache, Element element) throws CacheException {
-        logger.info("Cache put {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
+        logger.debug("Cache put {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
     }
 
     @Override
     public void notifyElementUpdated(Ehcache ehcache, Element element) throws CacheException {
-        logger.info("Cache updated {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
+        logger.debug("Cache updated {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
     }
 
     @Override
     public void notifyElementExpired(Ehcache ehcache, Element element) {
-        logger.info("Cache expired {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
+        logger.debug("Cache expired {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
     }
 
     @Override
     public void notifyElementEvicted(Ehcache ehcache, Element element) {
-        logger.info("Cache evicted {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
+        logger.debug("Cache evicted {} {} {}", element.getKey(), element.getObjectValue(), element.getHitCount());
     }
 
     @Override
     public void notifyRemoveAll(Ehcache ehcache) {
-        logger.info("Cache removeall");
+        logger.debug("Cache removeall");
     }
 
     @Override
@@ -0,0 +1,28 @@
+package org.apache.fineract.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and time to live of the cache regions, keyed by the region name.
+ */
+@Component
+@ConfigurationProperties(prefix = "caching")
+@Getter
+@Setter
+public class CacheRegionProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private int maxEntries = 1000;
+        private long ttlSeconds = 60;
+    }
+}
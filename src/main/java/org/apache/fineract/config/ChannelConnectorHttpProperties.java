@@ -0,0 +1,43 @@
+package org.apache.fineract.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool, timeouts, bulkhead, circuit breaker and authorization of the outbound calls to the channel
+ * connector.
+ */
+@Component
+@ConfigurationProperties(prefix = "channel-connector.http")
+@Getter
+@Setter
+public class ChannelConnectorHttpProperties {
+
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 20;
+    private int connectTimeoutMs = 2000;
+    private int connectionRequestTimeoutMs = 1000;
+    private int readTimeoutMs = 10000;
+    private long keepAliveMs = 30000;
+    private long idleEvictSeconds = 60;
+    // sent as bearer token when set, a connector reachable only inside the deployment is called without one
+    private String authToken;
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 20;
+        private long maxWaitMs = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private int failureThreshold = 5;
+        private long openMs = 30000;
+    }
+}
@@ -1,12 +1,11 @@
 package org.apache.fineract.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.audit.data.AuditRecord;
 import org.apache.fineract.audit.data.AuditSource;
-import org.apache.fineract.audit.events.NewAuditEvent;
-import org.apache.fineract.audit.service.AuditService;
+import org.apache.fineract.audit.service.AuditWriteBehindService;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.organisation.parent.AbstractPersistableCustom;
-import org.apache.fineract.organisation.user.AppUser;
-import org.apache.fineract.organisation.user.AppUserRepository;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.*;
@@ -42,9 +41,9 @@ public class CustomAuditingEntityListener extends AuditingEntityListener {
         if(entity instanceof AuditSource) {
             return;
         }
-        NewAuditEvent event = new NewAuditEvent(this, getEntityId(entity), action, entity.getClass().getSimpleName(), null, getObjectString(entity), getCurrentUser(), "SUCCESS", LocalDateTime.now());
-        AuditService auditService = BeanUtil.getBean(AuditService.class);
-        auditService.createNewEntry(event);
+        AuditRecord record = new AuditRecord(ThreadLocalContextUtil.getTenant(), getEntityId(entity), action, entity.getClass().getSimpleName(),
+                getObjectString(entity), getCurrentUserName(), "SUCCESS", LocalDateTime.now(), System.nanoTime());
+        getBean(AuditWriteBehindService.class).submit(record);
     }
 
     private Long getEntityId(Object entity) {
@@ -54,10 +53,12 @@ public class CustomAuditingEntityListener extends AuditingEntityListener {
         return null;
     }
 
-    private AppUser getCurrentUser() {
-        AppUserRepository appUserRepository = getBean(AppUserRepository.class);
+    /**
+     * The maker is resolved to its user id by the audit writer, in one query for a whole batch.
+     */
+    private String getCurrentUserName() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null ? appUserRepository.findAppUserByName(authentication.getName()): null;
+        return authentication != null ? authentication.getName() : null;
     }
 
     private String getObjectString(Object entity) {
@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.instrument.classloading.InstrumentationLoadTimeWeaver;
 import org.springframework.orm.jpa.vendor.AbstractJpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.EclipseLinkJpaDialect;
 import org.springframework.orm.jpa.vendor.EclipseLinkJpaVendorAdapter;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.jta.JtaTransactionManager;
@@ -34,7 +35,11 @@ public class EclipselinkJpaConfig extends JpaBaseConfiguration {
 
     @Override
     protected AbstractJpaVendorAdapter createJpaVendorAdapter() {
-        return new EclipseLinkJpaVendorAdapter();
+        EclipseLinkJpaVendorAdapter adapter = new EclipseLinkJpaVendorAdapter();
+        // the connection of a transaction is taken at its first statement instead of at its begin, once the
+        // transaction is registered, so the routing data source can tell read only transactions from writing ones
+        ((EclipseLinkJpaDialect) adapter.getJpaDialect()).setLazyDatabaseTransaction(true);
+        return adapter;
     }
 
     @Override
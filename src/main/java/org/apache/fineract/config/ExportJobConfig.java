@@ -0,0 +1,32 @@
+package org.apache.fineract.config;
+
+import org.apache.fineract.core.service.TenantAwareTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExportJobConfig {
+
+    @Value("${export.job.pool-size}")
+    private int poolSize;
+
+    @Value("${export.job.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Bounded executor for the background exports, submissions beyond the queue capacity are rejected
+     * instead of piling up.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exportJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-job-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+}
@@ -0,0 +1,32 @@
+package org.apache.fineract.config;
+
+import org.apache.fineract.core.service.TenantAwareTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OperationsQueryConfig {
+
+    @Value("${operations.detail-query.pool-size}")
+    private int poolSize;
+
+    @Value("${operations.detail-query.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Executor running the independent queries of the transfer and transaction request detail lookups side by side,
+     * on the tenant of the calling request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor detailQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("detail-query-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package org.apache.fineract.config;
+
+import org.apache.fineract.core.service.TenantAwareTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RefundDispatchConfig {
+
+    @Value("${operations.bulk-refund.pool-size}")
+    private int poolSize;
+
+    @Value("${operations.bulk-refund.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Executor sending the channel connector requests of bulk refunds, each bulk refund bounds its own share of it.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor refundDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("refund-dispatch-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        return executor;
+    }
+}
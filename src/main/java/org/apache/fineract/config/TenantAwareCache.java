@@ -0,0 +1,117 @@
+package org.apache.fineract.config;
+
+import net.sf.ehcache.Ehcache;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.ehcache.EhCacheCache;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache region shared by all tenants, every key is qualified with the tenant of the current thread so a tenant
+ * never sees the entries of another one. {@link #clear()} only removes the entries of the current tenant.
+ */
+public class TenantAwareCache implements Cache {
+
+    private final EhCacheCache delegate;
+
+    public TenantAwareCache(Ehcache ehcache) {
+        this.delegate = new EhCacheCache(ehcache);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Ehcache getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(tenantKey(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(tenantKey(key), type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(tenantKey(key), valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(tenantKey(key), value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(tenantKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(tenantKey(key));
+    }
+
+    @Override
+    public void clear() {
+        Long tenantId = ThreadLocalContextUtil.getTenantId();
+        Ehcache ehcache = getNativeCache();
+        for (Object key : ehcache.getKeys()) {
+            if (key instanceof TenantKey && ((TenantKey) key).tenantId.equals(tenantId)) {
+                ehcache.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of all tenants.
+     */
+    public void clearAllTenants() {
+        delegate.clear();
+    }
+
+    private TenantKey tenantKey(Object key) {
+        return new TenantKey(ThreadLocalContextUtil.getTenantId(), key);
+    }
+
+    private static final class TenantKey implements Serializable {
+        private final Long tenantId;
+        private final Object key;
+
+        private TenantKey(Long tenantId, Object key) {
+            this.tenantId = tenantId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TenantKey)) {
+                return false;
+            }
+            TenantKey other = (TenantKey) o;
+            return tenantId.equals(other.tenantId) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tenantId.hashCode() + Objects.hashCode(key);
+        }
+
+        @Override
+        public String toString() {
+            return tenantId + ":" + key;
+        }
+    }
+}
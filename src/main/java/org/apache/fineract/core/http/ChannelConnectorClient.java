@@ -0,0 +1,206 @@
+package org.apache.fineract.core.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.config.ChannelConnectorHttpProperties;
+import org.apache.fineract.exception.ChannelConnectorException;
+import org.apache.fineract.exception.ChannelConnectorUnavailableException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends transfer requests to the channel connector over a pool of persistent connections with bounded connect, pool
+ * and read timeouts. The bulkhead caps the calls in flight so a slow connector can not hold every request thread,
+ * the circuit breaker stops calling a connector that keeps failing. Error responses are returned, not thrown, so
+ * the caller can relay them.
+ */
+@Component
+@Slf4j
+public class ChannelConnectorClient {
+
+    @Autowired
+    private ChannelConnectorHttpProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${channel-connector.url}")
+    private String channelConnectorUrl;
+
+    @Value("${channel-connector.transfer-path}")
+    private String channelConnectorTransferPath;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private Semaphore bulkhead;
+    private CircuitBreaker circuitBreaker;
+
+    private Counter rejectedBulkhead;
+    private Counter rejectedCircuitOpen;
+
+    @PostConstruct
+    public void start() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(properties.getConnectTimeoutMs())
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMs())
+                .setSocketTimeout(properties.getReadTimeoutMs())
+                .build();
+        long keepAliveMs = properties.getKeepAliveMs();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return advertised > 0 ? Math.min(advertised, keepAliveMs) : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEvictSeconds(), TimeUnit.SECONDS)
+                // a transfer request that reached the connector must not be sent twice
+                .disableAutomaticRetries()
+                .build();
+
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+
+        bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker().getFailureThreshold(),
+                properties.getCircuitBreaker().getOpenMs());
+
+        rejectedBulkhead = meterRegistry.counter("channel_connector.rejected", "reason", "bulkhead_full");
+        rejectedCircuitOpen = meterRegistry.counter("channel_connector.rejected", "reason", "circuit_open");
+        meterRegistry.gauge("channel_connector.circuit.state", circuitBreaker, c -> c.getState().ordinal());
+        meterRegistry.gauge("channel_connector.bulkhead.in_use", bulkhead,
+                b -> properties.getBulkhead().getMaxConcurrentCalls() - b.availablePermits());
+        meterRegistry.gauge("channel_connector.pool.leased", connectionManager, m -> m.getTotalStats().getLeased());
+        meterRegistry.gauge("channel_connector.pool.available", connectionManager, m -> m.getTotalStats().getAvailable());
+        meterRegistry.gauge("channel_connector.pool.pending", connectionManager, m -> m.getTotalStats().getPending());
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Posts a transfer request for the tenant.
+     *
+     * @throws ChannelConnectorUnavailableException if the request was not sent because the bulkhead is full, the
+     *                                              circuit is open, no pooled connection was free or the connector
+     *                                              could not be connected to
+     * @throws ChannelConnectorException            if the request failed or timed out after it was sent
+     */
+    public ResponseEntity<String> postTransfer(String tenantId, String body) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.add("Platform-TenantId", tenantId);
+        httpHeaders.add("Content-Type", "application/json");
+        if (StringUtils.hasText(properties.getAuthToken())) {
+            httpHeaders.add("Authorization", "Bearer " + properties.getAuthToken());
+        }
+        return exchange(channelConnectorUrl + channelConnectorTransferPath, HttpMethod.POST,
+                new HttpEntity<>(body, httpHeaders));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private ResponseEntity<String> exchange(String url, HttpMethod method, HttpEntity<String> request) {
+        if (!enterBulkhead()) {
+            rejectedBulkhead.increment();
+            throw new ChannelConnectorUnavailableException("too many calls in flight");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedCircuitOpen.increment();
+                throw new ChannelConnectorUnavailableException("circuit open");
+            }
+            long start = System.nanoTime();
+            String outcome = "error";
+            try {
+                ResponseEntity<String> response = restTemplate.exchange(url, method, request, String.class);
+                if (response.getStatusCode().is5xxServerError()) {
+                    outcome = "server_error";
+                    circuitBreaker.onFailure();
+                } else {
+                    outcome = response.getStatusCode().is4xxClientError() ? "client_error" : "success";
+                    circuitBreaker.onSuccess();
+                }
+                return response;
+            } catch (RestClientException e) {
+                log.warn("Channel connector call to {} failed: {}", url, e.getMessage());
+                if (e.contains(ConnectionPoolTimeoutException.class)) {
+                    // our own pool is exhausted, says nothing about the connector
+                    outcome = "pool_timeout";
+                    circuitBreaker.releasePermission();
+                    throw new ChannelConnectorUnavailableException("no pooled connection available", e);
+                }
+                circuitBreaker.onFailure();
+                if (e.contains(ConnectTimeoutException.class) || e.contains(ConnectException.class)
+                        || e.contains(UnknownHostException.class)) {
+                    outcome = "connect_error";
+                    throw new ChannelConnectorUnavailableException("connection failed", e);
+                }
+                throw new ChannelConnectorException("Channel connector call failed, outcome unknown", e);
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            } finally {
+                Timer.builder("channel_connector.requests")
+                        .tag("method", method.name())
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private boolean enterBulkhead() {
+        try {
+            return bulkhead.tryAcquire(properties.getBulkhead().getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
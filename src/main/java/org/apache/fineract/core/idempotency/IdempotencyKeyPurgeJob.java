@@ -0,0 +1,45 @@
+package org.apache.fineract.core.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the expired idempotency keys of every tenant, a bounded number of chunks per run.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyPurgeJob {
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Value("${fineract.idempotency.purge.chunks-per-run}")
+    private int chunksPerRun;
+
+    @Scheduled(fixedDelayString = "${fineract.idempotency.purge.interval-ms}",
+            initialDelayString = "${fineract.idempotency.purge.interval-ms}")
+    public void purgeTenants() {
+        for (TenantServerConnection tenant : repository.findAll()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                int chunks = 0;
+                while (chunks < chunksPerRun && idempotencyService.purgeNextChunk()) {
+                    chunks++;
+                }
+            } catch (Exception e) {
+                log.error("Error when purging expired idempotency keys of tenant: {}", tenant.getSchemaName(), e);
+            } finally {
+                ThreadLocalContextUtil.clear();
+            }
+        }
+    }
+}
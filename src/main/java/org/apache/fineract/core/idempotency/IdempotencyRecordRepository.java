@@ -0,0 +1,58 @@
+package org.apache.fineract.core.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    IdempotencyRecord findOneByIdempotencyKeyAndOperation(String idempotencyKey, String operation);
+
+    /**
+     * Claims the key for a request in progress.
+     *
+     * @return 0 when the key is already claimed or completed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO m_idempotency_key (idempotency_key, operation, request_hash, created_date, expires_at) " +
+            "VALUES (:key, :operation, :hash, :now, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String idempotencyKey, @Param("operation") String operation, @Param("hash") String requestHash,
+              @Param("now") Date now, @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Claims a key whose request was abandoned or whose response expired.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE m_idempotency_key SET request_hash = :hash, status_code = NULL, response_body = NULL, " +
+            "created_date = :now, expires_at = :expiresAt " +
+            "WHERE idempotency_key = :key AND operation = :operation AND expires_at < :now", nativeQuery = true)
+    int claimExpired(@Param("key") String idempotencyKey, @Param("operation") String operation, @Param("hash") String requestHash,
+                     @Param("now") Date now, @Param("expiresAt") Date expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE m_idempotency_key SET status_code = :statusCode, response_body = :body, expires_at = :expiresAt " +
+            "WHERE idempotency_key = :key AND operation = :operation AND status_code IS NULL", nativeQuery = true)
+    int complete(@Param("key") String idempotencyKey, @Param("operation") String operation, @Param("statusCode") int statusCode,
+                 @Param("body") String responseBody, @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Drops the claim of a request that failed, so a retry runs it again.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM m_idempotency_key WHERE idempotency_key = :key AND operation = :operation AND status_code IS NULL",
+            nativeQuery = true)
+    int release(@Param("key") String idempotencyKey, @Param("operation") String operation);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM m_idempotency_key WHERE expires_at < :now ORDER BY expires_at LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") Date now, @Param("limit") int limit);
+}
@@ -0,0 +1,202 @@
+package org.apache.fineract.core.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.SingleFlightCache;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.exception.IdempotencyConflictException;
+import org.apache.fineract.exception.WriteNotAppliedException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per client supplied idempotency key, operation and tenant. Requests arriving while the
+ * key is in flight on this instance wait for the same execution, completed responses are replayed from a bounded
+ * in-memory store and from the tenant table, which also claims the key across instances and restarts. A key in
+ * flight on another instance is answered with a conflict. Only a write failing with a
+ * {@link WriteNotAppliedException} releases the key for a retry, any other failure may have taken effect and is kept
+ * as outcome unknown, so a retry with the key does not run the write a second time.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fineract.idempotency.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${fineract.idempotency.pending-timeout-seconds}")
+    private long pendingTimeoutSeconds;
+
+    @Value("${fineract.idempotency.max-size}")
+    private int maxSize;
+
+    @Value("${fineract.idempotency.purge.chunk-size}")
+    private int purgeChunkSize;
+
+    private SingleFlightCache<StoredResponse> responses;
+
+    private Counter executed;
+    private Counter replayed;
+    private Counter coalesced;
+    private Counter conflicts;
+
+    @PostConstruct
+    public void registerMetrics() {
+        responses = new SingleFlightCache<>(maxSize);
+        executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        coalesced = Counter.builder("idempotency.requests").tag("result", "coalesced").register(meterRegistry);
+        conflicts = Counter.builder("idempotency.requests").tag("result", "conflict").register(meterRegistry);
+    }
+
+    /**
+     * @param idempotencyKey the client supplied key, the write runs unguarded without one
+     * @param operation      what the key applies to, the same key may be used for different operations
+     * @param request        the request content, reusing a key for a different request is a conflict
+     * @throws IdempotencyConflictException if the key is in flight on another instance or was used for a different
+     *                                      request
+     */
+    public IdempotentResponse execute(String idempotencyKey, String operation, String request, Supplier<IdempotentResponse> write) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return write.get();
+        }
+        String key = idempotencyKey.length() > MAX_KEY_LENGTH ? "sha256:" + sha256(idempotencyKey) : idempotencyKey;
+        String requestHash = sha256(request != null ? request : "");
+        String scope = ThreadLocalContextUtil.tenantScoped(operation + ":" + key);
+
+        StoredResponse cached = responses.getIfPresent(scope);
+        if (cached != null) {
+            checkSameRequest(cached.requestHash, requestHash);
+            replayed.increment();
+            return cached.response.asReplay();
+        }
+
+        SingleFlightCache.Flight<StoredResponse> flight = responses.flight(scope);
+        if (!flight.isLeader()) {
+            StoredResponse leader = flight.await();
+            checkSameRequest(leader.requestHash, requestHash);
+            coalesced.increment();
+            return leader.response.asReplay();
+        }
+        return flight.lead(() -> lead(key, operation, scope, requestHash, write)).response;
+    }
+
+    /**
+     * Deletes one chunk of expired keys of the current tenant.
+     *
+     * @return true if there may be expired keys left
+     */
+    public boolean purgeNextChunk() {
+        return repository.deleteExpired(new Date(), purgeChunkSize) >= purgeChunkSize;
+    }
+
+    private StoredResponse lead(String key, String operation, String scope, String requestHash, Supplier<IdempotentResponse> write) {
+        Date now = new Date();
+        Date pendingUntil = new Date(now.getTime() + TimeUnit.SECONDS.toMillis(pendingTimeoutSeconds));
+        if (repository.claim(key, operation, requestHash, now, pendingUntil) == 0) {
+            IdempotencyRecord record = repository.findOneByIdempotencyKeyAndOperation(key, operation);
+            if (record != null && record.getStatusCode() != null && record.getExpiresAt().after(now)) {
+                checkSameRequest(record.getRequestHash(), requestHash);
+                StoredResponse stored = new StoredResponse(requestHash,
+                        new IdempotentResponse(record.getStatusCode(), record.getResponseBody()));
+                responses.put(scope, stored, record.getExpiresAt().getTime());
+                replayed.increment();
+                return new StoredResponse(requestHash, stored.response.asReplay());
+            }
+            if (repository.claimExpired(key, operation, requestHash, now, pendingUntil) == 0) {
+                conflicts.increment();
+                throw new IdempotencyConflictException("A request with idempotency key " + key + " is in progress");
+            }
+        }
+
+        IdempotentResponse response;
+        try {
+            response = write.get();
+        } catch (WriteNotAppliedException e) {
+            repository.release(key, operation);
+            throw e;
+        } catch (RuntimeException e) {
+            executed.increment();
+            log.warn("Outcome of idempotency key {} of {} is unknown, it is not run again", key, operation);
+            store(key, operation, scope, requestHash, outcomeUnknown(e));
+            throw e;
+        }
+        executed.increment();
+        return store(key, operation, scope, requestHash, response);
+    }
+
+    private StoredResponse store(String key, String operation, String scope, String requestHash, IdempotentResponse response) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        try {
+            repository.complete(key, operation, response.getStatusCode(), response.getBody(), new Date(expiresAt));
+        } catch (RuntimeException e) {
+            log.error("Could not store the response of idempotency key {} of {}", key, operation, e);
+        }
+        StoredResponse stored = new StoredResponse(requestHash, response);
+        responses.put(scope, stored, expiresAt);
+        return stored;
+    }
+
+    private IdempotentResponse outcomeUnknown(RuntimeException e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        JSONObject body = new JSONObject();
+        body.put("response", "The outcome of the request is unknown, it is not run again with the same idempotency key!");
+        return new IdempotentResponse(status != null ? status.code().value() : HttpStatus.INTERNAL_SERVER_ERROR.value(), body.toString());
+    }
+
+    private void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            conflicts.increment();
+            throw new IdempotencyConflictException("Idempotency key was already used for a different request");
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class StoredResponse {
+
+        private final String requestHash;
+        private final IdempotentResponse response;
+
+        private StoredResponse(String requestHash, IdempotentResponse response) {
+            this.requestHash = requestHash;
+            this.response = response;
+        }
+    }
+}
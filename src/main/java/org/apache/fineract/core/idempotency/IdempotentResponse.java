@@ -0,0 +1,24 @@
+package org.apache.fineract.core.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Status and body of an idempotent write, replayed to retries with the same idempotency key.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotentResponse {
+
+    private final int statusCode;
+    private final String body;
+    private final boolean replayed;
+
+    public IdempotentResponse(int statusCode, String body) {
+        this(statusCode, body, false);
+    }
+
+    public IdempotentResponse asReplay() {
+        return replayed ? this : new IdempotentResponse(statusCode, body, true);
+    }
+}
@@ -0,0 +1,77 @@
+package org.apache.fineract.core.service;
+
+import org.eclipse.persistence.config.HintValues;
+import org.eclipse.persistence.config.QueryHints;
+import org.eclipse.persistence.queries.CursoredStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/**
+ * Runs specification queries over a forward only database cursor, handing the rows one by one to a handler
+ * so that arbitrarily large results can be processed with a constant amount of memory.
+ */
+@Service
+public class CursorQueryService {
+
+    public interface RowHandler<T, E extends Exception> {
+        void handle(T row) throws E;
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${export.stream.fetch-size}")
+    private int fetchSize;
+
+    /**
+     * Streams the entities matching the specification in the given order.
+     * @return the number of rows handed to the handler
+     */
+    @Transactional(readOnly = true)
+    public <T, E extends Exception> long stream(Class<T> entityClass, Specification<T> specification,
+                                               Sort.Direction direction, String sortProperty,
+                                               RowHandler<T, E> handler) throws E {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(direction.isAscending() ? builder.asc(root.get(sortProperty)) : builder.desc(root.get(sortProperty)));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        // read only objects are not registered in the unit of work, so rows can be released once handled
+        typedQuery.setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+        typedQuery.setHint(QueryHints.CURSOR, HintValues.TRUE);
+        typedQuery.setHint(QueryHints.CURSOR_PAGE_SIZE, fetchSize);
+        typedQuery.setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize);
+
+        CursoredStream cursor = (CursoredStream) typedQuery.getSingleResult();
+        long rows = 0;
+        try {
+            while (cursor.hasNext()) {
+                handler.handle(entityClass.cast(cursor.next()));
+                if (++rows % fetchSize == 0) {
+                    cursor.releasePrevious();
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return rows;
+    }
+}
@@ -20,23 +20,57 @@ package org.apache.fineract.core.service;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.fineract.organisation.tenant.TenantServerConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.sql.DataSource;
-import java.util.HashMap;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 @Service
 public class DataSourcePerTenantService implements DisposableBean {
 
+    /**
+     * TENANT keeps a pool per tenant schema, SERVER keeps a pool per database server that its tenants share, the
+     * connections are switched to the schema of the tenant on checkout.
+     */
+    public enum PoolingMode {
+        TENANT, SERVER
+    }
+
+    private static final long DEFAULT_CONNECTION_KEY = 0;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>();
+    private final ConcurrentMap<Long, TenantDataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, ReplicaDataSource> tenantToReplicaMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ServerPool> serverPools = new ConcurrentHashMap<>();
+    private final Set<TenantDataSource> retiredDataSources = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fineract.datasource.pool.mode}")
+    private PoolingMode poolingMode = PoolingMode.TENANT;
 
     @Value("${fineract.datasource.core.port}")
     private int defaultPort;
@@ -62,57 +96,305 @@ public class DataSourcePerTenantService implements DisposableBean {
     @Value("${fineract.datasource.common.driverclass_name}")
     private String driverClass;
 
+    @Value("${fineract.datasource.pool.maximum-size}")
+    private int defaultMaximumPoolSize;
+
+    @Value("${fineract.datasource.pool.minimum-idle}")
+    private int defaultMinimumIdle;
+
+    @Value("${fineract.datasource.pool.server-maximum-size}")
+    private int serverMaximumPoolSize;
+
+    @Value("${fineract.datasource.pool.server-minimum-idle}")
+    private int serverMinimumIdle;
+
+    @Value("${fineract.datasource.pool.idle-eviction-seconds}")
+    private long idleEvictionSeconds;
+
+    @Value("${fineract.datasource.replica.max-lag-seconds}")
+    private int defaultReplicaMaxLagSeconds;
+
+    @Value("${fineract.datasource.replica.connection-timeout-ms}")
+    private long replicaConnectionTimeoutMillis;
+
+    /**
+     * Returns the pool of the current tenant. A checkout from a pool that was evicted meanwhile is served by the pool
+     * that replaced it.
+     */
     public DataSource retrieveDataSource() {
-        DataSource tenantDataSource;
+        final TenantServerConnection tenant = ThreadLocalContextUtil.getTenant();
+        return dataSourceFor(tenant != null ? tenant.getId() : DEFAULT_CONNECTION_KEY, tenant);
+    }
+
+    private DataSource dataSourceFor(Long key, TenantServerConnection tenant) {
+        TenantDataSource tenantDataSource = lookup(this.tenantToDataSourceMap, key,
+                k -> new TenantDataSource(createNewDataSourceFor(tenant != null ? tenant : defaultConnection()),
+                        () -> dataSourceFor(key, latest(key, tenant))));
+        tenantDataSource.touch();
+        return tenantDataSource.view;
+    }
 
+    /**
+     * Returns the read replica pool of the current tenant, or null when the tenant has no replica configured or its
+     * replica is not known to be within the allowed lag, reads are served by the primary then.
+     * A new replica pool is only used once the lag check has seen it in sync.
+     */
+    public DataSource retrieveReplicaDataSource() {
         final TenantServerConnection tenant = ThreadLocalContextUtil.getTenant();
-        if (tenant != null) {
-            synchronized (this.tenantToDataSourceMap) {
-                if (this.tenantToDataSourceMap.containsKey(tenant.getId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenant);
-                    this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
-                }
+        if (tenant == null || !tenant.hasReplica()) {
+            return null;
+        }
+        return replicaDataSourceFor(tenant);
+    }
+
+    private DataSource replicaDataSourceFor(TenantServerConnection tenant) {
+        ReplicaDataSource replicaDataSource = lookup(this.tenantToReplicaMap, tenant.getId(),
+                k -> new ReplicaDataSource(createNewReplicaDataSourceFor(tenant),
+                        tenant.getReplicaMaxLagSeconds() != null ? tenant.getReplicaMaxLagSeconds() : defaultReplicaMaxLagSeconds,
+                        () -> replacementForReplicaOf(latest(tenant.getId(), tenant))));
+        replicaDataSource.touch();
+        return replicaDataSource.inSync ? replicaDataSource.view : null;
+    }
+
+    private DataSource replacementForReplicaOf(TenantServerConnection tenant) {
+        DataSource replica = tenant.hasReplica() ? replicaDataSourceFor(tenant) : null;
+        // a replica that is gone or not in sync yet is replaced by the primary, as in retrieveReplicaDataSource
+        return replica != null ? replica : dataSourceFor(tenant.getId(), tenant);
+    }
+
+    /**
+     * @return the connection details of the tenant set on the calling thread when it is the given one, they are
+     * the current ones after a change of the connection details evicted the pool created from the given ones
+     */
+    private static TenantServerConnection latest(Long key, TenantServerConnection tenant) {
+        TenantServerConnection current = ThreadLocalContextUtil.getTenant();
+        return current != null && key.equals(current.getId()) ? current : tenant;
+    }
+
+    private static <T extends TenantDataSource> T lookup(ConcurrentMap<Long, T> dataSources, Long key, Function<Long, T> create) {
+        // plain lookup is lock free, computeIfAbsent only locks the bin of a tenant whose pool is not created yet
+        T tenantDataSource = dataSources.get(key);
+        if (tenantDataSource != null && tenantDataSource.retired) {
+            // retired by an eviction that did not remove it yet
+            dataSources.remove(key, tenantDataSource);
+            tenantDataSource = null;
+        }
+        if (tenantDataSource == null) {
+            tenantDataSource = dataSources.computeIfAbsent(key, create);
+        }
+        return tenantDataSource;
+    }
+
+    /**
+     * Sends the reads of the current tenant to the primary until the next lag check finds its replica in sync again.
+     */
+    public void markReplicaUnavailable() {
+        final TenantServerConnection tenant = ThreadLocalContextUtil.getTenant();
+        ReplicaDataSource replicaDataSource = tenant != null ? this.tenantToReplicaMap.get(tenant.getId()) : null;
+        if (replicaDataSource != null && replicaDataSource.inSync) {
+            replicaDataSource.inSync = false;
+            logger.warn("Read replica of tenant {} is unavailable, reads fall back to the primary", tenant.getId());
+        }
+    }
+
+    /**
+     * Measures the replication lag of every open replica pool, a replica that is behind by more than its allowed lag
+     * or whose replication is stopped is skipped by the reads until it caught up.
+     */
+    @Scheduled(fixedDelayString = "${fineract.datasource.replica.lag-check-interval-ms}")
+    public void checkReplicaLag() {
+        for (Map.Entry<Long, ReplicaDataSource> entry : this.tenantToReplicaMap.entrySet()) {
+            ReplicaDataSource replicaDataSource = entry.getValue();
+            long lagSeconds = measureReplicationLagSeconds(replicaDataSource.dataSource);
+            boolean inSync = lagSeconds >= 0 && lagSeconds <= replicaDataSource.maxLagSeconds;
+            if (inSync && !replicaDataSource.inSync) {
+                logger.info("Read replica of tenant {} is in sync, lag {}s", entry.getKey(), lagSeconds);
+            } else if (!inSync && replicaDataSource.inSync) {
+                logger.warn("Read replica of tenant {} is out of sync, lag {}s, reads fall back to the primary", entry.getKey(), lagSeconds);
             }
-        } else {
-            synchronized (this.tenantToDataSourceMap) {
-                long defaultConnectionKey = 0;
-                if (this.tenantToDataSourceMap.containsKey(defaultConnectionKey)) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(defaultConnectionKey);
-                } else {
-                    TenantServerConnection defaultConnection = new TenantServerConnection();
-                    defaultConnection.setSchemaServer(defaultHostname);
-                    defaultConnection.setSchemaServerPort(String.valueOf(defaultPort));
-                    defaultConnection.setSchemaName(defaultSchema);
-                    defaultConnection.setSchemaUsername(defaultUsername);
-                    defaultConnection.setSchemaPassword(defaultPassword);
-                    tenantDataSource = createNewDataSourceFor(defaultConnection);
-                    this.tenantToDataSourceMap.put(defaultConnectionKey, tenantDataSource);
-                }
+            replicaDataSource.inSync = inSync;
+        }
+    }
+
+    /**
+     * @return the seconds the replica is behind its primary, or -1 when the replication is stopped or the replica
+     * can not be reached
+     */
+    protected long measureReplicationLagSeconds(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW SLAVE STATUS")) {
+            if (!resultSet.next()) {
+                // not a binlog replica, e.g. a cluster reader endpoint kept in sync by the storage layer
+                return 0;
             }
+            long lagSeconds = resultSet.getLong("Seconds_Behind_Master");
+            return resultSet.wasNull() ? -1 : lagSeconds;
+        } catch (SQLException e) {
+            logger.warn("Could not measure the replication lag of a read replica: {}", e.getMessage());
+            return -1;
         }
+    }
 
-        return tenantDataSource;
+    /**
+     * Retires the pools of tenants that did not check out a connection within the idle eviction window and closes
+     * the retired pools that have no checkout in progress and no connection in use.
+     * The default connection is kept, it is used for every tenant lookup.
+     */
+    @Scheduled(fixedDelayString = "${fineract.datasource.pool.eviction-interval-ms}",
+            initialDelayString = "${fineract.datasource.pool.eviction-interval-ms}")
+    public void evictIdleDataSources() {
+        long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleEvictionSeconds);
+        for (Map.Entry<Long, TenantDataSource> entry : this.tenantToDataSourceMap.entrySet()) {
+            TenantDataSource tenantDataSource = entry.getValue();
+            if (entry.getKey() != DEFAULT_CONNECTION_KEY && tenantDataSource.lastAccess < threshold
+                    && !tenantDataSource.hasActiveConnections()) {
+                retire(this.tenantToDataSourceMap, entry.getKey(), tenantDataSource);
+            }
+        }
+        for (Map.Entry<Long, ReplicaDataSource> entry : this.tenantToReplicaMap.entrySet()) {
+            ReplicaDataSource replicaDataSource = entry.getValue();
+            if (replicaDataSource.lastAccess < threshold && !replicaDataSource.hasActiveConnections()) {
+                retire(this.tenantToReplicaMap, entry.getKey(), replicaDataSource);
+            }
+        }
+        closeRetired();
     }
 
-    private DataSource createNewDataSourceFor(TenantServerConnection tenant) {
+    /**
+     * Replaces the pools of the given tenant after its connection details changed, the next checkout creates new
+     * ones. The old pools are closed once their connections in use are returned.
+     */
+    public void evictDataSource(Long tenantId) {
+        TenantDataSource tenantDataSource = this.tenantToDataSourceMap.get(tenantId);
+        if (tenantDataSource != null) {
+            retire(this.tenantToDataSourceMap, tenantId, tenantDataSource);
+        }
+        ReplicaDataSource replicaDataSource = this.tenantToReplicaMap.get(tenantId);
+        if (replicaDataSource != null) {
+            retire(this.tenantToReplicaMap, tenantId, replicaDataSource);
+        }
+        closeRetired();
+    }
+
+    private <T extends TenantDataSource> void retire(ConcurrentMap<Long, T> dataSources, Long key, T tenantDataSource) {
+        this.retiredDataSources.add(tenantDataSource);
+        tenantDataSource.retired = true;
+        dataSources.remove(key, tenantDataSource);
+    }
+
+    private void closeRetired() {
+        for (TenantDataSource tenantDataSource : this.retiredDataSources) {
+            // a checkout leases the pool before it reads the retired flag, see TenantDataSource#connect
+            if (tenantDataSource.leases.get() == 0 && !tenantDataSource.hasActiveConnections()
+                    && this.retiredDataSources.remove(tenantDataSource)) {
+                close(tenantDataSource.dataSource);
+            }
+        }
+    }
+
+    private TenantServerConnection defaultConnection() {
+        TenantServerConnection defaultConnection = new TenantServerConnection();
+        defaultConnection.setSchemaServer(defaultHostname);
+        defaultConnection.setSchemaServerPort(String.valueOf(defaultPort));
+        defaultConnection.setSchemaName(defaultSchema);
+        defaultConnection.setSchemaUsername(defaultUsername);
+        defaultConnection.setSchemaPassword(defaultPassword);
+        return defaultConnection;
+    }
+
+    protected DataSource createNewDataSourceFor(TenantServerConnection tenant) {
+        HikariConfig config = poolConfig(tenant, tenant.getSchemaServer(), tenant.getSchemaServerPort(),
+                tenant.getSchemaUsername(), tenant.getSchemaPassword());
+        config.setConnectionTimeout(30000);
+        if (poolingMode == PoolingMode.SERVER) {
+            return tenantSchemaDataSource(tenant, tenant.getSchemaServer(), tenant.getSchemaServerPort(), config, "ServerPool");
+        }
+        config.setPoolName(tenant.getSchemaName() + "Pool");
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * The replica pool connects with the replica credentials, or with those of the primary when it has none, and
+     * gives up on a checkout quickly so the read can still fall back to the primary.
+     */
+    protected DataSource createNewReplicaDataSourceFor(TenantServerConnection tenant) {
+        boolean ownCredentials = tenant.getReplicaUsername() != null;
+        String port = tenant.getReplicaServerPort() != null ? tenant.getReplicaServerPort() : tenant.getSchemaServerPort();
+        HikariConfig config = poolConfig(tenant, tenant.getReplicaServer(), port,
+                ownCredentials ? tenant.getReplicaUsername() : tenant.getSchemaUsername(),
+                ownCredentials ? tenant.getReplicaPassword() : tenant.getSchemaPassword());
+        config.setConnectionTimeout(replicaConnectionTimeoutMillis);
+        config.setReadOnly(true);
+        // an unreachable replica must not fail the pool creation, the lag check keeps it out of the reads
+        config.setInitializationFailTimeout(-1);
+        if (poolingMode == PoolingMode.SERVER) {
+            return tenantSchemaDataSource(tenant, tenant.getReplicaServer(), port, config, "ReplicaServerPool");
+        }
+        config.setPoolName(tenant.getSchemaName() + "ReplicaPool");
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Hands out the share of the tenant in the pool of its database server and credentials, the pool is created by
+     * the first tenant on the server and closed with the last one.
+     */
+    private DataSource tenantSchemaDataSource(TenantServerConnection tenant, String server, String port, HikariConfig config, String poolSuffix) {
+        String poolName = config.getUsername() + "-" + server + "-" + port + poolSuffix;
+        config.setPoolName(poolName);
+        ServerPool serverPool = this.serverPools.compute(poolName, (k, pool) -> {
+            ServerPool shared = pool != null ? pool : new ServerPool(createServerPool(config));
+            shared.references++;
+            return shared;
+        });
+        int maximumConnections = tenant.getPoolMaximumSize() != null ? tenant.getPoolMaximumSize() : defaultMaximumPoolSize;
+        return new TenantSchemaDataSource(serverPool.dataSource, poolName, tenant.getSchemaName(), maximumConnections,
+                config.getConnectionTimeout(), meterRegistry, () -> releaseServerPool(poolName));
+    }
+
+    protected DataSource createServerPool(HikariConfig config) {
+        return new HikariDataSource(config);
+    }
+
+    private void releaseServerPool(String poolName) {
+        this.serverPools.computeIfPresent(poolName, (k, pool) -> {
+            if (--pool.references > 0) {
+                return pool;
+            }
+            close(pool.dataSource);
+            return null;
+        });
+    }
+
+    private HikariConfig poolConfig(TenantServerConnection tenant, String server, String port, String username, String password) {
+        boolean serverPooling = poolingMode == PoolingMode.SERVER;
         HikariConfig config = new HikariConfig();
-        config.setUsername(tenant.getSchemaUsername());
-        config.setPassword(tenant.getSchemaPassword());
-        config.setJdbcUrl(createJdbcUrl(jdbcProtocol, jdbcSubprotocol, tenant.getSchemaServer(),
-                Integer.parseInt(tenant.getSchemaServerPort()), tenant.getSchemaName()));
+        config.setUsername(username);
+        config.setPassword(password);
+        // a server pool connects without a schema, every checkout selects the schema of the tenant
+        config.setJdbcUrl(createJdbcUrl(jdbcProtocol, jdbcSubprotocol, server, Integer.parseInt(port),
+                serverPooling ? "" : tenant.getSchemaName()));
+        if (serverPooling) {
+            // cursor fetch makes the driver prepare statements on the server, they stay bound to the schema they
+            // were prepared in. The driver must not cache them across checkouts, the pool closes the statements
+            // left open when a connection is returned, so every statement is prepared in the schema of its tenant
+            config.addDataSourceProperty("cachePrepStmts", "false");
+            config.addDataSourceProperty("cacheCallableStmts", "false");
+        }
         config.setAutoCommit(false);
         config.setConnectionInitSql("SELECT 1");
         config.setValidationTimeout(30000);
         config.setConnectionTestQuery("SELECT 1");
-        config.setConnectionTimeout(30000);
         config.setDriverClassName(driverClass);
         config.setIdleTimeout(600000);
-        config.setMaximumPoolSize(20);
-        config.setMinimumIdle(5);
-        config.setPoolName(tenant.getSchemaName() + "Pool");
-        return new HikariDataSource(config);
+        if (serverPooling) {
+            config.setMaximumPoolSize(serverMaximumPoolSize);
+            config.setMinimumIdle(serverMinimumIdle);
+        } else {
+            config.setMaximumPoolSize(tenant.getPoolMaximumSize() != null ? tenant.getPoolMaximumSize() : defaultMaximumPoolSize);
+            config.setMinimumIdle(tenant.getPoolMinimumIdle() != null ? tenant.getPoolMinimumIdle() : defaultMinimumIdle);
+        }
+        return config;
     }
 
     private String createJdbcUrl(String jdbcProtocol, String jdbcSubprotocol, String hostname, int port, String dbName) {
@@ -126,15 +408,122 @@ public class DataSourcePerTenantService implements DisposableBean {
                 .append(port)
                 .append('/')
                 .append(dbName)
+                // lets the driver honour the fetch size of cursor queries instead of reading the whole result
+                .append("?useCursorFetch=true")
                 .toString();
     }
 
     @Override
     public void destroy() {
-        for (Map.Entry<Long, DataSource> entry : this.tenantToDataSourceMap.entrySet()) {
-            HikariDataSource ds = (HikariDataSource) entry.getValue();
+        for (TenantDataSource tenantDataSource : this.tenantToDataSourceMap.values()) {
+            close(tenantDataSource.dataSource);
+        }
+        this.tenantToDataSourceMap.clear();
+        for (ReplicaDataSource replicaDataSource : this.tenantToReplicaMap.values()) {
+            close(replicaDataSource.dataSource);
+        }
+        this.tenantToReplicaMap.clear();
+        for (TenantDataSource tenantDataSource : this.retiredDataSources) {
+            close(tenantDataSource.dataSource);
+        }
+        this.retiredDataSources.clear();
+        for (ServerPool serverPool : this.serverPools.values()) {
+            close(serverPool.dataSource);
+        }
+        this.serverPools.clear();
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            HikariDataSource ds = (HikariDataSource) dataSource;
             ds.close();
             logger.info("Datasource closed: {}", ds.getPoolName());
+        } else if (dataSource instanceof TenantSchemaDataSource) {
+            TenantSchemaDataSource ds = (TenantSchemaDataSource) dataSource;
+            ds.close();
+            logger.info("Datasource of schema {} released", ds.getSchemaName());
+        }
+    }
+
+    private static class TenantDataSource {
+
+        // only refresh the timestamp once a second so busy tenants do not write it on every checkout
+        private static final long TOUCH_RESOLUTION_MILLIS = 1000;
+
+        private final DataSource dataSource;
+        private final Supplier<DataSource> replacement;
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile boolean retired;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        // handed out instead of the pool, so a checkout racing with the eviction of the pool is not served by a
+        // closed pool
+        private final DataSource view = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connect(null, null);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return connect(username, password);
+            }
+        };
+
+        private TenantDataSource(DataSource dataSource, Supplier<DataSource> replacement) {
+            this.dataSource = dataSource;
+            this.replacement = replacement;
+        }
+
+        private Connection connect(String username, String password) throws SQLException {
+            // the pool is not closed while leased, a lease taken after the pool was retired goes to its replacement
+            leases.incrementAndGet();
+            try {
+                DataSource target = retired ? replacement.get() : dataSource;
+                return username == null ? target.getConnection() : target.getConnection(username, password);
+            } finally {
+                leases.decrementAndGet();
+            }
+        }
+
+        private void touch() {
+            long now = System.currentTimeMillis();
+            if (now - lastAccess > TOUCH_RESOLUTION_MILLIS) {
+                lastAccess = now;
+            }
+        }
+
+        private boolean hasActiveConnections() {
+            if (dataSource instanceof HikariDataSource) {
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                return pool != null && pool.getActiveConnections() > 0;
+            }
+            if (dataSource instanceof TenantSchemaDataSource) {
+                return ((TenantSchemaDataSource) dataSource).getActiveConnections() > 0;
+            }
+            return false;
+        }
+    }
+
+    private static final class ReplicaDataSource extends TenantDataSource {
+
+        private final int maxLagSeconds;
+        private volatile boolean inSync;
+
+        private ReplicaDataSource(DataSource dataSource, int maxLagSeconds, Supplier<DataSource> replacement) {
+            super(dataSource, replacement);
+            this.maxLagSeconds = maxLagSeconds;
+        }
+    }
+
+    private static final class ServerPool {
+
+        private final DataSource dataSource;
+        // only changed within compute of the server pool map
+        private int references;
+
+        private ServerPool(DataSource dataSource) {
+            this.dataSource = dataSource;
         }
     }
-}
\ No newline at end of file
+}
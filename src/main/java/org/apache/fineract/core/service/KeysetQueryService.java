@@ -0,0 +1,150 @@
+package org.apache.fineract.core.service;
+
+import org.apache.fineract.data.KeysetPage;
+import org.apache.fineract.exception.InvalidCursorException;
+import org.apache.fineract.organisation.parent.AbstractPersistableCustom;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pages through specification queries without counting the matching rows, either by offset or by seeking
+ * past the (sort date, id) of the last row returned so deep pages cost the same as the first one.
+ */
+@Service
+public class KeysetQueryService {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns the rows after the cursor, ordered by the sort date and id. Rows without a sort date are not
+     * part of the scroll.
+     * @param cursor the next cursor of the previous page, null or empty for the first page
+     * @param sortKey reads the sort date of a row, used to build the next cursor
+     */
+    @Transactional(readOnly = true)
+    public <T extends AbstractPersistableCustom<Long>> KeysetPage<T> seek(Class<T> entityClass, Specification<T> specification,
+                                                                          String sortProperty, Function<T, Date> sortKey,
+                                                                          Sort.Direction direction, String cursor, int size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<Date> sortPath = root.get(sortProperty);
+        Path<Long> idPath = root.get(ID);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.isNotNull(sortPath));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            Key key = decode(cursor);
+            if (direction.isAscending()) {
+                predicates.add(builder.or(builder.greaterThan(sortPath, key.sortValue),
+                        builder.and(builder.equal(sortPath, key.sortValue), builder.greaterThan(idPath, key.id))));
+            } else {
+                predicates.add(builder.or(builder.lessThan(sortPath, key.sortValue),
+                        builder.and(builder.equal(sortPath, key.sortValue), builder.lessThan(idPath, key.id))));
+            }
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(order(builder, sortPath, direction), order(builder, idPath, direction));
+
+        // one extra row tells whether there is a next page
+        List<T> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, size, null);
+        }
+        List<T> content = new ArrayList<>(rows.subList(0, size));
+        T last = content.get(size - 1);
+        return new KeysetPage<>(content, size, encode(sortKey.apply(last), last.getId()));
+    }
+
+    /**
+     * Offset paging without the count query, the total of the page is only known to be past this page when
+     * there are more rows.
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<T> findWithoutCount(Class<T> entityClass, Specification<T> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            orders.add(order(builder, root.get(order.getProperty()), order.getDirection()));
+        }
+        query.orderBy(orders);
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = typedQuery.getResultList();
+        if (rows.size() <= pageable.getPageSize()) {
+            return new PageImpl<>(rows, pageable, pageable.getOffset() + rows.size());
+        }
+        return new PageImpl<>(new ArrayList<>(rows.subList(0, pageable.getPageSize())), pageable,
+                pageable.getOffset() + rows.size());
+    }
+
+    private Order order(CriteriaBuilder builder, Path<?> path, Sort.Direction direction) {
+        return direction.isAscending() ? builder.asc(path) : builder.desc(path);
+    }
+
+    static String encode(Date sortValue, Long id) {
+        String key = sortValue.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Key decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(':');
+            return new Key(new Date(Long.parseLong(key.substring(0, separator))), Long.parseLong(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    static final class Key {
+
+        final Date sortValue;
+        final Long id;
+
+        private Key(Date sortValue, Long id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+    }
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.fineract.core.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -29,17 +33,63 @@ import java.sql.SQLException;
 @Service
 public class RoutingDataSource extends AbstractDataSource {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Autowired
     private DataSourcePerTenantService dataSourcePerTenantService;
 
     @Override
     public Connection getConnection() throws SQLException {
-        return dataSourcePerTenantService.retrieveDataSource().getConnection();
+        return connect(null, null);
     }
 
     @Override
     public Connection getConnection(final String username, final String password) throws SQLException {
-        return dataSourcePerTenantService.retrieveDataSource().getConnection(username, password);
+        return connect(username, password);
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        DataSource replica = routeToReplica() ? retrieveReplica() : null;
+        if (replica != null) {
+            try {
+                return username == null ? replica.getConnection() : replica.getConnection(username, password);
+            } catch (SQLException e) {
+                logger.warn("Could not get a connection from the read replica, falling back to the primary: {}", e.getMessage());
+                dataSourcePerTenantService.markReplicaUnavailable();
+            }
+        }
+        DataSource primary = dataSourcePerTenantService.retrieveDataSource();
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
     }
 
-}
\ No newline at end of file
+    /**
+     * @return the replica pool, or null when it could not be created, the reads fall back to the primary then
+     */
+    private DataSource retrieveReplica() {
+        try {
+            return dataSourcePerTenantService.retrieveReplicaDataSource();
+        } catch (RuntimeException e) {
+            logger.warn("Could not create the read replica pool, falling back to the primary: {}", e.getMessage());
+            dataSourcePerTenantService.markReplicaUnavailable();
+            return null;
+        }
+    }
+
+    /**
+     * Read only transactions, and work outside of a transaction on a read only request, may read from the replica.
+     * Once a thread opened a writing transaction it stays on the primary, so it reads its own writes.
+     */
+    private boolean routeToReplica() {
+        if (ThreadLocalContextUtil.isPinnedToPrimary()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return true;
+            }
+            ThreadLocalContextUtil.pinToPrimary();
+            return false;
+        }
+        return ThreadLocalContextUtil.isReadOnly();
+    }
+}
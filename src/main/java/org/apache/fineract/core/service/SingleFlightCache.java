@@ -0,0 +1,111 @@
+package org.apache.fineract.core.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory store of values with an expiry, combined with single flight loading: concurrent loads of the
+ * same key on this instance run once, the other callers wait for the result of the leading one. When the store is
+ * full the expired values are dropped, if that does not make room new keys are not stored.
+ */
+public final class SingleFlightCache<V> {
+
+    private final ConcurrentMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cached<V>> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public SingleFlightCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the value stored under the key, null when there is none or it expired
+     */
+    public V getIfPresent(String key) {
+        Cached<V> cached = values.get(key);
+        return cached != null && cached.expiresAt > System.currentTimeMillis() ? cached.value : null;
+    }
+
+    public void put(String key, V value, long expiresAt) {
+        if (values.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            values.values().removeIf(c -> c.expiresAt <= now);
+        }
+        if (values.size() < maxSize || values.containsKey(key)) {
+            values.put(key, new Cached<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Joins the load of the key in flight, or makes the caller the leader of a new one.
+     */
+    public Flight<V> flight(String key) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, future);
+        return leader != null ? new Flight<>(null, null, leader) : new Flight<>(this, key, future);
+    }
+
+    public static final class Flight<V> {
+
+        private final SingleFlightCache<V> cache;
+        private final String key;
+        private final CompletableFuture<V> future;
+
+        private Flight(SingleFlightCache<V> cache, String key, CompletableFuture<V> future) {
+            this.cache = cache;
+            this.key = key;
+            this.future = future;
+        }
+
+        public boolean isLeader() {
+            return cache != null;
+        }
+
+        /**
+         * Runs the load as the leader, its result or failure is handed to the callers waiting for it.
+         */
+        public V lead(Supplier<V> loader) {
+            if (!isLeader()) {
+                throw new IllegalStateException("Load of " + key + " is led by another caller");
+            }
+            try {
+                V value = loader.get();
+                future.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                cache.inFlight.remove(key, future);
+            }
+        }
+
+        /**
+         * Waits for the load of the leader, its failure is thrown as is.
+         */
+        public V await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class Cached<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private Cached(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -19,10 +19,10 @@
 package org.apache.fineract.core.service;
 
 import org.apache.commons.lang3.time.StopWatch;
-import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.GenericFilterBean;
 
 import javax.servlet.FilterChain;
@@ -31,6 +31,8 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class TenantAwareHeaderFilter extends GenericFilterBean {
@@ -39,10 +41,26 @@ public class TenantAwareHeaderFilter extends GenericFilterBean {
     private static final String TENANT_IDENTIFIER_REQUEST_PARAM = "tenantIdentifier";
     private static final String EXCLUDED_URL = "/oauth/token_key";
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
-    private final TenantServerConnectionRepository repository;
+    private final TenantConnectionCache tenantConnectionCache;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String[]> readOnlyRoutes = new ArrayList<>();
 
-    public TenantAwareHeaderFilter(TenantServerConnectionRepository repository) {
-        this.repository = repository;
+    public TenantAwareHeaderFilter(TenantConnectionCache tenantConnectionCache) {
+        this(tenantConnectionCache, new String[0]);
+    }
+
+    /**
+     * @param readOnlyRoutes routes in the form "GET /api/v1/transfers" whose requests may be served by the read
+     *                       replica of the tenant
+     */
+    public TenantAwareHeaderFilter(TenantConnectionCache tenantConnectionCache, String[] readOnlyRoutes) {
+        this.tenantConnectionCache = tenantConnectionCache;
+        for (String route : readOnlyRoutes) {
+            String[] methodAndPattern = route.trim().split("\\s+", 2);
+            if (methodAndPattern.length == 2) {
+                this.readOnlyRoutes.add(methodAndPattern);
+            }
+        }
     }
 
     @Override
@@ -65,7 +83,8 @@ public class TenantAwareHeaderFilter extends GenericFilterBean {
                             String.format("No tenant identifier found! Add request header: %s or request param: %s", TENANT_IDENTIFIER_REQUEST_HEADER, TENANT_IDENTIFIER_REQUEST_PARAM));
                 }
 
-                ThreadLocalContextUtil.setTenant(this.repository.findOneBySchemaName(tenantIdentifier));
+                ThreadLocalContextUtil.setTenant(this.tenantConnectionCache.get(tenantIdentifier));
+                ThreadLocalContextUtil.setReadOnly(isReadOnlyRoute(request));
             }
             chain.doFilter(request, res);
         } catch (Exception e) {
@@ -78,4 +97,13 @@ public class TenantAwareHeaderFilter extends GenericFilterBean {
             logger.info(PlatformRequestLog.from(task, request).toString());
         }
     }
-}
\ No newline at end of file
+
+    private boolean isReadOnlyRoute(HttpServletRequest request) {
+        for (String[] route : readOnlyRoutes) {
+            if (route[0].equalsIgnoreCase(request.getMethod()) && pathMatcher.match(route[1], request.getServletPath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package org.apache.fineract.core.service;
+
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Carries the tenant, the read only marker and the security context of the submitting thread over to the thread
+ * running the task.
+ */
+public class TenantAwareTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        TenantServerConnection tenant = ThreadLocalContextUtil.getTenant();
+        boolean readOnly = ThreadLocalContextUtil.isReadOnly();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            try {
+                if (tenant != null) {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                }
+                ThreadLocalContextUtil.setReadOnly(readOnly);
+                SecurityContextHolder.setContext(securityContext);
+                runnable.run();
+            } finally {
+                ThreadLocalContextUtil.clear();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+}
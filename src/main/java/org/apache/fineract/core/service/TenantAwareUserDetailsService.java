@@ -36,10 +36,16 @@ public class TenantAwareUserDetailsService implements UserDetailsService {
     @Autowired
     private AppUserRepository appUserRepository;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     @Override
     @Cacheable(cacheNames = CACHE_USER_BY_NAME)
     public UserDetails loadUserByUsername(final String username) {
         AppUser appUserByName = appUserRepository.findAppUserByName(username);
+        if (appUserByName != null) {
+            appUserByName.setAuthoritySnapshot(userAuthorityCache.get(appUserByName));
+        }
         AppUser unknowUser = new AppUser();
         unknowUser.setRoles(Collections.emptyList());
         return appUserByName == null ? unknowUser : appUserByName;
@@ -0,0 +1,120 @@
+package org.apache.fineract.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the tenant connections looked up by schema name so the tenant filter does not query the core schema
+ * on every request. Unknown schema names are cached as well, for a shorter time.
+ * The pools of a tenant are evicted when its connection is invalidated or is reloaded with changed details.
+ */
+@Service
+public class TenantConnectionCache {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final ConcurrentMap<String, CachedConnection> connections = new ConcurrentHashMap<>();
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSourcePerTenantService dataSourcePerTenantService;
+
+    @Value("${fineract.tenant-cache.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${fineract.tenant-cache.negative-ttl-seconds}")
+    private long negativeTtlSeconds;
+
+    @Value("${fineract.tenant-cache.max-size}")
+    private int maxSize;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("tenant.connection.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("tenant.connection.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * @return the connection of the tenant or null if there is no tenant with the schema name
+     */
+    public TenantServerConnection get(String schemaName) {
+        long now = System.currentTimeMillis();
+        CachedConnection cached = connections.get(schemaName);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.connection;
+        }
+
+        misses.increment();
+        TenantServerConnection connection = repository.findOneBySchemaName(schemaName);
+        if (cached != null && cached.connection != null && connection != null
+                && !connection.hasSameConnectionDetails(cached.connection)) {
+            logger.info("Connection details of tenant {} changed, evicting its pools", schemaName);
+            dataSourcePerTenantService.evictDataSource(cached.connection.getId());
+        }
+        long ttl = connection != null ? ttlSeconds : negativeTtlSeconds;
+        if (connections.size() >= maxSize) {
+            connections.values().removeIf(c -> c.expiresAt <= now);
+        }
+        if (connections.size() < maxSize || connections.containsKey(schemaName)) {
+            connections.put(schemaName, new CachedConnection(connection, now + TimeUnit.SECONDS.toMillis(ttl)));
+        } else {
+            logger.warn("Tenant connection cache is full, not caching lookup of {}", schemaName);
+        }
+        return connection;
+    }
+
+    public void invalidate(String schemaName) {
+        evictDataSource(connections.remove(schemaName));
+    }
+
+    public void invalidateAll() {
+        for (String schemaName : connections.keySet()) {
+            invalidate(schemaName);
+        }
+    }
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    private void evictDataSource(CachedConnection cached) {
+        if (cached != null && cached.connection != null) {
+            dataSourcePerTenantService.evictDataSource(cached.connection.getId());
+        }
+    }
+
+    private static final class CachedConnection {
+
+        private final TenantServerConnection connection;
+        private final long expiresAt;
+
+        private CachedConnection(TenantServerConnection connection, long expiresAt) {
+            this.connection = connection;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
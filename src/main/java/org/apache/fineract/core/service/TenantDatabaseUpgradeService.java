@@ -45,6 +45,9 @@ public class TenantDatabaseUpgradeService {
     @Autowired
     private DataSourcePerTenantService dataSourcePerTenantService;
 
+    @Autowired
+    private TenantConnectionCache tenantConnectionCache;
+
     @Value("${fineract.datasource.core.host}")
     private String hostname;
 
@@ -128,6 +131,8 @@ public class TenantDatabaseUpgradeService {
                 tenantServerConnection.setSchemaPassword(password);
                 tenantServerConnection.setAutoUpdateEnabled(true);
                 repository.saveAndFlush(tenantServerConnection);
+                // drops a lookup that cached the tenant as unknown
+                tenantConnectionCache.invalidate(tenant);
             }
         }
     }
@@ -139,5 +144,7 @@ public class TenantDatabaseUpgradeService {
         fw.setInitOnMigrate(true);
         fw.setOutOfOrder(true);
         fw.migrate();
+        // the core migrations may change the tenant connections
+        tenantConnectionCache.invalidateAll();
     }
 }
@@ -0,0 +1,193 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.core.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The connections of one tenant out of a pool shared by all the tenants of a database server. Every checkout
+ * switches the connection to the schema of the tenant before handing it out, the connection can neither be switched
+ * to another schema nor unwrapped while the tenant holds it, and the tenant can not hold more than its maximum of the
+ * shared pool.
+ */
+final class TenantSchemaDataSource extends AbstractDataSource {
+
+    private final DataSource serverPool;
+    private final String schemaName;
+    private final int maximumConnections;
+    private final Semaphore permits;
+    private final long checkoutTimeoutMillis;
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+    private final Gauge active;
+    private final Timer usage;
+    private final Counter rejected;
+    private final Runnable onClose;
+
+    TenantSchemaDataSource(DataSource serverPool, String poolName, String schemaName, int maximumConnections,
+                           long checkoutTimeoutMillis, MeterRegistry meterRegistry, Runnable onClose) {
+        this.serverPool = serverPool;
+        this.schemaName = schemaName;
+        this.maximumConnections = maximumConnections;
+        this.permits = new Semaphore(maximumConnections, true);
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.meterRegistry = meterRegistry;
+        this.onClose = onClose;
+        Tags tags = Tags.of("tenant", schemaName, "pool", poolName);
+        this.active = Gauge.builder("datasource.tenant.connections.active", activeConnections, AtomicInteger::get)
+                .tags(tags).register(meterRegistry);
+        this.usage = Timer.builder("datasource.tenant.connections.usage").tags(tags).register(meterRegistry);
+        this.rejected = Counter.builder("datasource.tenant.connections.rejected").tags(tags).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        Connection connection = null;
+        try {
+            connection = serverPool.getConnection();
+            // the connection may have been used by another tenant before, it is only handed out once it points at this schema
+            connection.setCatalog(schemaName);
+        } catch (SQLException | RuntimeException e) {
+            if (connection != null) {
+                discard(connection);
+            }
+            permits.release();
+            throw e;
+        }
+        activeConnections.incrementAndGet();
+        return checkedOut(connection, System.nanoTime());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Connections of a shared server pool can not be taken with other credentials");
+    }
+
+    int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     * Gives the share of the tenant back to the server pool, the connections still held are returned to it on close.
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            meterRegistry.remove(active);
+            meterRegistry.remove(usage);
+            meterRegistry.remove(rejected);
+            onClose.run();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(String.format(
+                        "Tenant %s has all its %d connections in use, timed out after %dms", schemaName, maximumConnections, checkoutTimeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection of tenant " + schemaName, e);
+        }
+    }
+
+    private void discard(Connection connection) {
+        if (serverPool instanceof HikariDataSource) {
+            ((HikariDataSource) serverPool).evictConnection(connection);
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Could not close connection of tenant " + schemaName, e);
+        }
+    }
+
+    private void release(long checkedOutAt) {
+        activeConnections.decrementAndGet();
+        permits.release();
+        usage.record(System.nanoTime() - checkedOutAt, TimeUnit.NANOSECONDS);
+    }
+
+    private Connection checkedOut(Connection connection, long checkedOutAt) {
+        AtomicBoolean returned = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (returned.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    release(checkedOutAt);
+                                }
+                            }
+                            return null;
+                        case "setCatalog":
+                        case "setSchema":
+                            if (!schemaName.equals(args[0])) {
+                                throw new SQLException("Connection of tenant " + schemaName + " can not be switched to schema " + args[0]);
+                            }
+                            return null;
+                        case "unwrap":
+                            // the raw connection would bypass the schema guard
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return proxy;
+                            }
+                            throw new SQLException("Connection of tenant " + schemaName + " does not expose " + args[0]);
+                        case "isWrapperFor":
+                            return ((Class<?>) args[0]).isInstance(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
@@ -23,7 +23,14 @@ import org.springframework.util.Assert;
 
 public class ThreadLocalContextUtil {
 
+    /**
+     * Stands in for the tenant in keys built on a thread without one.
+     */
+    public static final Long DEFAULT_TENANT_ID = 0L;
+
     private static final ThreadLocal<TenantServerConnection> tenantcontext = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> readOnlyContext = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> primaryPinnedContext = new ThreadLocal<>();
 
     public static void setTenant(final TenantServerConnection tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
@@ -34,7 +41,45 @@ public class ThreadLocalContextUtil {
         return tenantcontext.get();
     }
 
+    public static Long getTenantId() {
+        TenantServerConnection tenant = tenantcontext.get();
+        return tenant != null && tenant.getId() != null ? tenant.getId() : DEFAULT_TENANT_ID;
+    }
+
+    /**
+     * Qualifies the key with the tenant of the current thread, for in-memory state shared by all tenants.
+     */
+    public static String tenantScoped(String key) {
+        return getTenantId() + ":" + key;
+    }
+
+    /**
+     * Marks the work of the current thread as read only, its connections may be served by the read replica of the
+     * tenant even outside of a read only transaction.
+     */
+    public static void setReadOnly(final boolean readOnly) {
+        readOnlyContext.set(readOnly);
+    }
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(readOnlyContext.get());
+    }
+
+    /**
+     * Keeps the connections of the current thread on the primary once it has written, so it reads its own writes
+     * instead of a lagging replica.
+     */
+    public static void pinToPrimary() {
+        primaryPinnedContext.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(primaryPinnedContext.get());
+    }
+
     public static void clear() {
         tenantcontext.remove();
+        readOnlyContext.remove();
+        primaryPinnedContext.remove();
     }
 }
\ No newline at end of file
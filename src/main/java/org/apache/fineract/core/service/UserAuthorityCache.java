@@ -0,0 +1,120 @@
+package org.apache.fineract.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.organisation.user.AppUser;
+import org.apache.fineract.organisation.user.AppUserRepository;
+import org.apache.fineract.organisation.user.AuthoritySnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the authority snapshot of every user of a tenant, built with one query over the roles and permissions of
+ * the user. Role, permission and user role changes invalidate the snapshots, the time to live bounds how long
+ * another instance keeps a snapshot after such a change.
+ */
+@Service
+public class UserAuthorityCache {
+
+    private final ConcurrentMap<String, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${fineract.authority-cache.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${fineract.authority-cache.max-size}")
+    private int maxSize;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("user.authority.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("user.authority.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public AuthoritySnapshot get(AppUser user) {
+        String prefix = tenantPrefix();
+        String key = prefix + user.getId();
+        long now = System.currentTimeMillis();
+        CachedSnapshot cached = snapshots.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.snapshot;
+        }
+
+        misses.increment();
+        AtomicLong generation = generation(prefix);
+        long loadedAt = generation.get();
+        AuthoritySnapshot snapshot = AuthoritySnapshot.of(appUserRepository.findPermissionCodes(user.getId()));
+        if (generation.get() != loadedAt) {
+            // invalidated while loading, the snapshot may predate the change
+            return snapshot;
+        }
+        if (snapshots.size() >= maxSize) {
+            snapshots.values().removeIf(c -> c.expiresAt <= now);
+        }
+        if (snapshots.size() < maxSize || snapshots.containsKey(key)) {
+            CachedSnapshot entry = new CachedSnapshot(snapshot, now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+            snapshots.put(key, entry);
+            if (generation.get() != loadedAt) {
+                snapshots.remove(key, entry);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of a user of the current tenant, after its roles changed.
+     */
+    public void invalidate(Long userId) {
+        String prefix = tenantPrefix();
+        generation(prefix).incrementAndGet();
+        snapshots.remove(prefix + userId);
+    }
+
+    /**
+     * Drops the snapshots of all users of the current tenant, after a role or permission changed.
+     */
+    public void invalidateTenant() {
+        String prefix = tenantPrefix();
+        generation(prefix).incrementAndGet();
+        snapshots.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Counts the invalidations of a tenant, a load that saw it change must not cache what it read.
+     */
+    private AtomicLong generation(String prefix) {
+        return generations.computeIfAbsent(prefix, p -> new AtomicLong());
+    }
+
+    private String tenantPrefix() {
+        return ThreadLocalContextUtil.tenantScoped("");
+    }
+
+    private static final class CachedSnapshot {
+
+        private final AuthoritySnapshot snapshot;
+        private final long expiresAt;
+
+        private CachedSnapshot(AuthoritySnapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
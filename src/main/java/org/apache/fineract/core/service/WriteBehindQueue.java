@@ -0,0 +1,163 @@
+package org.apache.fineract.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory queue drained by a background writer thread. Queued entries are written in batches, one call
+ * of the writer per tenant with the tenant set on the writing thread, and the queue is drained before shutdown
+ * completes. A failed batch is logged and counted, the writer keeps running.
+ */
+@Slf4j
+public final class WriteBehindQueue<T> {
+
+    /**
+     * Writes the entries of one tenant, the tenant is set on the calling thread.
+     */
+    public interface TenantWriter<T> {
+        void write(List<T> entries);
+    }
+
+    private final String name;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final Function<T, TenantServerConnection> tenantOf;
+    private final TenantWriter<T> tenantWriter;
+    private final Counter failed;
+    private final BlockingQueue<T> queue;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    public WriteBehindQueue(String name, int capacity, int batchSize, long flushIntervalMs, long shutdownTimeoutMs,
+                            Function<T, TenantServerConnection> tenantOf, TenantWriter<T> tenantWriter, Counter failed) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.tenantOf = tenantOf;
+        this.tenantWriter = tenantWriter;
+        this.failed = failed;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, name + "-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return false when the queue is full
+     */
+    public boolean offer(T entry) {
+        return queue.offer(entry);
+    }
+
+    /**
+     * Waits at most the timeout for room in the queue.
+     *
+     * @return false when the queue stayed full or the wait was interrupted
+     */
+    public boolean offer(T entry, long timeoutMs) {
+        try {
+            return queue.offer(entry, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, the tenant of the caller is kept.
+     */
+    public void flush() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        writer.join(shutdownTimeoutMs);
+        if (writer.isAlive()) {
+            log.warn("{} writer did not finish within {} ms, {} entries are not written", name, shutdownTimeoutMs, queue.size());
+        }
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                log.warn("{} writer interrupted, {} entries are not written", name, queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("{} writer failed to write {} entries", name, batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<T> batch) {
+        TenantServerConnection callerTenant = ThreadLocalContextUtil.getTenant();
+        Map<Long, List<T>> byTenant = new LinkedHashMap<>();
+        for (T entry : batch) {
+            TenantServerConnection tenant = tenantOf.apply(entry);
+            byTenant.computeIfAbsent(tenant != null ? tenant.getId() : null, k -> new ArrayList<>()).add(entry);
+        }
+        for (List<T> entries : byTenant.values()) {
+            TenantServerConnection tenant = tenantOf.apply(entries.get(0));
+            try {
+                if (tenant != null) {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                }
+                tenantWriter.write(entries);
+            } catch (Exception e) {
+                failed.increment(entries.size());
+                log.error("{} writer could not write {} entries of tenant {}", name, entries.size(),
+                        tenant != null ? tenant.getSchemaName() : "default", e);
+            } finally {
+                if (callerTenant != null) {
+                    ThreadLocalContextUtil.setTenant(callerTenant);
+                } else {
+                    ThreadLocalContextUtil.clear();
+                }
+            }
+        }
+    }
+}
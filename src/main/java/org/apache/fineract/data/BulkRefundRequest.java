@@ -0,0 +1,15 @@
+package org.apache.fineract.data;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkRefundRequest {
+
+    private List<String> transactionIds = new ArrayList<>();
+    private String comment;
+}
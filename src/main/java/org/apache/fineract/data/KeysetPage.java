@@ -0,0 +1,27 @@
+package org.apache.fineract.data;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of a keyset scroll, {@code nextCursor} is passed back as the cursor of the next request
+ * and is null on the last page.
+ */
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
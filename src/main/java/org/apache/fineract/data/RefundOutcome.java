@@ -0,0 +1,32 @@
+package org.apache.fineract.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of the refund of one transaction of a bulk refund.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RefundOutcome {
+
+    public enum Status {
+        /** accepted by the channel connector */
+        SUBMITTED,
+        /** rejected by the channel connector */
+        FAILED,
+        /** no completed incoming transfer with the transaction id */
+        NOT_ELIGIBLE,
+        /** not sent to the channel connector, safe to retry */
+        UNAVAILABLE,
+        /** sent but failed or timed out, check the transfer before retrying */
+        UNKNOWN
+    }
+
+    private final String transactionId;
+    private final Status status;
+    private final Integer httpStatus;
+    private final String response;
+}
@@ -0,0 +1,15 @@
+package org.apache.fineract.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The call to the channel connector failed or timed out after it was sent, its outcome is unknown.
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class ChannelConnectorException extends RuntimeException {
+
+    public ChannelConnectorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
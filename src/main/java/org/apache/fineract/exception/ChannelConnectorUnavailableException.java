@@ -0,0 +1,19 @@
+package org.apache.fineract.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The call to the channel connector was not sent, the request can be retried.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChannelConnectorUnavailableException extends WriteNotAppliedException {
+
+    public ChannelConnectorUnavailableException(String reason) {
+        super("Channel connector unavailable: " + reason);
+    }
+
+    public ChannelConnectorUnavailableException(String reason, Throwable cause) {
+        super("Channel connector unavailable: " + reason, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package org.apache.fineract.exception;
+
+/**
+ * The write failed before it could take effect, a retry with the same idempotency key runs it again.
+ */
+public class WriteNotAppliedException extends RuntimeException {
+
+    public WriteNotAppliedException(String message) {
+        super(message);
+    }
+
+    public WriteNotAppliedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
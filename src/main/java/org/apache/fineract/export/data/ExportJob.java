@@ -0,0 +1,56 @@
+package org.apache.fineract.export.data;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.apache.fineract.organisation.parent.AbstractPersistableCustom;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Table;
+import java.util.Date;
+
+/**
+ * An export running in the background, whose result file is delivered through the object storage.
+ */
+@Entity
+@Table(name = "export_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ExportJob extends AbstractPersistableCustom<Long> {
+
+    public static final int ERROR_MESSAGE_LENGTH = 1024;
+
+    @Column(name = "JOB_ID", nullable = false, unique = true)
+    private String jobId;
+
+    @Column(name = "ENTITY_NAME", nullable = false)
+    private String entityName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false)
+    private ExportJobStatus status;
+
+    @Column(name = "ROW_COUNT")
+    private Long rowCount;
+
+    @JsonIgnore
+    @Column(name = "FILE_LOCATION")
+    private String fileLocation;
+
+    @Column(name = "ERROR_MESSAGE", length = ERROR_MESSAGE_LENGTH)
+    private String errorMessage;
+
+    @Column(name = "SUBMITTED_AT")
+    private Date submittedAt;
+
+    @Column(name = "STARTED_AT")
+    private Date startedAt;
+
+    @Column(name = "COMPLETED_AT")
+    private Date completedAt;
+}
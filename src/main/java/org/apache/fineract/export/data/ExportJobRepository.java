@@ -0,0 +1,8 @@
+package org.apache.fineract.export.data;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExportJobRepository extends JpaRepository<ExportJob, Long> {
+
+    ExportJob findByJobId(String jobId);
+}
@@ -0,0 +1,8 @@
+package org.apache.fineract.export.data;
+
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,176 @@
+package org.apache.fineract.export.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.CursorQueryService;
+import org.apache.fineract.export.data.ExportJob;
+import org.apache.fineract.export.data.ExportJobRepository;
+import org.apache.fineract.export.data.ExportJobStatus;
+import org.apache.fineract.file.FileTransferService;
+import org.apache.fineract.utils.CsvStreamWriter;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Runs exports in the background on the bounded export executor, writing the rows into a temp file which is then
+ * uploaded to the configured storage.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    @Autowired
+    private ExportJobRepository exportJobRepository;
+
+    @Autowired
+    private CursorQueryService cursorQueryService;
+
+    @Autowired
+    private BeanFactory beanFactory;
+
+    @Autowired
+    @Qualifier("exportJobExecutor")
+    private ThreadPoolTaskExecutor exportJobExecutor;
+
+    @Value("${export.job.storage}")
+    private String storage;
+
+    @Value("${application.bucket-name}")
+    private String bucketName;
+
+    /**
+     * Registers a new export job and queues it for execution
+     * @throws TaskRejectedException if the export queue is full
+     */
+    public <T> ExportJob submit(Class<T> entityClass, Specification<T> specification, Sort.Direction direction,
+                                String sortProperty, String filePrefix) {
+        ExportJob job = new ExportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setEntityName(entityClass.getSimpleName());
+        job.setStatus(ExportJobStatus.PENDING);
+        job.setSubmittedAt(new Date());
+        job.setCreatedBy(currentUser());
+        ExportJob savedJob = exportJobRepository.save(job);
+        try {
+            exportJobExecutor.execute(() -> run(savedJob.getJobId(), entityClass, specification, direction, sortProperty, filePrefix));
+        } catch (TaskRejectedException e) {
+            savedJob.setStatus(ExportJobStatus.FAILED);
+            savedJob.setErrorMessage("Export queue is full");
+            savedJob.setCompletedAt(new Date());
+            exportJobRepository.save(savedJob);
+            throw e;
+        }
+        return savedJob;
+    }
+
+    /**
+     * Finds a job submitted by the current user, the jobs of other users are not found.
+     */
+    public ExportJob getJob(String jobId) {
+        String user = currentUser();
+        ExportJob job = exportJobRepository.findByJobId(jobId);
+        if (job == null || user == null || !user.equals(job.getCreatedBy())) {
+            return null;
+        }
+        return job;
+    }
+
+    public void download(ExportJob job, OutputStream outputStream) throws IOException {
+        fileTransferService().downloadFile(job.getFileLocation(), bucketName, outputStream);
+    }
+
+    private <T> void run(String jobId, Class<T> entityClass, Specification<T> specification, Sort.Direction direction,
+                         String sortProperty, String filePrefix) {
+        ExportJob job = exportJobRepository.findByJobId(jobId);
+        File tempFile = null;
+        try {
+            job.setStatus(ExportJobStatus.RUNNING);
+            job.setStartedAt(new Date());
+            job = exportJobRepository.save(job);
+
+            tempFile = File.createTempFile(filePrefix, ".csv");
+            long rows;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8))) {
+                CsvStreamWriter<T> csvWriter = new CsvStreamWriter<>(writer, entityClass);
+                rows = cursorQueryService.stream(entityClass, specification, direction, sortProperty, csvWriter::write);
+                csvWriter.close();
+            }
+            job.setRowCount(rows);
+            if (rows > 0) {
+                // the key is kept instead of the returned location, the file is only handed out through download
+                String key = System.currentTimeMillis() + "_" + tempFile.getName();
+                if (fileTransferService().uploadFile(tempFile, key, bucketName) == null) {
+                    throw new IllegalStateException("Upload of the export file failed");
+                }
+                job.setFileLocation(key);
+            }
+            job.setStatus(ExportJobStatus.COMPLETED);
+            log.info("Export job {} completed with {} {} row(s)", jobId, rows, entityClass.getSimpleName());
+        } catch (Exception e) {
+            log.error("Export job {} failed", jobId, e);
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setErrorMessage(errorMessage(e));
+        } finally {
+            job.setCompletedAt(new Date());
+            saveResult(job);
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                log.warn("Unable to delete temp file {}", tempFile.getPath());
+            }
+        }
+    }
+
+    /**
+     * Saves the final state of the job, if that fails the job is still marked failed so it does not stay running.
+     */
+    private void saveResult(ExportJob job) {
+        try {
+            exportJobRepository.save(job);
+        } catch (RuntimeException e) {
+            log.error("Unable to save the result of export job {}", job.getJobId(), e);
+            try {
+                ExportJob failed = exportJobRepository.findByJobId(job.getJobId());
+                failed.setStatus(ExportJobStatus.FAILED);
+                failed.setErrorMessage("Unable to save the result of the export");
+                failed.setFileLocation(null);
+                failed.setCompletedAt(job.getCompletedAt());
+                exportJobRepository.save(failed);
+            } catch (RuntimeException retry) {
+                log.error("Unable to mark export job {} failed", job.getJobId(), retry);
+            }
+        }
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        return message.length() > ExportJob.ERROR_MESSAGE_LENGTH ? message.substring(0, ExportJob.ERROR_MESSAGE_LENGTH) : message;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private FileTransferService fileTransferService() {
+        return BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, FileTransferService.class, storage);
+    }
+}
@@ -1,9 +1,9 @@
 package org.apache.fineract.file;
 
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +15,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 @Service
 @Qualifier("awsStorage")
@@ -24,16 +25,32 @@ public class AwsFileTransferImpl implements FileTransferService {
     @Autowired
     private AmazonS3 s3Client;
 
+    @Autowired
+    private TransferManager transferManager;
+
     @Override
     public String uploadFile(File file, String bucketName) {
 
-        String fileName = System.currentTimeMillis() + "_" + file.getName();
-        s3Client.putObject(new PutObjectRequest(bucketName, fileName, file));
-        String url = s3Client.getUrl(bucketName, fileName).toString();
-        file.delete();
+        String url = uploadFile(file, System.currentTimeMillis() + "_" + file.getName(), bucketName);
+        if (url != null) {
+            file.delete();
+        }
         return url;
     }
 
+    @Override
+    public String uploadFile(File file, String key, String bucketName) {
+        try {
+            // files above the multipart threshold are sent as parts uploaded in parallel
+            transferManager.upload(bucketName, key, file).waitForCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while uploading file {} to S3", key, e);
+            return null;
+        }
+        return s3Client.getUrl(bucketName, key).toString();
+    }
+
     @Override
     public byte[] downloadFile(String fileName, String bucketName) {
         S3Object s3Object = s3Client.getObject(bucketName, fileName);
@@ -47,6 +64,13 @@ public class AwsFileTransferImpl implements FileTransferService {
         return null;
     }
 
+    @Override
+    public void downloadFile(String fileName, String bucketName, OutputStream outputStream) throws IOException {
+        try (S3Object s3Object = s3Client.getObject(bucketName, fileName)) {
+            IOUtils.copy(s3Object.getObjectContent(), outputStream);
+        }
+    }
+
     @Override
     public void deleteFile(String fileName, String bucketName) {
         s3Client.deleteObject(bucketName, fileName);
@@ -1,19 +1,19 @@
 package org.apache.fineract.file;
 
+import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobClientBuilder;
-import com.azure.storage.blob.models.BlobProperties;
-import org.apache.commons.io.FileUtils;
+import com.azure.storage.blob.models.ParallelTransferOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.OutputStream;
 
 @Service
 @Qualifier("azureStorage")
@@ -26,37 +26,66 @@ public class AzureFileTransferImpl implements FileTransferService {
     @Autowired
     BlobClientBuilder client;
 
+    @Value("${cloud.transfer.part-size-mb}")
+    private long partSizeMb;
+
+    @Value("${cloud.transfer.concurrency}")
+    private int concurrency;
+
     @Override
     public String uploadFile(File file, String bucketName) {
 
-        try {
-            String fileName = System.currentTimeMillis() + "_" + file.getName();
-            client.containerName(bucketName).blobName(fileName).buildClient().upload(FileUtils.openInputStream(file), file.length());
+        String fileName = uploadFile(file, System.currentTimeMillis() + "_" + file.getName(), bucketName);
+        if (fileName != null) {
             file.delete();
-            return fileName;
-        } catch (IOException e) {
-            logger.error("Error uploading file to Azure", e);
         }
+        return fileName;
+    }
 
+    @Override
+    public String uploadFile(File file, String key, String bucketName) {
+        try {
+            // blobs above the block size are staged as blocks uploaded in parallel
+            blobClient(bucketName, key).uploadFromFile(file.getPath(), parallelTransferOptions(),
+                    null, null, null, null, null);
+            return key;
+        } catch (Exception e) {
+            logger.error("Error uploading file to Azure", e);
+        }
         return null;
     }
 
     @Override
     public byte[] downloadFile(String fileName, String bucketName) {
         try {
-            File temp = new File("/temp/"+fileName);
-            BlobProperties properties = client.containerName(bucketName).blobName(fileName).buildClient().downloadToFile(temp.getPath());
-            byte[] content = Files.readAllBytes(Paths.get(temp.getPath()));
-            temp.delete();
-            return content;
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            downloadFile(fileName, bucketName, content);
+            return content.toByteArray();
         } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    @Override
+    public void downloadFile(String fileName, String bucketName, OutputStream outputStream) {
+        blobClient(bucketName, fileName).download(outputStream);
+    }
+
     @Override
     public void deleteFile(String fileName, String bucketName) {
-        client.containerName(bucketName).blobName(fileName).buildClient().delete();
+        blobClient(bucketName, fileName).delete();
+    }
+
+    private BlobClient blobClient(String bucketName, String fileName) {
+        return client.containerName(bucketName).blobName(fileName).buildClient();
+    }
+
+    private ParallelTransferOptions parallelTransferOptions() {
+        long partSize = partSizeMb * 1024 * 1024;
+        return new ParallelTransferOptions()
+                .setBlockSizeLong(partSize)
+                .setMaxSingleUploadSizeLong(partSize)
+                .setMaxConcurrency(concurrency);
     }
 }
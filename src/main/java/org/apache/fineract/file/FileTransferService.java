@@ -3,14 +3,27 @@ package org.apache.fineract.file;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 
 @Service
 public interface FileTransferService {
 
     String uploadFile(File file, String bucketName);
 
+    /**
+     * Uploads the file under the given key, large files are sent in parts uploaded in parallel. The file is kept.
+     * @return the location of the stored file, or null if the upload failed
+     */
+    String uploadFile(File file, String key, String bucketName);
+
     byte[] downloadFile(String fileName, String bucketName);
 
+    /**
+     * Copies the content of the stored file into the output stream without buffering it as a whole.
+     */
+    void downloadFile(String fileName, String bucketName, OutputStream outputStream) throws IOException;
+
     void deleteFile(String fileName, String bucketName);
 
 }
@@ -0,0 +1,82 @@
+package org.apache.fineract.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores the files in a directory of the local file system, one sub directory per bucket.
+ * Meant for running and testing the file flows without any cloud storage.
+ */
+@Service
+@Qualifier("localStorage")
+@ConditionalOnProperty(
+        value="cloud.local.enabled",
+        havingValue = "true")
+public class LocalFileTransferImpl implements FileTransferService {
+    private Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Value("${cloud.local.base-dir}")
+    private String baseDir;
+
+    @Override
+    public String uploadFile(File file, String bucketName) {
+        try {
+            String fileName = System.currentTimeMillis() + "_" + file.getName();
+            Path bucket = Files.createDirectories(Paths.get(baseDir, bucketName));
+            Files.move(file.toPath(), bucket.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            return fileName;
+        } catch (IOException e) {
+            logger.error("Error storing file {} in local bucket {}", file.getName(), bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public String uploadFile(File file, String key, String bucketName) {
+        try {
+            Path target = Paths.get(baseDir, bucketName).resolve(key);
+            Files.createDirectories(target.getParent());
+            Files.copy(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+            return key;
+        } catch (IOException e) {
+            logger.error("Error storing file {} in local bucket {}", key, bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public byte[] downloadFile(String fileName, String bucketName) {
+        try {
+            return Files.readAllBytes(Paths.get(baseDir, bucketName, fileName));
+        } catch (IOException e) {
+            logger.error("Error reading file {} from local bucket {}", fileName, bucketName, e);
+        }
+        return null;
+    }
+
+    @Override
+    public void downloadFile(String fileName, String bucketName, OutputStream outputStream) throws IOException {
+        Files.copy(Paths.get(baseDir, bucketName, fileName), outputStream);
+    }
+
+    @Override
+    public void deleteFile(String fileName, String bucketName) {
+        try {
+            Files.deleteIfExists(Paths.get(baseDir, bucketName, fileName));
+        } catch (IOException e) {
+            logger.error("Error deleting file {} from local bucket {}", fileName, bucketName, e);
+        }
+    }
+}
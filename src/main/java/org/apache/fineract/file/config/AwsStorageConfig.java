@@ -5,11 +5,16 @@ import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AwsStorageConfig {
 
@@ -22,6 +27,12 @@ public class AwsStorageConfig {
     @Value("${cloud.aws.region.static}")
     private String region;
 
+    @Value("${cloud.transfer.part-size-mb}")
+    private long partSizeMb;
+
+    @Value("${cloud.transfer.concurrency}")
+    private int concurrency;
+
     @Bean
     @ConditionalOnProperty(
             value="cloud.aws.enabled",
@@ -33,4 +44,32 @@ public class AwsStorageConfig {
                 .withRegion(region).build();
     }
 
+    /**
+     * Threads sending the parts of the uploads, shut down with the context once the queued parts are sent.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(
+            value="cloud.aws.enabled",
+            havingValue = "true")
+    public ExecutorService transferExecutor() {
+        return Executors.newFixedThreadPool(concurrency);
+    }
+
+    /**
+     * Uploads objects above the part size as multipart uploads, sending up to [concurrency] parts at once.
+     */
+    @Bean
+    @ConditionalOnProperty(
+            value="cloud.aws.enabled",
+            havingValue = "true")
+    public TransferManager transferManager(AmazonS3 s3Client, ExecutorService transferExecutor) {
+        return TransferManagerBuilder.standard()
+                .withS3Client(s3Client)
+                .withMinimumUploadPartSize(partSizeMb * 1024 * 1024)
+                .withMultipartUploadThreshold(partSizeMb * 1024 * 1024)
+                .withExecutorFactory(() -> transferExecutor)
+                .withShutDownThreadPools(false)
+                .build();
+    }
+
 }
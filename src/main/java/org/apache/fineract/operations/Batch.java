@@ -5,6 +5,7 @@ import org.apache.fineract.organisation.parent.AbstractPersistableCustom;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
@@ -36,16 +37,16 @@ public class Batch extends AbstractPersistableCustom<Long> {
     private Long completed;
 
     @Column(name = "TOTAL_AMOUNT")
-    private Long totalAmount;
+    private BigDecimal totalAmount;
 
     @Column(name = "ONGOING_AMOUNT")
-    private Long ongoingAmount;
+    private BigDecimal ongoingAmount;
 
     @Column(name = "FAILED_AMOUNT")
-    private Long failedAmount;
+    private BigDecimal failedAmount;
 
     @Column(name = "COMPLETED_AMOUNT")
-    private Long completedAmount;
+    private BigDecimal completedAmount;
 
     @Column(name = "RESULT_FILE")
     private String result_file;
@@ -72,6 +73,9 @@ public class Batch extends AbstractPersistableCustom<Long> {
     @Column(name = "PAYMENT_MODE")
     private String paymentMode;
 
+    @Column(name = "STATISTICS_VERSION")
+    private Long statisticsVersion = 0L;
+
     public Batch() {
     }
 
@@ -199,35 +203,35 @@ public class Batch extends AbstractPersistableCustom<Long> {
         this.subBatchId = subBatchId;
     }
 
-    public Long getTotalAmount() {
+    public BigDecimal getTotalAmount() {
         return totalAmount;
     }
 
-    public void setTotalAmount(Long totalAmount) {
+    public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount;
     }
 
-    public Long getOngoingAmount() {
+    public BigDecimal getOngoingAmount() {
         return ongoingAmount;
     }
 
-    public void setOngoingAmount(Long ongoingAmount) {
+    public void setOngoingAmount(BigDecimal ongoingAmount) {
         this.ongoingAmount = ongoingAmount;
     }
 
-    public Long getFailedAmount() {
+    public BigDecimal getFailedAmount() {
         return failedAmount;
     }
 
-    public void setFailedAmount(Long failedAmount) {
+    public void setFailedAmount(BigDecimal failedAmount) {
         this.failedAmount = failedAmount;
     }
 
-    public Long getCompletedAmount() {
+    public BigDecimal getCompletedAmount() {
         return completedAmount;
     }
 
-    public void setCompletedAmount(Long completedAmount) {
+    public void setCompletedAmount(BigDecimal completedAmount) {
         this.completedAmount = completedAmount;
     }
 
@@ -238,5 +242,12 @@ public class Batch extends AbstractPersistableCustom<Long> {
     public void setPaymentMode(String mode) {
         this.paymentMode = mode;
     }
-}
 
+    public Long getStatisticsVersion() {
+        return statisticsVersion;
+    }
+
+    public void setStatisticsVersion(Long statisticsVersion) {
+        this.statisticsVersion = statisticsVersion;
+    }
+}
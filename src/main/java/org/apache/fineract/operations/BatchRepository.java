@@ -1,9 +1,15 @@
 package org.apache.fineract.operations;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.List;
 
 public interface BatchRepository extends JpaRepository<Batch, Long>, JpaSpecificationExecutor {
@@ -15,4 +21,34 @@ public interface BatchRepository extends JpaRepository<Batch, Long>, JpaSpecific
 
     List<Batch> findAllByBatchId(String batchId);
 
+    @Query("SELECT bt FROM Batch bt WHERE bt.subBatchId is null " +
+            "and (bt.resultGeneratedAt is null or bt.resultGeneratedAt < :threshold) " +
+            "and (bt.completedAt is null or bt.resultGeneratedAt is null or bt.resultGeneratedAt < bt.completedAt) " +
+            "ORDER BY bt.resultGeneratedAt")
+    List<Batch> findStaleBatches(@Param("threshold") Date threshold, Pageable pageable);
+
+    /**
+     * Stores recounted counters unless another recount stored counters since the batch was read at the given version.
+     *
+     * @return 0 if the counters were stored in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Batch bt SET bt.totalTransactions = :total, bt.ongoing = :ongoing, bt.completed = :completed, " +
+            "bt.failed = :failed, bt.totalAmount = :totalAmount, bt.ongoingAmount = :ongoingAmount, " +
+            "bt.completedAmount = :completedAmount, bt.failedAmount = :failedAmount, bt.resultGeneratedAt = :generatedAt, " +
+            "bt.statisticsVersion = bt.statisticsVersion + 1 " +
+            "WHERE bt.id = :id and bt.statisticsVersion = :version")
+    int storeCounters(@Param("id") Long id, @Param("version") Long version,
+                      @Param("total") Long total, @Param("ongoing") Long ongoing,
+                      @Param("completed") Long completed, @Param("failed") Long failed,
+                      @Param("totalAmount") BigDecimal totalAmount, @Param("ongoingAmount") BigDecimal ongoingAmount,
+                      @Param("completedAmount") BigDecimal completedAmount, @Param("failedAmount") BigDecimal failedAmount,
+                      @Param("generatedAt") Date generatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Batch bt SET bt.result_file = :resultFile WHERE bt.id = :id")
+    int updateResultFile(@Param("id") Long id, @Param("resultFile") String resultFile);
+
 }
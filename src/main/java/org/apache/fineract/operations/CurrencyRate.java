@@ -32,6 +32,14 @@ public class CurrencyRate extends AbstractPersistableCustom<Long> {
     public CurrencyRate() {
     }
 
+    public String getFromCurrency() {
+        return fromCurrency;
+    }
+
+    public String getToCurrency() {
+        return toCurrency;
+    }
+
     public BigDecimal getRate() {
         return rate;
     }
@@ -41,6 +41,18 @@ public class CurrencyRateLock  extends AbstractPersistableCustom<Long> {
         return expireBy.before(date);
     }
 
+    public String getUniqueKey() {
+        return uniqueKey;
+    }
+
+    public String getFromCurrency() {
+        return fromCurrency;
+    }
+
+    public String getToCurrency() {
+        return toCurrency;
+    }
+
     public BigDecimal getRate() {
         return rate;
     }
@@ -10,7 +10,10 @@ import java.util.Date;
 public interface CurrencyRateLockRepository extends CrudRepository<CurrencyRateLock, Long> {
     CurrencyRateLock findOneByUniqueKey(String uniqueKey);
 
+    /**
+     * Deletes at most the limit of locks that expired before the date, oldest first.
+     */
     @Modifying
-    @Query("delete from CurrencyRateLock c where c.expireBy=:timeStamp")
-    void deleteBooks(@Param("timeStamp") Date timeStamp);
+    @Query(value = "DELETE FROM m_currency_rates_lock WHERE expire_by < :expiredBefore ORDER BY expire_by LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("expiredBefore") Date expiredBefore, @Param("limit") int limit);
 }
@@ -1,20 +1,35 @@
 package org.apache.fineract.operations;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
+import static org.apache.fineract.config.CacheConfig.CACHE_ERROR_CODES;
+
 public interface ErrorCodeRepository extends CrudRepository<ErrorCode, Long> {
 
+    @Cacheable(cacheNames = CACHE_ERROR_CODES, key = "'code:' + #p0")
     @Query(value = "select e from ErrorCode e where e.errorCode = :code")
     List<ErrorCode> getErrorCodesByErrorCode(@Param("code") String code);
 
+    @Cacheable(cacheNames = CACHE_ERROR_CODES, key = "'recoverable:' + #p0")
     @Query(value = "select e from ErrorCode e where e.recoverable = :recoverable")
     List<ErrorCode> getErrorCodesByRecoverable(@Param("recoverable") boolean code);
 
+    @Cacheable(cacheNames = CACHE_ERROR_CODES, key = "'transactionType:' + #p0")
     @Query(value = "select e from ErrorCode e where e.transactionType = :transactionType")
     List<ErrorCode> getErrorCodesByTransactionType(@Param("transactionType") String transactionType);
 
+    @Override
+    @CacheEvict(cacheNames = CACHE_ERROR_CODES, allEntries = true)
+    <S extends ErrorCode> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_ERROR_CODES, allEntries = true)
+    void deleteById(Long id);
+
 }
@@ -0,0 +1,31 @@
+package org.apache.fineract.operations;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * The latest error description variable of a workflow instance, kept in an indexed column by database triggers
+ * on the variables table.
+ */
+@Entity
+@Table(name = "transaction_request_error_descriptions")
+@Getter
+@Setter
+public class TransactionRequestErrorDescription {
+
+    // mapped like TransactionRequest.workflowInstanceKey so the two can be compared in queries
+    @Id
+    @Column(name = "WORKFLOW_INSTANCE_KEY")
+    private String workflowInstanceKey;
+
+    @Column(name = "ERROR_DESCRIPTION")
+    private String errorDescription;
+
+    @Column(name = "VARIABLE_ID")
+    private Long variableId;
+}
@@ -0,0 +1,30 @@
+package org.apache.fineract.operations;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TransactionRequestErrorDescriptionRepository extends JpaRepository<TransactionRequestErrorDescription, String> {
+
+    /**
+     * Copies the error descriptions of the variables in the id range, the same way the variables triggers do.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transaction_request_error_descriptions (WORKFLOW_INSTANCE_KEY, ERROR_DESCRIPTION, VARIABLE_ID) " +
+            "SELECT v.WORKFLOW_INSTANCE_KEY, LEFT(TRIM(BOTH '\"' FROM v.VALUE), 512), v.ID FROM variables v " +
+            "WHERE v.ID > :fromId AND v.ID <= :toId AND v.NAME = 'errorDescription' AND v.WORKFLOW_INSTANCE_KEY IS NOT NULL " +
+            "ON DUPLICATE KEY UPDATE " +
+            "ERROR_DESCRIPTION = IF(VALUES(VARIABLE_ID) > VARIABLE_ID, VALUES(ERROR_DESCRIPTION), ERROR_DESCRIPTION), " +
+            "VARIABLE_ID = GREATEST(VARIABLE_ID, VALUES(VARIABLE_ID))", nativeQuery = true)
+    int copyFromVariables(@Param("fromId") long fromVariableId, @Param("toId") long toVariableId);
+
+    @Query(value = "SELECT LAST_VARIABLE_ID, MAX_VARIABLE_ID FROM error_description_backfill WHERE COMPLETED = 0", nativeQuery = true)
+    List<Object[]> findPendingBackfill();
+
+    @Modifying
+    @Query(value = "UPDATE error_description_backfill SET LAST_VARIABLE_ID = :lastId, COMPLETED = :completed", nativeQuery = true)
+    int updateBackfill(@Param("lastId") long lastVariableId, @Param("completed") boolean completed);
+}
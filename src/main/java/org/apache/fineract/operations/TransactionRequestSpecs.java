@@ -34,20 +34,18 @@ public class TransactionRequestSpecs {
         return where((root, query, builder) -> builder.like(root.get(attribute.getName()), "%" + input + "%"));
     }
 
-    public static Specifications<TransactionRequest> filterByErrorDescription(List<String> errorDescriptions) {
-        return where(((root, query, cb) -> {
-            Join<Variable, TransactionRequest> txnVariables = root.join("variables");
-
-            Predicate a = cb.equal(txnVariables.get("name"), "errorDescription");
-
-            Path<String> group = txnVariables.get("value");
-            CriteriaBuilder.In<String> cr = cb.in(group);
-            for(String errorDesc: errorDescriptions) {
-                cr.value(errorDesc);
-            }
-
-            return cb.and(cr, a);
-        }));
+    /**
+     * Matches the transaction requests whose latest error description is one of the given ones, looked up on the
+     * indexed {@link TransactionRequestErrorDescription} instead of the variables.
+     */
+    public static Specifications<TransactionRequest> errorDescriptionIn(List<String> errorDescriptions) {
+        return where((root, query, cb) -> {
+            Subquery<String> workflowInstanceKeys = query.subquery(String.class);
+            Root<TransactionRequestErrorDescription> errorDescription = workflowInstanceKeys.from(TransactionRequestErrorDescription.class);
+            workflowInstanceKeys.select(errorDescription.get("workflowInstanceKey"))
+                    .where(errorDescription.get("errorDescription").in(errorDescriptions));
+            return root.get("workflowInstanceKey").in(workflowInstanceKeys);
+        });
     }
 
     /**
@@ -4,7 +4,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TransferRepository extends JpaRepository<Transfer, Long>, JpaSpecificationExecutor {
@@ -13,10 +16,17 @@ public interface TransferRepository extends JpaRepository<Transfer, Long>, JpaSp
 
     Transfer findFirstByTransactionIdAndDirection(String transactionId, String direction);
 
+    List<Transfer> findByTransactionIdInAndDirectionAndStatus(Collection<String> transactionIds, String direction, TransferStatus status);
+
     List<Transfer> findAllByBatchId(String batchId);
 
     Page<Transfer> findAllByBatchIdAndStatus(String batchId, String status, Pageable pageable);
 
     Page<Transfer> findAllByBatchId(String batchId, Pageable pageable);
 
+    @Query("SELECT new org.apache.fineract.operations.TransferStatusSummary(t.status, v.value, COUNT(t), SUM(t.amount)) " +
+            "FROM Transfer t LEFT JOIN Variable v ON v.workflowInstanceKey = t.workflowInstanceKey AND v.name = 'paymentMode' " +
+            "WHERE t.batchId = :batchId GROUP BY t.status, v.value")
+    List<TransferStatusSummary> summarizeByBatchId(@Param("batchId") String batchId);
+
 }
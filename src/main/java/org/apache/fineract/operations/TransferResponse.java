@@ -48,6 +48,45 @@ public class TransferResponse {
     private String createdBy;
     private String lastModifiedBy;
 
+    /**
+     * Maps the transfer into its response without going through json, only the error information is parsed.
+     */
+    public static TransferResponse from(Transfer transfer, ObjectMapper mapper) throws IOException {
+        TransferResponse response = new TransferResponse();
+        response.id = transfer.getId() != null ? transfer.getId().intValue() : 0;
+        response.workflowInstanceKey = transfer.getWorkflowInstanceKey();
+        response.transactionId = transfer.getTransactionId();
+        response.startedAt = transfer.getStartedAt();
+        response.completedAt = transfer.getCompletedAt();
+        response.status = transfer.getStatus();
+        response.statusDetail = transfer.getStatusDetail();
+        response.payeeDfspId = transfer.getPayeeDfspId();
+        response.payeePartyId = transfer.getPayeePartyId();
+        response.payeePartyIdType = transfer.getPayeePartyIdType();
+        response.payeeFee = transfer.getPayeeFee();
+        response.payeeFeeCurrency = transfer.getPayeeFeeCurrency();
+        response.payeeQuoteCode = transfer.getPayeeQuoteCode();
+        response.payerDfspId = transfer.getAmsBusinessShortCode();
+        response.payerPartyId = transfer.getPayerPartyId();
+        response.payerPartyIdType = transfer.getPayerPartyIdType();
+        response.payerFee = transfer.getPayerFee();
+        response.payerFeeCurrency = transfer.getPayerFeeCurrency();
+        response.payerQuoteCode = transfer.getPayerQuoteCode();
+        response.amount = transfer.getAmount();
+        response.currency = transfer.getCurrency();
+        response.direction = transfer.getDirection();
+        response.batchId = transfer.getBatchId();
+        response.clientCorrelationId = transfer.getClientCorrelationId();
+        response.createdDate = transfer.getCreatedDate();
+        response.lastModifiedDate = transfer.getLastModifiedDate();
+        response.createdBy = transfer.getCreatedBy();
+        response.lastModifiedBy = transfer.getLastModifiedBy();
+        if (transfer.getErrorInformation() != null && !transfer.getErrorInformation().isEmpty()) {
+            response.parseErrorInformation(transfer.getErrorInformation(), mapper);
+        }
+        return response;
+    }
+
     public void parseErrorInformation(String json, ObjectMapper mapper) throws IOException {
         try {
             this.errorInformation = mapper.readValue(json, PhErrorDTO.class);
@@ -0,0 +1,27 @@
+package org.apache.fineract.operations;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and amount of the transfers of a batch sharing the same status and payment mode.
+ */
+@Getter
+public class TransferStatusSummary {
+
+    private final TransferStatus status;
+
+    private final String paymentMode;
+
+    private final long count;
+
+    private final BigDecimal amount;
+
+    public TransferStatusSummary(TransferStatus status, String paymentMode, Long count, BigDecimal amount) {
+        this.status = status;
+        this.paymentMode = paymentMode;
+        this.count = count == null ? 0L : count;
+        this.amount = amount == null ? BigDecimal.ZERO : amount;
+    }
+}
@@ -0,0 +1,45 @@
+package org.apache.fineract.operations.backfill;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the error description backfill of every tenant, a bounded number of chunks per run.
+ */
+@Component
+@Slf4j
+public class ErrorDescriptionBackfillJob {
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private ErrorDescriptionBackfillService backfillService;
+
+    @Value("${error-description.backfill.chunks-per-run}")
+    private int chunksPerRun;
+
+    @Scheduled(fixedDelayString = "${error-description.backfill.interval-ms}",
+            initialDelayString = "${error-description.backfill.interval-ms}")
+    public void backfillTenants() {
+        for (TenantServerConnection tenant : repository.findAll()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                int chunks = 0;
+                while (chunks < chunksPerRun && backfillService.copyNextChunk()) {
+                    chunks++;
+                }
+            } catch (Exception e) {
+                log.error("Error when backfilling error descriptions of tenant: {}", tenant.getSchemaName(), e);
+            } finally {
+                ThreadLocalContextUtil.clear();
+            }
+        }
+    }
+}
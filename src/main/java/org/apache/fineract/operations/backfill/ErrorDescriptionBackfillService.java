@@ -0,0 +1,48 @@
+package org.apache.fineract.operations.backfill;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.operations.TransactionRequestErrorDescriptionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Copies the error descriptions of the variables written before the error description triggers existed,
+ * one id range at a time. The position is stored with every chunk so the copy resumes where it stopped.
+ */
+@Service
+@Slf4j
+public class ErrorDescriptionBackfillService {
+
+    @Autowired
+    private TransactionRequestErrorDescriptionRepository repository;
+
+    @Value("${error-description.backfill.chunk-size}")
+    private long chunkSize;
+
+    /**
+     * @return true if there are variables left to copy for the current tenant
+     */
+    @Transactional
+    public boolean copyNextChunk() {
+        List<Object[]> pending = repository.findPendingBackfill();
+        if (pending.isEmpty()) {
+            return false;
+        }
+        long lastVariableId = ((Number) pending.get(0)[0]).longValue();
+        long maxVariableId = ((Number) pending.get(0)[1]).longValue();
+        long toVariableId = Math.min(lastVariableId + chunkSize, maxVariableId);
+
+        int copied = repository.copyFromVariables(lastVariableId, toVariableId);
+        boolean completed = toVariableId >= maxVariableId;
+        repository.updateBackfill(toVariableId, completed);
+        log.debug("Copied {} error description(s) of variables {} to {}", copied, lastVariableId, toVariableId);
+        if (completed) {
+            log.info("Error description backfill completed at variable {}", toVariableId);
+        }
+        return !completed;
+    }
+}
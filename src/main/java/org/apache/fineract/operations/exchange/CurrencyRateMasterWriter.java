@@ -0,0 +1,59 @@
+package org.apache.fineract.operations.exchange;
+
+import org.apache.fineract.core.service.RoutingDataSource;
+import org.apache.fineract.data.IMUConversionData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Upserts the rate master data of the current tenant with a single batch statement keyed on the currency pair,
+ * a pair posted twice keeps the last rate.
+ */
+@Component
+public class CurrencyRateMasterWriter {
+
+    private static final String UPSERT_RATE = "INSERT INTO m_currency_rates "
+            + "(from_currency, to_currency, rate, last_updated, created_date, last_modified_date, created_by, last_modified_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE rate = VALUES(rate), last_updated = VALUES(last_updated), "
+            + "last_modified_date = VALUES(last_modified_date), last_modified_by = VALUES(last_modified_by)";
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+    }
+
+    @Transactional
+    public void upsert(List<IMUConversionData> exchangeRates) {
+        if (exchangeRates.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        String userName = currentUserName();
+        List<Object[]> rows = new ArrayList<>(exchangeRates.size());
+        for (IMUConversionData exchangeRate : exchangeRates) {
+            rows.add(new Object[]{exchangeRate.getFrom(), exchangeRate.getTo(), exchangeRate.getRate(), now, now, now,
+                    userName, userName});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_RATE, rows);
+    }
+
+    private String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package org.apache.fineract.operations.exchange;
+
+import org.apache.fineract.operations.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the rate master data of one tenant, replaced as a whole when the master data changes.
+ */
+public final class CurrencyRateSnapshot {
+
+    private final Map<String, BigDecimal> rates;
+    private final long loadedAt;
+
+    private CurrencyRateSnapshot(Map<String, BigDecimal> rates, long loadedAt) {
+        this.rates = rates;
+        this.loadedAt = loadedAt;
+    }
+
+    public static CurrencyRateSnapshot of(Iterable<CurrencyRate> currencyRates, long loadedAt) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (CurrencyRate currencyRate : currencyRates) {
+            rates.put(key(currencyRate.getFromCurrency(), currencyRate.getToCurrency()), currencyRate.getRate());
+        }
+        return new CurrencyRateSnapshot(Collections.unmodifiableMap(rates), loadedAt);
+    }
+
+    public BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return rates.get(key(fromCurrency, toCurrency));
+    }
+
+    public int size() {
+        return rates.size();
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    private static String key(String fromCurrency, String toCurrency) {
+        return fromCurrency + ">" + toCurrency;
+    }
+}
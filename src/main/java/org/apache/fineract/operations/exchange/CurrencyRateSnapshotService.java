@@ -0,0 +1,73 @@
+package org.apache.fineract.operations.exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.operations.CurrencyRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the rate master data of every tenant in memory so rate lookups do not touch the database. The snapshot of
+ * a tenant is loaded on first use and replaced atomically after the master data is changed through this instance,
+ * the time to live bounds how long a change made through another instance stays unseen.
+ */
+@Service
+public class CurrencyRateSnapshotService {
+
+    private final ConcurrentMap<Long, CurrencyRateSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CurrencyRateRepository currencyRateRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.imu.snapshot-ttl-seconds}")
+    private long ttlSeconds;
+
+    private Counter reloads;
+
+    @PostConstruct
+    public void registerMetrics() {
+        reloads = meterRegistry.counter("imu.rate.snapshot.reloads");
+    }
+
+    /**
+     * @return the rate of the current tenant, null when the pair has no master data
+     */
+    public BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return getSnapshot().getRate(fromCurrency, toCurrency);
+    }
+
+    public CurrencyRateSnapshot getSnapshot() {
+        Long tenantId = ThreadLocalContextUtil.getTenantId();
+        CurrencyRateSnapshot snapshot = snapshots.get(tenantId);
+        if (snapshot != null && snapshot.getLoadedAt() + TimeUnit.SECONDS.toMillis(ttlSeconds) > System.currentTimeMillis()) {
+            return snapshot;
+        }
+        return load(tenantId);
+    }
+
+    /**
+     * Reloads the snapshot of the current tenant, after its master data changed.
+     */
+    public CurrencyRateSnapshot refresh() {
+        return load(ThreadLocalContextUtil.getTenantId());
+    }
+
+    private CurrencyRateSnapshot load(Long tenantId) {
+        reloads.increment();
+        long startedAt = System.currentTimeMillis();
+        CurrencyRateSnapshot snapshot = CurrencyRateSnapshot.of(currencyRateRepository.findAll(), startedAt);
+        // a slower load that started earlier must not replace the snapshot of a later refresh
+        return snapshots.merge(tenantId, snapshot, (current, loaded) -> loaded.getLoadedAt() >= current.getLoadedAt() ? loaded : current);
+    }
+}
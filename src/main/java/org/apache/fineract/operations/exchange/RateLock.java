@@ -0,0 +1,38 @@
+package org.apache.fineract.operations.exchange;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.fineract.operations.CurrencyRateLock;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable copy of a rate lock as held by the {@link RateLockStore}, extending the lock creates a new copy.
+ */
+@Getter
+@AllArgsConstructor
+public class RateLock {
+
+    private final TenantServerConnection tenant;
+    private final String uniqueKey;
+    private final String fromCurrency;
+    private final String toCurrency;
+    private final BigDecimal rate;
+    private final Date expireBy;
+    private final String userName;
+
+    public static RateLock of(TenantServerConnection tenant, CurrencyRateLock lock) {
+        return new RateLock(tenant, lock.getUniqueKey(), lock.getFromCurrency(), lock.getToCurrency(), lock.getRate(),
+                lock.getExpireBy(), null);
+    }
+
+    public boolean isExpiredAtDate(Date date) {
+        return expireBy.before(date);
+    }
+
+    public RateLock withExpireBy(Date expireBy, String userName) {
+        return new RateLock(tenant, uniqueKey, fromCurrency, toCurrency, rate, expireBy, userName);
+    }
+}
@@ -0,0 +1,57 @@
+package org.apache.fineract.operations.exchange;
+
+import org.apache.fineract.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the rate locks of one tenant, the tenant has to be set on the calling thread. A lock is inserted once with
+ * its rate, later writes only move its expiry, so the rate of a lock key handed out never changes.
+ */
+@Component
+public class RateLockBatchWriter {
+
+    private static final String INSERT_LOCK = "INSERT INTO m_currency_rates_lock "
+            + "(unique_key, from_currency, to_currency, rate, expire_by, created_date, last_modified_date, created_by, last_modified_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXTEND_LOCK = "UPDATE m_currency_rates_lock "
+            + "SET expire_by = ?, last_modified_date = ?, last_modified_by = ? WHERE unique_key = ?";
+
+    @Autowired
+    private RoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+    }
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException when a lock with the unique key exists already
+     */
+    @Transactional
+    public void insert(RateLock lock) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.update(INSERT_LOCK, lock.getUniqueKey(), lock.getFromCurrency(), lock.getToCurrency(), lock.getRate(),
+                new Timestamp(lock.getExpireBy().getTime()), now, now, lock.getUserName(), lock.getUserName());
+    }
+
+    @Transactional
+    public void extend(List<RateLock> locks) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(locks.size());
+        for (RateLock lock : locks) {
+            rows.add(new Object[]{new Timestamp(lock.getExpireBy().getTime()), now, lock.getUserName(), lock.getUniqueKey()});
+        }
+        jdbcTemplate.batchUpdate(EXTEND_LOCK, rows);
+    }
+}
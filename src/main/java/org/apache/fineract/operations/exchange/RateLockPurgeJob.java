@@ -0,0 +1,45 @@
+package org.apache.fineract.operations.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the expired rate locks of every tenant, a bounded number of chunks per run keeps each run short.
+ */
+@Component
+@Slf4j
+public class RateLockPurgeJob {
+
+    @Autowired
+    private TenantServerConnectionRepository repository;
+
+    @Autowired
+    private RateLockPurgeService purgeService;
+
+    @Value("${config.imu.lock-purge.chunks-per-run}")
+    private int chunksPerRun;
+
+    @Scheduled(fixedDelayString = "${config.imu.lock-purge.interval-ms}",
+            initialDelayString = "${config.imu.lock-purge.interval-ms}")
+    public void purgeTenants() {
+        for (TenantServerConnection tenant : repository.findAll()) {
+            try {
+                ThreadLocalContextUtil.setTenant(tenant);
+                int chunks = 0;
+                while (chunks < chunksPerRun && purgeService.purgeNextChunk()) {
+                    chunks++;
+                }
+            } catch (Exception e) {
+                log.error("Error when purging expired rate locks of tenant: {}", tenant.getSchemaName(), e);
+            } finally {
+                ThreadLocalContextUtil.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.apache.fineract.operations.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fineract.operations.CurrencyRateLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the expired rate locks one chunk per transaction. Locks are kept for the grace period after they expire
+ * so a preview with an expired key is still answered as expired instead of unknown.
+ */
+@Service
+@Slf4j
+public class RateLockPurgeService {
+
+    @Autowired
+    private CurrencyRateLockRepository currencyRateLockRepository;
+
+    @Value("${config.imu.lock-purge.chunk-size}")
+    private int chunkSize;
+
+    @Value("${config.imu.lock-purge.grace-seconds}")
+    private long graceSeconds;
+
+    /**
+     * @return true if there may be expired locks left to delete for the current tenant
+     */
+    @Transactional
+    public boolean purgeNextChunk() {
+        Date expiredBefore = new Date(System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(graceSeconds));
+        int deleted = currencyRateLockRepository.deleteExpired(expiredBefore, chunkSize);
+        log.debug("Deleted {} rate lock(s) expired before {}", deleted, expiredBefore);
+        return deleted >= chunkSize;
+    }
+}
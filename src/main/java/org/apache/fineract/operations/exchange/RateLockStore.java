@@ -0,0 +1,189 @@
+package org.apache.fineract.operations.exchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.core.service.WriteBehindQueue;
+import org.apache.fineract.operations.CurrencyRateLock;
+import org.apache.fineract.operations.CurrencyRateLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the rate locks in memory. A new lock is inserted before its key is handed out, so a key taken by another
+ * instance fails the creation instead of getting a second rate. Extensions are persisted behind the request: they
+ * are queued and a background writer updates them in batches per tenant. A lock missing from memory, because it was
+ * created by another instance or evicted, is read from the database. When the queue is full the extension is
+ * written on the calling thread, the queue is drained before shutdown completes.
+ */
+@Service
+public class RateLockStore {
+
+    private final ConcurrentMap<String, RateLock> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CurrencyRateLockRepository currencyRateLockRepository;
+
+    @Autowired
+    private RateLockBatchWriter rateLockBatchWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.imu.lock-store.max-size}")
+    private int maxSize;
+
+    @Value("${config.imu.lock-store.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${config.imu.lock-store.batch-size}")
+    private int batchSize;
+
+    @Value("${config.imu.lock-store.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${config.imu.lock-store.shutdown-timeout-ms}")
+    private long shutdownTimeoutMs;
+
+    private WriteBehindQueue<RateLock> queue;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter written;
+    private Counter writtenInline;
+
+    @PostConstruct
+    public void start() {
+        hits = Counter.builder("imu.rate_lock.store").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("imu.rate_lock.store").tag("result", "miss").register(meterRegistry);
+        written = meterRegistry.counter("imu.rate_lock.write_behind.written");
+        writtenInline = meterRegistry.counter("imu.rate_lock.write_behind.inline");
+        queue = new WriteBehindQueue<>("rate-lock", queueCapacity, batchSize, flushIntervalMs, shutdownTimeoutMs,
+                RateLock::getTenant, this::extend, meterRegistry.counter("imu.rate_lock.write_behind.failed"));
+        meterRegistry.gauge("imu.rate_lock.write_behind.queue.size", queue, WriteBehindQueue::size);
+        meterRegistry.gauge("imu.rate_lock.store.size", locks, Map::size);
+        queue.start();
+    }
+
+    /**
+     * @return the lock of the current tenant, null when the key is unknown
+     */
+    public RateLock find(String uniqueKey) {
+        String key = key(uniqueKey);
+        RateLock lock = locks.get(key);
+        if (lock != null) {
+            hits.increment();
+            return lock;
+        }
+
+        misses.increment();
+        CurrencyRateLock persisted = currencyRateLockRepository.findOneByUniqueKey(uniqueKey);
+        if (persisted == null) {
+            return null;
+        }
+        lock = RateLock.of(ThreadLocalContextUtil.getTenant(), persisted);
+        // a lock saved meanwhile is newer than the row just read
+        RateLock current = cache(key, lock, false);
+        return current != null ? current : lock;
+    }
+
+    /**
+     * Creates a lock for the current tenant.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException when a lock with the unique key exists already
+     */
+    public RateLock create(String uniqueKey, String fromCurrency, String toCurrency, BigDecimal rate, Date expireBy) {
+        RateLock lock = new RateLock(ThreadLocalContextUtil.getTenant(), uniqueKey, fromCurrency, toCurrency, rate,
+                expireBy, currentUserName());
+        rateLockBatchWriter.insert(lock);
+        cache(key(uniqueKey), lock, true);
+        return lock;
+    }
+
+    /**
+     * Moves the expiry of the lock.
+     */
+    public RateLock extend(RateLock lock, Date expireBy) {
+        RateLock extended = lock.withExpireBy(expireBy, currentUserName());
+        save(extended);
+        return extended;
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, the tenant of the caller is kept.
+     */
+    public void flush() {
+        queue.flush();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    private void save(RateLock lock) {
+        cache(key(lock.getUniqueKey()), lock, true);
+        if (queue.isRunning() && queue.offer(lock)) {
+            return;
+        }
+        writtenInline.increment();
+        rateLockBatchWriter.extend(Collections.singletonList(lock));
+        written.increment();
+    }
+
+    /**
+     * @return the lock already cached under the key when the given one was not cached
+     */
+    private RateLock cache(String key, RateLock lock, boolean replace) {
+        if (locks.size() >= maxSize) {
+            Date now = new Date();
+            locks.values().removeIf(cached -> cached.isExpiredAtDate(now));
+        }
+        if (locks.size() >= maxSize && !locks.containsKey(key)) {
+            return null;
+        }
+        if (replace) {
+            locks.put(key, lock);
+            return null;
+        }
+        return locks.putIfAbsent(key, lock);
+    }
+
+    private void extend(List<RateLock> batch) {
+        // only the latest expiry of a lock extended several times within the batch is written
+        Map<String, RateLock> latest = new LinkedHashMap<>();
+        for (RateLock lock : batch) {
+            latest.put(lock.getUniqueKey(), lock);
+        }
+        rateLockBatchWriter.extend(new ArrayList<>(latest.values()));
+        written.increment(latest.size());
+    }
+
+    private String key(String uniqueKey) {
+        return ThreadLocalContextUtil.tenantScoped(uniqueKey);
+    }
+
+    private String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,133 @@
+package org.apache.fineract.operations.refund;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.fineract.core.http.ChannelConnectorClient;
+import org.apache.fineract.data.RefundOutcome;
+import org.apache.fineract.exception.ChannelConnectorException;
+import org.apache.fineract.exception.ChannelConnectorUnavailableException;
+import org.apache.fineract.operations.Transfer;
+import org.apache.fineract.operations.TransferRepository;
+import org.apache.fineract.operations.TransferStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Refunds many incoming transfers at once: the eligible transfers are loaded with one query and their channel
+ * connector requests are sent concurrently, at most the parallelism of them in flight per bulk refund. Every
+ * transaction id gets exactly one outcome, handed to the sink as soon as it is known.
+ */
+@Service
+@Slf4j
+public class BulkRefundService {
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private ChannelConnectorClient channelConnectorClient;
+
+    @Autowired
+    @Qualifier("refundDispatchExecutor")
+    private Executor refundDispatchExecutor;
+
+    @Value("${operations.bulk-refund.parallelism}")
+    private int parallelism;
+
+    @Value("${operations.bulk-refund.max-transactions}")
+    private int maxTransactions;
+
+    public int getMaxTransactions() {
+        return maxTransactions;
+    }
+
+    /**
+     * @param sink receives the outcomes one at a time, in completion order
+     */
+    public void refund(String tenantId, List<String> transactionIds, String comment, Consumer<RefundOutcome> sink) {
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String transactionId : transactionIds) {
+            if (StringUtils.isNotBlank(transactionId)) {
+                distinctIds.add(transactionId);
+            }
+        }
+        if (distinctIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Transfer> eligible = new HashMap<>();
+        for (Transfer transfer : transferRepository.findByTransactionIdInAndDirectionAndStatus(distinctIds, "INCOMING", TransferStatus.COMPLETED)) {
+            eligible.putIfAbsent(transfer.getTransactionId(), transfer);
+        }
+        log.info("Bulk refund of {} transaction(s), {} eligible", distinctIds.size(), eligible.size());
+
+        Consumer<RefundOutcome> serialSink = outcome -> {
+            synchronized (sink) {
+                sink.accept(outcome);
+            }
+        };
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<Void>> dispatched = new ArrayList<>(eligible.size());
+        try {
+            for (String transactionId : distinctIds) {
+                Transfer transfer = eligible.get(transactionId);
+                if (transfer == null) {
+                    serialSink.accept(new RefundOutcome(transactionId, RefundOutcome.Status.NOT_ELIGIBLE, null,
+                            "Requested incoming transfer does not exist or not yet completed!"));
+                    continue;
+                }
+                inFlight.acquire();
+                dispatched.add(dispatch(tenantId, transfer, comment, serialSink).whenComplete((r, e) -> inFlight.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Bulk refund interrupted, {} refund(s) already dispatched are completed", dispatched.size());
+        } finally {
+            CompletableFuture.allOf(dispatched.toArray(new CompletableFuture[0])).join();
+        }
+    }
+
+    private CompletableFuture<Void> dispatch(String tenantId, Transfer transfer, String comment, Consumer<RefundOutcome> sink) {
+        Runnable refund = () -> sink.accept(send(tenantId, transfer, comment));
+        try {
+            return CompletableFuture.runAsync(refund, refundDispatchExecutor);
+        } catch (RejectedExecutionException e) {
+            log.debug("refund dispatch executor saturated, sending refund on the request thread");
+            refund.run();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private RefundOutcome send(String tenantId, Transfer transfer, String comment) {
+        String transactionId = transfer.getTransactionId();
+        try {
+            String channelRequest = RefundRequests.channelRequest(transfer, comment).toString();
+            ResponseEntity<String> response = channelConnectorClient.postTransfer(tenantId, channelRequest);
+            RefundOutcome.Status status = response.getStatusCode().is2xxSuccessful()
+                    ? RefundOutcome.Status.SUBMITTED : RefundOutcome.Status.FAILED;
+            return new RefundOutcome(transactionId, status, response.getStatusCodeValue(), response.getBody());
+        } catch (ChannelConnectorUnavailableException e) {
+            return new RefundOutcome(transactionId, RefundOutcome.Status.UNAVAILABLE, null, e.getMessage());
+        } catch (ChannelConnectorException e) {
+            return new RefundOutcome(transactionId, RefundOutcome.Status.UNKNOWN, null, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Refund of transaction {} failed", transactionId, e);
+            return new RefundOutcome(transactionId, RefundOutcome.Status.UNKNOWN, null, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.apache.fineract.operations.refund;
+
+import org.apache.fineract.operations.Transfer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Builds the channel connector transfer request refunding an incoming transfer, payer and payee swapped.
+ */
+public final class RefundRequests {
+
+    private RefundRequests() {
+    }
+
+    public static JSONObject channelRequest(Transfer incomingTransfer, String comment) {
+        JSONObject channelRequest = new JSONObject();
+        JSONObject payer = new JSONObject();
+        JSONObject payerPartyIdInfo = new JSONObject();
+        payerPartyIdInfo.put("partyIdType", incomingTransfer.getPayeePartyIdType());
+        payerPartyIdInfo.put("partyIdentifier", incomingTransfer.getPayeePartyId());
+        payer.put("partyIdInfo", payerPartyIdInfo);
+        channelRequest.put("payer", payer);
+        JSONObject payee = new JSONObject();
+        JSONObject payeePartyIdInfo = new JSONObject();
+        payeePartyIdInfo.put("partyIdType", incomingTransfer.getPayerPartyIdType());
+        payeePartyIdInfo.put("partyIdentifier", incomingTransfer.getPayerPartyId());
+        payee.put("partyIdInfo", payeePartyIdInfo);
+        channelRequest.put("payee", payee);
+        JSONObject amount = new JSONObject();
+        amount.put("amount", incomingTransfer.getAmount());
+        amount.put("currency", incomingTransfer.getCurrency());
+        channelRequest.put("amount", amount);
+        if (comment != null) {
+            JSONObject extensionList = new JSONObject();
+            JSONArray extensions = new JSONArray();
+            addExtension(extensions, "comment", comment);
+            extensionList.put("extension", extensions);
+            channelRequest.put("extensionList", extensionList);
+        }
+        return channelRequest;
+    }
+
+    private static void addExtension(JSONArray extensionList, String key, String value) {
+        JSONObject extension = new JSONObject();
+        extension.put("key", key);
+        extension.put("value", value);
+        extensionList.put(extension);
+    }
+}
@@ -18,18 +18,39 @@
  */
 package org.apache.fineract.organisation.permission;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
+import static org.apache.fineract.config.CacheConfig.CACHE_PERMISSIONS;
+import static org.apache.fineract.config.CacheConfig.CACHE_USER_BY_NAME;
+
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
 
     Permission findOneByCode(String code);
+
+    @Cacheable(cacheNames = CACHE_PERMISSIONS, key = "'entityNames'")
     @Query("SELECT DISTINCT p.entityName FROM Permission p")
     List<String> findDistinctEntityName();
 
+    @Cacheable(cacheNames = CACHE_PERMISSIONS, key = "'actionNames'")
     @Query("SELECT DISTINCT p.actionName FROM Permission p")
     List<String> findDistinctActionNames();
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_PERMISSIONS, allEntries = true),
+            @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)})
+    <S extends Permission> S saveAndFlush(S entity);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE_PERMISSIONS, allEntries = true),
+            @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)})
+    void deleteById(Long id);
 }
@@ -18,14 +18,26 @@
  */
 package org.apache.fineract.organisation.role;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import static org.apache.fineract.config.CacheConfig.CACHE_USER_BY_NAME;
+
 public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
     
     @Query("SELECT role FROM Role role WHERE role.name = :name")
     Role getRoleByName(@Param("name") String name);
+
+    // the cached users carry their roles
+    @Override
+    @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)
+    <S extends Role> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)
+    void deleteById(Long id);
   
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.Table;
+import java.util.Objects;
 
 @Entity
 @Table(name = "tenant_server_connections")
@@ -49,6 +50,27 @@ public class TenantServerConnection extends AbstractPersistableCustom<Long> {
     @Column(name = "auto_update")
     private boolean autoUpdateEnabled;
 
+    @Column(name = "pool_maximum_size")
+    private Integer poolMaximumSize;
+
+    @Column(name = "pool_minimum_idle")
+    private Integer poolMinimumIdle;
+
+    @Column(name = "replica_server")
+    private String replicaServer;
+
+    @Column(name = "replica_server_port")
+    private String replicaServerPort;
+
+    @Column(name = "replica_username")
+    private String replicaUsername;
+
+    @Column(name = "replica_password")
+    private String replicaPassword;
+
+    @Column(name = "replica_max_lag_seconds")
+    private Integer replicaMaxLagSeconds;
+
     public TenantServerConnection() {}
 
     public String getSchemaServer() {
@@ -98,4 +120,81 @@ public class TenantServerConnection extends AbstractPersistableCustom<Long> {
     public void setAutoUpdateEnabled(boolean autoUpdateEnabled) {
         this.autoUpdateEnabled = autoUpdateEnabled;
     }
+
+    public Integer getPoolMaximumSize() {
+        return poolMaximumSize;
+    }
+
+    public void setPoolMaximumSize(Integer poolMaximumSize) {
+        this.poolMaximumSize = poolMaximumSize;
+    }
+
+    public Integer getPoolMinimumIdle() {
+        return poolMinimumIdle;
+    }
+
+    public void setPoolMinimumIdle(Integer poolMinimumIdle) {
+        this.poolMinimumIdle = poolMinimumIdle;
+    }
+
+    public String getReplicaServer() {
+        return replicaServer;
+    }
+
+    public void setReplicaServer(String replicaServer) {
+        this.replicaServer = replicaServer;
+    }
+
+    public String getReplicaServerPort() {
+        return replicaServerPort;
+    }
+
+    public void setReplicaServerPort(String replicaServerPort) {
+        this.replicaServerPort = replicaServerPort;
+    }
+
+    public String getReplicaUsername() {
+        return replicaUsername;
+    }
+
+    public void setReplicaUsername(String replicaUsername) {
+        this.replicaUsername = replicaUsername;
+    }
+
+    public String getReplicaPassword() {
+        return replicaPassword;
+    }
+
+    public void setReplicaPassword(String replicaPassword) {
+        this.replicaPassword = replicaPassword;
+    }
+
+    public Integer getReplicaMaxLagSeconds() {
+        return replicaMaxLagSeconds;
+    }
+
+    public void setReplicaMaxLagSeconds(Integer replicaMaxLagSeconds) {
+        this.replicaMaxLagSeconds = replicaMaxLagSeconds;
+    }
+
+    public boolean hasReplica() {
+        return replicaServer != null && !replicaServer.isEmpty();
+    }
+
+    /**
+     * @return true when the pools created from the other connection can be used for this one
+     */
+    public boolean hasSameConnectionDetails(TenantServerConnection other) {
+        return Objects.equals(schemaServer, other.schemaServer)
+                && Objects.equals(schemaServerPort, other.schemaServerPort)
+                && Objects.equals(schemaUsername, other.schemaUsername)
+                && Objects.equals(schemaPassword, other.schemaPassword)
+                && Objects.equals(poolMaximumSize, other.poolMaximumSize)
+                && Objects.equals(poolMinimumIdle, other.poolMinimumIdle)
+                && Objects.equals(replicaServer, other.replicaServer)
+                && Objects.equals(replicaServerPort, other.replicaServerPort)
+                && Objects.equals(replicaUsername, other.replicaUsername)
+                && Objects.equals(replicaPassword, other.replicaPassword)
+                && Objects.equals(replicaMaxLagSeconds, other.replicaMaxLagSeconds);
+    }
 }
@@ -27,7 +27,6 @@ import org.apache.fineract.organisation.permission.Permission;
 import org.apache.fineract.organisation.role.Role;
 import org.apache.fineract.organisation.staff.Staff;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.*;
@@ -86,6 +85,10 @@ public class AppUser extends AbstractPersistableCustom<Long> implements UserDeta
     @ToString.Exclude
     private Collection<Role> roles;
 
+    @Transient
+    @ToString.Exclude
+    private transient volatile AuthoritySnapshot authoritySnapshot;
+
     @Column(name = "last_time_password_updated")
     @Temporal(TemporalType.DATE)
     private Date lastTimePasswordUpdated;
@@ -164,24 +167,41 @@ public class AppUser extends AbstractPersistableCustom<Long> implements UserDeta
         }
     }
 
+    /**
+     * Authorities taken from the snapshot set when the user was loaded, the roles are only walked for a user
+     * without one.
+     */
     @Override
     @JsonIgnore
     public Collection<GrantedAuthority> getAuthorities() {
-        List<Permission> finalPermissions = new ArrayList<>();
+        AuthoritySnapshot snapshot = this.authoritySnapshot;
+        if (snapshot == null) {
+            snapshot = AuthoritySnapshot.of(collectPermissionCodes());
+            this.authoritySnapshot = snapshot;
+        }
+        return snapshot.getAuthorities();
+    }
+
+    @JsonIgnore
+    public boolean hasPermission(String code) {
+        getAuthorities();
+        return this.authoritySnapshot.hasPermission(code);
+    }
+
+    public void setAuthoritySnapshot(AuthoritySnapshot authoritySnapshot) {
+        this.authoritySnapshot = authoritySnapshot;
+    }
+
+    private Set<String> collectPermissionCodes() {
+        Set<String> codes = new HashSet<>();
         for (final Role role : this.getRoles()) {
             if (!role.getDisabled()) {
-                final Collection<Permission> permissions = role.getPermissions();
-                for (final Permission permission : permissions) {
-                    if (!finalPermissions.contains(permission)) {
-                        finalPermissions.add(permission);
-                    }
+                for (final Permission permission : role.getPermissions()) {
+                    codes.add(permission.getCode());
                 }
             }
         }
-
-        return finalPermissions.stream()
-                .map(p -> new SimpleGrantedAuthority(p.getCode()))
-                .collect(Collectors.toList());
+        return codes;
     }
 
     @Override
@@ -303,6 +323,7 @@ public class AppUser extends AbstractPersistableCustom<Long> implements UserDeta
 
     public void setRoles(Collection<Role> roles) {
         this.roles = roles;
+        this.authoritySnapshot = null;
     }
 
     public Date getLastTimePasswordUpdated() {
@@ -18,6 +18,7 @@
  */
 package org.apache.fineract.organisation.user;
 
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -25,6 +26,8 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
+import static org.apache.fineract.config.CacheConfig.CACHE_USER_BY_NAME;
+
 public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpecificationExecutor<AppUser> {
 
     @Query("Select appUser from AppUser appUser where appUser.username = :username")
@@ -32,4 +35,16 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpec
 
     @Query("Select new org.apache.fineract.organisation.user.UserDto(appUser.id, appUser.username) from AppUser appUser")
     List<UserDto> findAllUsers();
+
+    @Query("SELECT DISTINCT p.code FROM AppUser appUser JOIN appUser.roles r JOIN r.permissions p "
+            + "WHERE appUser.id = :userId AND r.disabled = false")
+    List<String> findPermissionCodes(@Param("userId") Long userId);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)
+    <S extends AppUser> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE_USER_BY_NAME, allEntries = true)
+    void deleteById(Long id);
 }
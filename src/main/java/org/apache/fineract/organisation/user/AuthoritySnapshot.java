@@ -0,0 +1,46 @@
+package org.apache.fineract.organisation.user;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of the permission codes granted to a user through its enabled roles.
+ */
+public final class AuthoritySnapshot {
+
+    private final Set<String> codes;
+    private final Collection<GrantedAuthority> authorities;
+
+    private AuthoritySnapshot(Collection<String> permissionCodes) {
+        Set<String> distinctCodes = new HashSet<>(permissionCodes);
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>(distinctCodes.size());
+        for (String code : distinctCodes) {
+            grantedAuthorities.add(new SimpleGrantedAuthority(code));
+        }
+        this.codes = Collections.unmodifiableSet(distinctCodes);
+        this.authorities = Collections.unmodifiableList(grantedAuthorities);
+    }
+
+    public static AuthoritySnapshot of(Collection<String> permissionCodes) {
+        return new AuthoritySnapshot(permissionCodes);
+    }
+
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasPermission(String code) {
+        return codes.contains(code);
+    }
+
+    public Set<String> getCodes() {
+        return codes;
+    }
+}
@@ -0,0 +1,95 @@
+package org.apache.fineract.utils;
+
+import org.apache.fineract.data.ErrorCode;
+import org.apache.fineract.exception.WriteToCsvException;
+import org.supercsv.io.CsvBeanWriter;
+import org.supercsv.io.ICsvBeanWriter;
+import org.supercsv.prefs.CsvPreference;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Writer;
+
+import static org.apache.fineract.utils.CsvWriter.performErrorProneTask;
+
+/**
+ * csv writer writing POJOs one by one into the HttpServletResponse or any other writer, without holding them in memory.
+ * The response is only opened with the first row, so an empty result can still be answered with an error.
+ * @param <T> generic type representing the data type of POJO
+ */
+public class CsvStreamWriter<T> {
+
+    private final HttpServletResponse response;
+    private final Writer writer;
+    private final String filename;
+    private final String[] nameMapping;
+    private ICsvBeanWriter iCsvBeanWriter;
+    private long rowCount;
+
+    public CsvStreamWriter(HttpServletResponse response, Class<T> pojoClass, String filename) {
+        this.response = response;
+        this.writer = null;
+        this.filename = filename;
+        this.nameMapping = CsvWriter.generateNameMapping(pojoClass);
+    }
+
+    public CsvStreamWriter(Writer writer, Class<T> pojoClass) {
+        this.response = null;
+        this.writer = writer;
+        this.filename = null;
+        this.nameMapping = CsvWriter.generateNameMapping(pojoClass);
+    }
+
+    /**
+     * writes a single row, writing the headers first if it is the first one
+     * @param data the object to be translated into a row in csv
+     * @throws WriteToCsvException @see [performErrorProneTask]
+     */
+    public void write(T data) throws WriteToCsvException {
+        if (iCsvBeanWriter == null) {
+            open();
+        }
+        performErrorProneTask(
+                new WriteToCsvException(ErrorCode.CSV_WRITE_DATA, "Unable to write csv data"),
+                () -> {
+                    iCsvBeanWriter.write(data, nameMapping);
+                    return null;
+                });
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Flushes and closes the underlying stream, if any row was written
+     * @throws WriteToCsvException @see [performErrorProneTask]
+     */
+    public void close() throws WriteToCsvException {
+        if (iCsvBeanWriter == null) {
+            return;
+        }
+        performErrorProneTask(
+                new WriteToCsvException(ErrorCode.CSV_STREAM, "Unable to close/flush stream"),
+                () -> {
+                    iCsvBeanWriter.close();
+                    return null;
+                });
+    }
+
+    private void open() throws WriteToCsvException {
+        if (response != null) {
+            response.setContentType("text/csv");
+            response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+        }
+        iCsvBeanWriter = performErrorProneTask(
+                new WriteToCsvException(ErrorCode.CSV_GET_WRITER, "Unable get writer from HttpServletResponse"),
+                () -> new CsvBeanWriter(response != null ? response.getWriter() : writer, CsvPreference.STANDARD_PREFERENCE));
+        performErrorProneTask(
+                new WriteToCsvException(ErrorCode.CSV_WRITE_HEADER, "Unable to write csv headers"),
+                () -> {
+                    iCsvBeanWriter.writeHeader(CsvWriter.getCsvHeader(nameMapping));
+                    return null;
+                });
+    }
+}
@@ -125,7 +125,7 @@ public class CsvWriter<T> {
      * creates the csv header based on the fields provided
      * @return csv header of type String array
      */
-    private static String[] getCsvHeader(String[] fields) {
+    static String[] getCsvHeader(String[] fields) {
         String[] csvHeader = new String[fields.length];
         for (int i = 0; i < fields.length; i++) {
             csvHeader[i] = fields[i].toUpperCase();
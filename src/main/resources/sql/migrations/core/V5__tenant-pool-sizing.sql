@@ -0,0 +1,4 @@
+ALTER TABLE tenant_server_connections
+    ADD COLUMN pool_maximum_size INT NULL;
+ALTER TABLE tenant_server_connections
+    ADD COLUMN pool_minimum_idle INT NULL;
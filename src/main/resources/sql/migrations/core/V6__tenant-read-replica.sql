@@ -0,0 +1,10 @@
+ALTER TABLE tenant_server_connections
+    ADD COLUMN replica_server VARCHAR(100) NULL;
+ALTER TABLE tenant_server_connections
+    ADD COLUMN replica_server_port VARCHAR(10) NULL;
+ALTER TABLE tenant_server_connections
+    ADD COLUMN replica_username VARCHAR(100) NULL;
+ALTER TABLE tenant_server_connections
+    ADD COLUMN replica_password VARCHAR(100) NULL;
+ALTER TABLE tenant_server_connections
+    ADD COLUMN replica_max_lag_seconds INT NULL;
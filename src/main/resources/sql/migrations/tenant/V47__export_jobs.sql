@@ -0,0 +1,18 @@
+CREATE TABLE `export_jobs` (
+    `ID` bigint(20) NOT NULL AUTO_INCREMENT,
+    `JOB_ID` varchar(64) NOT NULL,
+    `ENTITY_NAME` varchar(100) NOT NULL,
+    `STATUS` varchar(20) NOT NULL,
+    `ROW_COUNT` bigint(20) DEFAULT NULL,
+    `FILE_LOCATION` varchar(1024) DEFAULT NULL,
+    `ERROR_MESSAGE` varchar(1024) DEFAULT NULL,
+    `SUBMITTED_AT` datetime DEFAULT NULL,
+    `STARTED_AT` datetime DEFAULT NULL,
+    `COMPLETED_AT` datetime DEFAULT NULL,
+    `created_date` TIMESTAMP NULL,
+    `last_modified_date` TIMESTAMP NULL,
+    `created_by` VARCHAR(255),
+    `last_modified_by` VARCHAR(255),
+    PRIMARY KEY (`ID`),
+    UNIQUE KEY `uk_export_jobs_job_id` (`JOB_ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
@@ -0,0 +1,19 @@
+-- batch details, batch summary and batch status pages
+CREATE INDEX `idx_transfers_batch_id_status` ON `transfers` (`BATCH_ID`, `STATUS`);
+-- refund lookup of the incoming transfer
+CREATE INDEX `idx_transfers_transaction_id_direction` ON `transfers` (`TRANSACTION_ID`, `DIRECTION`);
+-- /transfers filters, STARTED_AT follows STATUS so the default sort is read from the index
+CREATE INDEX `idx_transfers_status_started_at` ON `transfers` (`STATUS`, `STARTED_AT`);
+CREATE INDEX `idx_transfers_payer_party_id` ON `transfers` (`PAYER_PARTY_ID`);
+CREATE INDEX `idx_transfers_payee_party_id` ON `transfers` (`PAYEE_PARTY_ID`);
+CREATE INDEX `idx_transfers_client_correlation_id` ON `transfers` (`CLIENTCORRELATIONID`);
+
+-- /transactionRequests filters and exports
+CREATE INDEX `idx_transaction_requests_transaction_id` ON `transaction_requests` (`TRANSACTION_ID`);
+CREATE INDEX `idx_transaction_requests_state_started_at` ON `transaction_requests` (`STATE`, `STARTED_AT`);
+CREATE INDEX `idx_transaction_requests_payer_party_id` ON `transaction_requests` (`PAYER_PARTY_ID`);
+CREATE INDEX `idx_transaction_requests_payee_party_id` ON `transaction_requests` (`PAYEE_PARTY_ID`);
+CREATE INDEX `idx_transaction_requests_client_correlation_id` ON `transaction_requests` (`CLIENTCORRELATIONID`);
+
+-- variable lookups by name of a workflow instance, e.g. the payment mode of the batch summary
+CREATE INDEX `idx_variables_key_name` ON `variables` (`WORKFLOW_INSTANCE_KEY`, `NAME`);
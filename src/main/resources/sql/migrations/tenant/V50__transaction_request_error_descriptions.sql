@@ -0,0 +1,38 @@
+CREATE TABLE `transaction_request_error_descriptions` (
+  `WORKFLOW_INSTANCE_KEY` bigint(20) NOT NULL,
+  `ERROR_DESCRIPTION` varchar(512) DEFAULT NULL,
+  `VARIABLE_ID` bigint(20) NOT NULL,
+  PRIMARY KEY (`WORKFLOW_INSTANCE_KEY`),
+  KEY `idx_error_descriptions_description` (`ERROR_DESCRIPTION`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+-- variables are written by the exporter, the triggers keep the latest error description of each workflow instance.
+-- The migration user needs the TRIGGER privilege on the tenant schema. Every insert and update of a variable by the
+-- exporter runs the trigger, only errorDescription variables cost an additional write.
+CREATE TRIGGER `trg_variables_error_description_insert` AFTER INSERT ON `variables` FOR EACH ROW
+INSERT INTO `transaction_request_error_descriptions` (`WORKFLOW_INSTANCE_KEY`, `ERROR_DESCRIPTION`, `VARIABLE_ID`)
+SELECT NEW.`WORKFLOW_INSTANCE_KEY`, LEFT(TRIM(BOTH '"' FROM NEW.`VALUE`), 512), NEW.`ID` FROM DUAL
+WHERE NEW.`NAME` = 'errorDescription' AND NEW.`WORKFLOW_INSTANCE_KEY` IS NOT NULL
+ON DUPLICATE KEY UPDATE
+    `ERROR_DESCRIPTION` = IF(VALUES(`VARIABLE_ID`) > `VARIABLE_ID`, VALUES(`ERROR_DESCRIPTION`), `ERROR_DESCRIPTION`),
+    `VARIABLE_ID` = GREATEST(`VARIABLE_ID`, VALUES(`VARIABLE_ID`));
+
+CREATE TRIGGER `trg_variables_error_description_update` AFTER UPDATE ON `variables` FOR EACH ROW
+INSERT INTO `transaction_request_error_descriptions` (`WORKFLOW_INSTANCE_KEY`, `ERROR_DESCRIPTION`, `VARIABLE_ID`)
+SELECT NEW.`WORKFLOW_INSTANCE_KEY`, LEFT(TRIM(BOTH '"' FROM NEW.`VALUE`), 512), NEW.`ID` FROM DUAL
+WHERE NEW.`NAME` = 'errorDescription' AND NEW.`WORKFLOW_INSTANCE_KEY` IS NOT NULL
+ON DUPLICATE KEY UPDATE
+    `ERROR_DESCRIPTION` = IF(VALUES(`VARIABLE_ID`) >= `VARIABLE_ID`, VALUES(`ERROR_DESCRIPTION`), `ERROR_DESCRIPTION`),
+    `VARIABLE_ID` = GREATEST(`VARIABLE_ID`, VALUES(`VARIABLE_ID`));
+
+-- progress of copying the error descriptions of the variables written before the triggers
+CREATE TABLE `error_description_backfill` (
+  `ID` int(11) NOT NULL,
+  `LAST_VARIABLE_ID` bigint(20) NOT NULL,
+  `MAX_VARIABLE_ID` bigint(20) NOT NULL,
+  `COMPLETED` tinyint(1) NOT NULL,
+  PRIMARY KEY (`ID`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+INSERT INTO `error_description_backfill` (`ID`, `LAST_VARIABLE_ID`, `MAX_VARIABLE_ID`, `COMPLETED`)
+SELECT 1, 0, COALESCE(MAX(`ID`), 0), 0 FROM `variables`;
@@ -0,0 +1,16 @@
+-- partitioned tables can not have foreign keys and every unique key has to contain the partitioning column
+ALTER TABLE m_audit_source DROP FOREIGN KEY fk_audit_source_maker;
+ALTER TABLE m_audit_source DROP PRIMARY KEY, ADD PRIMARY KEY (id, made_on_date);
+
+CREATE INDEX idx_audit_source_made_on_date ON m_audit_source (made_on_date);
+CREATE INDEX idx_audit_source_entity_name ON m_audit_source (entity_name, made_on_date);
+CREATE INDEX idx_audit_source_action_name ON m_audit_source (action_name, made_on_date);
+CREATE INDEX idx_audit_source_maker ON m_audit_source (maker_id, made_on_date);
+CREATE INDEX idx_audit_source_resource_id ON m_audit_source (resource_id);
+
+-- everything up to the first monthly partition stays in p_history, the monthly partitions are split off p_future
+-- ahead of time by AuditPartitionService
+ALTER TABLE m_audit_source PARTITION BY RANGE (UNIX_TIMESTAMP(made_on_date)) (
+    PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,2 @@
+-- expired rate locks are purged in chunks ordered by their expiry
+ALTER TABLE `m_currency_rates_lock` ADD INDEX `idx_currency_rates_lock_expire_by` (`expire_by`);
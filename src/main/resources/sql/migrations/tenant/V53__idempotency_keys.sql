@@ -0,0 +1,14 @@
+-- responses of idempotent writes, a row without status code is a request still in progress
+CREATE TABLE `m_idempotency_key` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `idempotency_key` varchar(128) NOT NULL,
+  `operation` varchar(255) NOT NULL,
+  `request_hash` char(64) NOT NULL,
+  `status_code` int(11) DEFAULT NULL,
+  `response_body` mediumtext,
+  `created_date` datetime NOT NULL,
+  `expires_at` datetime NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_idempotency_key_operation` (`idempotency_key`, `operation`),
+  KEY `idx_idempotency_key_expires_at` (`expires_at`)
+);
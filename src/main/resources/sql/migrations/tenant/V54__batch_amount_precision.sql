@@ -0,0 +1,8 @@
+-- batch amounts are sums of transfer amounts, keep their fractional part
+ALTER TABLE `batches`
+MODIFY COLUMN `TOTAL_AMOUNT` decimal(38,4) DEFAULT NULL,
+MODIFY COLUMN `ONGOING_AMOUNT` decimal(38,4) DEFAULT NULL,
+MODIFY COLUMN `FAILED_AMOUNT` decimal(38,4) DEFAULT NULL,
+MODIFY COLUMN `COMPLETED_AMOUNT` decimal(38,4) DEFAULT NULL,
+-- bumped by every counter update, a recount only stores its result when no update happened since it started
+ADD COLUMN `STATISTICS_VERSION` bigint(20) NOT NULL DEFAULT 0;
@@ -0,0 +1,102 @@
+package org.apache.fineract.api;
+
+import org.apache.fineract.batch.service.BatchStatisticsService;
+import org.apache.fineract.batch.service.BatchSummaryCache;
+import org.apache.fineract.file.FileTransferService;
+import org.apache.fineract.operations.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchApiTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    @Mock
+    private FileTransferService fileTransferService;
+
+    @Mock
+    private BatchStatisticsService batchStatisticsService;
+
+    @Mock
+    private BatchSummaryCache batchSummaryCache;
+
+    @InjectMocks
+    private BatchApi batchApi;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(batchSummaryCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<BatchDTO>) invocation.getArgument(2)).get());
+    }
+
+    private Batch batch(String batchId) {
+        Batch batch = new Batch();
+        batch.setBatchId(batchId);
+        batch.setResult_file("https://bucket/result.csv");
+        batch.setTotalTransactions(6L);
+        batch.setCompleted(3L);
+        batch.setFailed(1L);
+        batch.setOngoing(2L);
+        batch.setTotalAmount(new BigDecimal("60"));
+        batch.setCompletedAmount(new BigDecimal("30"));
+        batch.setFailedAmount(new BigDecimal("10"));
+        batch.setOngoingAmount(new BigDecimal("20"));
+        batch.setResultGeneratedAt(new Date());
+        return batch;
+    }
+
+    // Serves the stored counters of a fresh batch without recomputing them
+    @Test
+    void test_batch_details_from_fresh_counters() {
+        Batch batch = batch("batch1");
+        when(batchRepository.findByBatchId("batch1")).thenReturn(batch);
+        when(batchRepository.findAllByBatchId("batch1")).thenReturn(Collections.singletonList(batch));
+        when(batchStatisticsService.isStale(batch)).thenReturn(false);
+
+        BatchDTO response = batchApi.batchDetails("batch1", null);
+
+        assertEquals(6L, response.getTotal());
+        assertEquals(3L, response.getSuccessful());
+        assertEquals(new BigDecimal("60"), response.getTotalAmount());
+        assertEquals(new BigDecimal("30"), response.getSuccessfulAmount());
+        verify(batchStatisticsService, never()).refresh(any(Batch.class));
+        verify(transferRepository, never()).findAllByBatchId(anyString());
+    }
+
+    // Recomputes the counters of a stale batch before building the summary
+    @Test
+    void test_batch_details_refreshes_stale_counters() {
+        Batch stale = batch("batch2");
+        stale.setCompleted(0L);
+        Batch refreshed = batch("batch2");
+        when(batchRepository.findByBatchId("batch2")).thenReturn(stale);
+        when(batchRepository.findAllByBatchId("batch2")).thenReturn(Collections.singletonList(refreshed));
+        when(batchStatisticsService.isStale(stale)).thenReturn(true);
+        when(batchStatisticsService.refresh(stale)).thenReturn(refreshed);
+
+        BatchDTO response = batchApi.batchDetails("batch2", null);
+
+        assertEquals(3L, response.getSuccessful());
+        verify(batchStatisticsService).refresh(stale);
+    }
+}
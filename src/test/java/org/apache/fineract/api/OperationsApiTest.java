@@ -1,5 +1,8 @@
 package org.apache.fineract.api;
 
+import org.apache.fineract.core.http.ChannelConnectorClient;
+import org.apache.fineract.core.idempotency.IdempotencyService;
+import org.apache.fineract.core.idempotency.IdempotentResponse;
 import org.apache.fineract.operations.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,20 +12,22 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.web.client.RestTemplate;
 
 import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -49,20 +54,22 @@ class OperationsApiTest {
     private BatchRepository batchRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private ChannelConnectorClient channelConnectorClient;
 
-    @Value("${channel-connector.url}")
-    private String channelConnectorUrl;
-
-    @Value("${channel-connector.transfer-path}")
-    private String channelConnectorTransferPath;
+    @Mock
+    private IdempotencyService idempotencyService;
 
     @InjectMocks
     private OperationsApi operationsApi;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        Field executor = OperationsApi.class.getDeclaredField("detailQueryExecutor");
+        executor.setAccessible(true);
+        executor.set(operationsApi, (Executor) Runnable::run);
+        when(idempotencyService.execute(any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<IdempotentResponse>) invocation.getArgument(3)).get());
     }
 
     // Successfully refunds a completed incoming transfer
@@ -87,16 +94,11 @@ class OperationsApiTest {
         when(transferRepository.findFirstByTransactionIdAndDirection(transactionId, "INCOMING"))
                 .thenReturn(existingIncomingTransfer);
 
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add("Platform-TenantId", tenantId);
-        httpHeaders.add("Content-Type", "application/json");
-
         ResponseEntity<String> channelResponse = new ResponseEntity<>("{\"status\":\"success\"}", HttpStatus.OK);
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(String.class)))
-                .thenReturn(channelResponse);
+        when(channelConnectorClient.postTransfer(eq(tenantId), anyString())).thenReturn(channelResponse);
 
         // Act
-        String result = operationsApi.refundTransfer(tenantId, transactionId, requestBody, response);
+        String result = operationsApi.refundTransfer(tenantId, null, transactionId, requestBody, response);
 
         // Assert
         assertEquals("{\"status\":\"success\"}", result);
@@ -116,7 +118,7 @@ class OperationsApiTest {
                 .thenReturn(null);
 
         // Act
-        String result = operationsApi.refundTransfer(tenantId, transactionId, requestBody, response);
+        String result = operationsApi.refundTransfer(tenantId, null, transactionId, requestBody, response);
 
         // Assert
         assertEquals("{\"response\":\"Requested incoming transfer does not exist or not yet completed!\"}", result);
@@ -217,14 +219,16 @@ class OperationsApiTest {
 
         Variable variable1 = new Variable();
         variable1.setName("var1");
+        variable1.setWorkflowInstanceKey(1L);
         Variable variable2 = new Variable();
         variable2.setName("var2");
+        variable2.setWorkflowInstanceKey(2L);
         List<Variable> variables1 = Arrays.asList(variable1);
         List<Variable> variables2 = Arrays.asList(variable2);
 
         when(businessKeyRepository.findByBusinessKeyAndBusinessKeyType(businessKey, businessKeyType)).thenReturn(businessKeys);
-        when(variableRepository.findByWorkflowInstanceKeyOrderByTimestamp(1L)).thenReturn(variables1);
-        when(variableRepository.findByWorkflowInstanceKeyOrderByTimestamp(2L)).thenReturn(variables2);
+        when(variableRepository.findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(anyCollection()))
+                .thenReturn(Arrays.asList(variable1, variable2));
 
         // Act
         List<List<Variable>> result = operationsApi.variables(businessKey, businessKeyType);
@@ -261,10 +265,11 @@ class OperationsApiTest {
         businessKey1.setWorkflowInstanceKey(1L);
         List<BusinessKey> businessKeys = Arrays.asList(businessKey1);
         Task task = new Task();
+        task.setWorkflowInstanceKey(1L);
         List<Task> tasks = Arrays.asList(task);
 
         when(businessKeyRepository.findByBusinessKeyAndBusinessKeyType(businessKey, businessKeyType)).thenReturn(businessKeys);
-        when(taskRepository.findByWorkflowInstanceKeyOrderByTimestamp(1L)).thenReturn(tasks);
+        when(taskRepository.findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(anyCollection())).thenReturn(tasks);
 
         // Act
         List<List<Task>> result = operationsApi.tasks(businessKey, businessKeyType);
@@ -275,6 +280,33 @@ class OperationsApiTest {
         assertEquals(tasks, result.get(0));
     }
 
+    @DisplayName("Tasks of all business keys are loaded in one query and keep the business key order")
+    @Test
+    void test_tasks_loaded_in_one_query_in_business_key_order() {
+        BusinessKey first = new BusinessKey();
+        first.setWorkflowInstanceKey(2L);
+        BusinessKey second = new BusinessKey();
+        second.setWorkflowInstanceKey(1L);
+        BusinessKey withoutTasks = new BusinessKey();
+        withoutTasks.setWorkflowInstanceKey(3L);
+        Task task1 = new Task();
+        task1.setWorkflowInstanceKey(1L);
+        Task task2 = new Task();
+        task2.setWorkflowInstanceKey(2L);
+        Task task3 = new Task();
+        task3.setWorkflowInstanceKey(2L);
+
+        when(businessKeyRepository.findByBusinessKeyAndBusinessKeyType("key", "type")).thenReturn(Arrays.asList(first, second, withoutTasks));
+        when(taskRepository.findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(anyCollection()))
+                .thenReturn(Arrays.asList(task1, task2, task3));
+
+        List<List<Task>> result = operationsApi.tasks("key", "type");
+
+        assertEquals(Arrays.asList(Arrays.asList(task2, task3), Arrays.asList(task1), Collections.emptyList()), result);
+        verify(taskRepository).findByWorkflowInstanceKeyInOrderByWorkflowInstanceKeyAscTimestampAsc(anyCollection());
+        verify(taskRepository, never()).findByWorkflowInstanceKeyOrderByTimestamp(anyLong());
+    }
+
     @DisplayName("Handle null or empty businessKey parameter")
     @Test
     void test_handle_null_or_empty_business_key() {
@@ -2,6 +2,9 @@ package org.apache.fineract.api;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.fineract.core.service.CursorQueryService;
+import org.apache.fineract.core.service.KeysetQueryService;
+import org.apache.fineract.data.KeysetPage;
 import org.apache.fineract.operations.*;
 import org.apache.fineract.organisation.user.AppUser;
 import org.apache.fineract.organisation.user.AppUserRepository;
@@ -10,6 +13,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mifos.connector.common.channel.dto.PhErrorDTO;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -52,6 +56,12 @@ class OperationsDetailedApiTest {
     @Mock
     private AMSConfig amsConfig;
 
+    @Mock
+    private CursorQueryService cursorQueryService;
+
+    @Mock
+    private KeysetQueryService keysetQueryService;
+
     @InjectMocks
     private OperationsDetailedApi operationsDetailedApi;
 
@@ -93,18 +103,11 @@ class OperationsDetailedApiTest {
         Page<Transfer> transferPage = new PageImpl<>(Collections.singletonList(transfer), pager, 1);
 
 
-        TransferResponse transferResponse = new TransferResponse();
-        transferResponse.setAmount(new BigDecimal("100.00"));
-        transferResponse.setTransactionId("12345");
         Mockito.when(transferRepository.findAll(Mockito.any(PageRequest.class)))
                 .thenReturn(transferPage);
-        Mockito.when(objectMapper.writeValueAsString(transfer))
-                .thenReturn("{\"transactionId\":\"12345\",\"amount\":100.00,\"currency\":\"USD\",\"status\":\"COMPLETED\"}");
-        Mockito.when(objectMapper.readValue(anyString(), eq(TransferResponse.class)))
-                .thenReturn(transferResponse);
 
         // Act
-        Page<TransferResponse> result = operationsDetailedApi.transfers(0, 20, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,"desc");
+        Page<TransferResponse> result = operationsDetailedApi.transfers(0, 20, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "desc", true);
 
         // Assert
         assertNotNull(result);
@@ -112,6 +115,56 @@ class OperationsDetailedApiTest {
         Assertions.assertEquals("12345", result.getContent().get(0).getTransactionId());
     }
 
+    @DisplayName("Maps transfer fields and parses error information without a json round-trip")
+    @Test
+    void test_transfer_response_maps_error_information() throws IOException {
+        PageRequest pager = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "startedAt"));
+        Transfer transfer = new Transfer();
+        transfer.setTransactionId("12345");
+        transfer.setAmsBusinessShortCode("payerfsp");
+        transfer.setErrorInformation("{\"errorCode\":\"10002\"}");
+        Mockito.when(transferRepository.findAll(Mockito.any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(transfer), pager, 1));
+        PhErrorDTO errorInformation = Mockito.mock(PhErrorDTO.class);
+        Mockito.when(objectMapper.readValue("{\"errorCode\":\"10002\"}", PhErrorDTO.class)).thenReturn(errorInformation);
+
+        Page<TransferResponse> result = operationsDetailedApi.transfers(0, 20, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "desc", true);
+
+        TransferResponse response = result.getContent().get(0);
+        assertEquals("payerfsp", response.getPayerDfspId());
+        assertSame(errorInformation, response.getErrorInformation());
+        verify(objectMapper, never()).writeValueAsString(any());
+    }
+
+    @DisplayName("Skips the count query when count is disabled")
+    @Test
+    void test_transfers_without_count() {
+        PageRequest pager = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "startedAt"));
+        Transfer transfer = new Transfer();
+        transfer.setTransactionId("12345");
+        Mockito.when(keysetQueryService.findWithoutCount(eq(Transfer.class), any(), any()))
+                .thenReturn(new PageImpl<>(Collections.singletonList(transfer), pager, 1));
+
+        Page<TransferResponse> result = operationsDetailedApi.transfers(0, 20, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "DESC", false);
+
+        assertEquals("12345", result.getContent().get(0).getTransactionId());
+        verify(transferRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @DisplayName("Returns the next cursor of a scrolled transfer page")
+    @Test
+    void test_scroll_transfers() {
+        Transfer transfer = new Transfer();
+        transfer.setTransactionId("12345");
+        Mockito.when(keysetQueryService.seek(eq(Transfer.class), any(), eq("startedAt"), any(), eq(Sort.Direction.DESC), eq(""), eq(1)))
+                .thenReturn(new KeysetPage<>(Collections.singletonList(transfer), 1, "next"));
+
+        KeysetPage<TransferResponse> result = operationsDetailedApi.scrollTransfers("", 1, null, null, null, null, null, null, null, null, null, null, null, null, null, null, "DESC");
+
+        assertEquals("12345", result.getContent().get(0).getTransactionId());
+        assertEquals("next", result.getNextCursor());
+    }
+
     @DisplayName("Returns a page of transaction requests when user is authenticated and has valid assignments")
     @Test
     void test_authenticated_user_with_valid_assignments() {
@@ -396,4 +449,45 @@ class OperationsDetailedApiTest {
         verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
     }
 
-}
\ No newline at end of file
+    @DisplayName("Streams every transfer handed over by the cursor into the csv response")
+    @Test
+    void test_stream_transfers_writes_all_rows() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter output = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(output));
+        Map<String, List<String>> body = new HashMap<>();
+        body.put("TRANSACTIONID", Arrays.asList("12345", "67890"));
+        doAnswer(invocation -> {
+            CursorQueryService.RowHandler<Transfer, Exception> handler = invocation.getArgument(4);
+            for (String transactionId : Arrays.asList("12345", "67890")) {
+                Transfer transfer = new Transfer();
+                transfer.setTransactionId(transactionId);
+                handler.handle(transfer);
+            }
+            return 2L;
+        }).when(cursorQueryService).stream(eq(Transfer.class), any(), eq(Sort.Direction.DESC), eq("startedAt"), any());
+
+        Map<String, String> result = operationsDetailedApi.streamTransfers(response, "DESC", null, null, "COMPLETED", body);
+
+        assertNull(result);
+        verify(response).setContentType("text/csv");
+        String csv = output.toString();
+        assertTrue(csv.contains("TRANSACTIONID"));
+        assertTrue(csv.contains("12345"));
+        assertTrue(csv.contains("67890"));
+    }
+
+    @Test
+    void test_stream_transfers_empty() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        Map<String, List<String>> body = new HashMap<>();
+        body.put("TRANSACTIONID", Arrays.asList("12345"));
+
+        Map<String, String> result = operationsDetailedApi.streamTransfers(response, "DESC", null, null, null, body);
+
+        assertNotNull(result);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_FOUND);
+        verify(response, never()).getWriter();
+    }
+
+}
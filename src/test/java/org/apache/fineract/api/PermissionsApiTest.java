@@ -1,5 +1,6 @@
 package org.apache.fineract.api;
 
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.permission.Permission;
 import org.apache.fineract.organisation.permission.PermissionRepository;
 import org.junit.jupiter.api.Assertions;
@@ -24,6 +25,9 @@ class PermissionsApiTest {
 
     @Mock
     private PermissionRepository permissionRepository;
+    @Mock
+    private UserAuthorityCache userAuthorityCache;
+
     @InjectMocks
     private PermissionsApi permissionsApi;
 
@@ -1,5 +1,6 @@
 package org.apache.fineract.api;
 
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.permission.Permission;
 import org.apache.fineract.organisation.permission.PermissionRepository;
 import org.apache.fineract.organisation.role.Role;
@@ -32,6 +33,9 @@ class RolesApiTest {
     @Mock
     private PermissionRepository permissionRepository;
 
+    @Mock
+    private UserAuthorityCache userAuthorityCache;
+
     @InjectMocks
     RolesApi rolesApi;
 
@@ -216,6 +220,7 @@ class RolesApiTest {
         // Assert
         assertEquals(2, existingRole.getPermissions().size());
         verify(roleRepository, times(1)).saveAndFlush(existingRole);
+        verify(userAuthorityCache).invalidateTenant();
     }
 
 }
\ No newline at end of file
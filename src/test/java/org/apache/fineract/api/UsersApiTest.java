@@ -1,6 +1,7 @@
 package org.apache.fineract.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.role.Role;
 import org.apache.fineract.organisation.role.RoleRepository;
 import org.apache.fineract.organisation.user.AppUser;
@@ -33,6 +34,9 @@ class UsersApiTest {
 
     @Mock
     private RoleRepository roleRepository;
+    @Mock
+    private UserAuthorityCache userAuthorityCache;
+
     @InjectMocks
     private UsersApi usersApi;
 
@@ -0,0 +1,125 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.audit.service.AuditPartitionService;
+import org.apache.fineract.file.FileTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class AuditPartitionServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final BeanFactory beanFactory = mock(BeanFactory.class);
+    private final FileTransferService fileTransferService = mock(FileTransferService.class);
+    private final AuditPartitionService service = new AuditPartitionService();
+
+    private final List<String> partitionNames = new ArrayList<>();
+    private final List<LocalDateTime> upperBounds = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        setField("jdbcTemplate", jdbcTemplate);
+        setField("beanFactory", beanFactory);
+        setField("storage", "s3");
+        setField("bucketName", "bucket");
+        when(beanFactory.containsBean("s3")).thenReturn(true);
+        when(beanFactory.getBean("s3", FileTransferService.class)).thenReturn(fileTransferService);
+        when(jdbcTemplate.query(startsWith("SELECT PARTITION_NAME"), any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(1);
+            List<Object> partitions = new ArrayList<>();
+            for (int i = 0; i < partitionNames.size(); i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("PARTITION_NAME")).thenReturn(partitionNames.get(i));
+                when(rs.getTimestamp("UPPER_BOUND")).thenReturn(upperBounds.get(i) != null ? Timestamp.valueOf(upperBounds.get(i)) : null);
+                partitions.add(rowMapper.mapRow(rs, i));
+            }
+            return partitions;
+        });
+    }
+
+    @Test
+    void test_future_partitions_are_named_after_their_month() {
+        YearMonth current = YearMonth.now();
+        partition("p" + current.minusMonths(1).toString().replace("-", ""), current.atDay(1).atStartOfDay());
+        partition("p_future", null);
+
+        assertEquals(2, service.ensureFuturePartitions(1));
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).execute(statements.capture());
+        assertEquals("ALTER TABLE m_audit_source REORGANIZE PARTITION p_future INTO ("
+                + "PARTITION p" + current.toString().replace("-", "") + " VALUES LESS THAN (UNIX_TIMESTAMP('"
+                + current.plusMonths(1) + "-01 00:00:00')), PARTITION p_future VALUES LESS THAN MAXVALUE)", statements.getAllValues().get(0));
+        assertTrue(statements.getAllValues().get(1).contains("PARTITION p" + current.plusMonths(1).toString().replace("-", "")
+                + " VALUES LESS THAN (UNIX_TIMESTAMP('" + current.plusMonths(2) + "-01 00:00:00'))"));
+    }
+
+    @Test
+    void test_unpartitioned_table_is_skipped() {
+        assertEquals(0, service.ensureFuturePartitions(1));
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void test_only_partitions_ending_before_the_cutoff_are_dropped() {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(3).atDay(1).atStartOfDay();
+        partition("p_expired", cutoff);
+        partition("p_retained", cutoff.plusMonths(1));
+        partition("p_future", null);
+        when(fileTransferService.uploadFile(any(File.class), anyString(), eq("bucket"))).thenReturn("location");
+
+        assertEquals(1, service.archiveExpiredPartitions(3));
+
+        verify(fileTransferService).uploadFile(any(File.class), eq("audit-archive/default/m_audit_source_p_expired.csv.gz"), eq("bucket"));
+        verify(jdbcTemplate).execute("ALTER TABLE m_audit_source DROP PARTITION p_expired");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE m_audit_source DROP PARTITION p_retained");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE m_audit_source DROP PARTITION p_future");
+    }
+
+    @Test
+    void test_partition_is_kept_when_archive_upload_fails() {
+        LocalDateTime cutoff = YearMonth.now().minusMonths(3).atDay(1).atStartOfDay();
+        partition("p_failed", cutoff.minusMonths(1));
+        partition("p_thrown", cutoff);
+        when(fileTransferService.uploadFile(any(File.class), contains("p_failed"), anyString())).thenReturn(null);
+        when(fileTransferService.uploadFile(any(File.class), contains("p_thrown"), anyString()))
+                .thenThrow(new IllegalStateException("storage down"));
+
+        assertEquals(0, service.archiveExpiredPartitions(3));
+
+        verify(fileTransferService, times(2)).uploadFile(any(File.class), anyString(), anyString());
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE m_audit_source DROP PARTITION"));
+    }
+
+    private void partition(String name, LocalDateTime upperBound) {
+        partitionNames.add(name);
+        upperBounds.add(upperBound);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = AuditPartitionService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
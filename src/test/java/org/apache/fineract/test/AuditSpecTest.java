@@ -10,12 +10,18 @@ import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
 import java.time.LocalDateTime;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class AuditSpecTest {
 
@@ -47,4 +53,24 @@ class AuditSpecTest {
         Assertions.assertNull(predicate);
     }
 
+    @Test
+    void testGetFilterWithExactMatch() {
+        AuditSearch auditSearch = new AuditSearch("CREATE", "AppUser", null, null, null, null, null, true);
+        Specification<AuditSource> specification = auditSpec.getFilter(auditSearch);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        Root<AuditSource> root = mock(Root.class);
+        Path<Object> actionName = mock(Path.class);
+        Path<Object> entityName = mock(Path.class);
+        when(root.get("actionName")).thenReturn(actionName);
+        when(root.get("entityName")).thenReturn(entityName);
+
+        specification.toPredicate(root, query, cb);
+
+        verify(cb).equal(actionName, "CREATE");
+        verify(cb).equal(entityName, "AppUser");
+        verify(cb, never()).like(any(), anyString());
+        verify(query, never()).distinct(true);
+    }
+
 }
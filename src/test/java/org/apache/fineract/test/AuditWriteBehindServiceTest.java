@@ -0,0 +1,118 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.audit.data.AuditRecord;
+import org.apache.fineract.audit.service.AuditBatchWriter;
+import org.apache.fineract.audit.service.AuditWriteBehindService;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AuditWriteBehindServiceTest {
+
+    @Mock
+    private AuditBatchWriter auditBatchWriter;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AuditWriteBehindService auditWriteBehindService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("meterRegistry", meterRegistry);
+        setField("batchSize", 100);
+        setField("flushIntervalMs", 50L);
+        setField("offerTimeoutMs", 0L);
+        setField("shutdownTimeoutMs", 5000L);
+    }
+
+    @Test
+    void test_queued_records_are_written_per_tenant_on_shutdown() throws Exception {
+        setField("queueCapacity", 100);
+        when(auditBatchWriter.insert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        auditWriteBehindService.start();
+
+        TenantServerConnection tenant1 = tenant(1L);
+        TenantServerConnection tenant2 = tenant(2L);
+        assertTrue(auditWriteBehindService.submit(record(tenant1)));
+        assertTrue(auditWriteBehindService.submit(record(tenant2)));
+        assertTrue(auditWriteBehindService.submit(record(tenant1)));
+        auditWriteBehindService.shutdown();
+
+        ArgumentCaptor<List<AuditRecord>> batches = ArgumentCaptor.forClass(List.class);
+        verify(auditBatchWriter, atLeastOnce()).insert(batches.capture());
+        for (List<AuditRecord> batch : batches.getAllValues()) {
+            assertTrue(batch.stream().allMatch(r -> r.getTenant() == batch.get(0).getTenant()));
+        }
+        assertEquals(3, batches.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(3.0, meterRegistry.counter("audit.write_behind.written").count());
+        assertEquals(0, auditWriteBehindService.getQueueSize());
+    }
+
+    @Test
+    void test_record_is_dropped_when_queue_is_full() throws Exception {
+        setField("queueCapacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditBatchWriter.insert(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return 1;
+        });
+        auditWriteBehindService.start();
+
+        assertTrue(auditWriteBehindService.submit(record(tenant(1L))));
+        verify(auditBatchWriter, timeout(1000)).insert(anyList());
+        assertTrue(auditWriteBehindService.submit(record(tenant(1L))));
+        assertFalse(auditWriteBehindService.submit(record(tenant(1L))));
+
+        release.countDown();
+        auditWriteBehindService.shutdown();
+        assertEquals(1.0, meterRegistry.counter("audit.write_behind.dropped", "reason", "queue_full").count());
+        assertEquals(2.0, meterRegistry.counter("audit.write_behind.written").count());
+    }
+
+    @Test
+    void test_failed_batch_is_counted_and_writer_keeps_running() throws Exception {
+        setField("queueCapacity", 100);
+        when(auditBatchWriter.insert(anyList())).thenThrow(new RuntimeException("db down")).thenReturn(1);
+        auditWriteBehindService.start();
+
+        auditWriteBehindService.submit(record(tenant(1L)));
+        verify(auditBatchWriter, timeout(1000)).insert(anyList());
+        auditWriteBehindService.submit(record(tenant(1L)));
+        auditWriteBehindService.shutdown();
+
+        assertEquals(1.0, meterRegistry.counter("audit.write_behind.failed").count());
+        assertEquals(1.0, meterRegistry.counter("audit.write_behind.written").count());
+    }
+
+    private AuditRecord record(TenantServerConnection tenant) {
+        return new AuditRecord(tenant, 1L, "CREATE", "AppUser", "data", "mifos", "SUCCESS", LocalDateTime.now(), System.nanoTime());
+    }
+
+    private TenantServerConnection tenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        return tenant;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = AuditWriteBehindService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(auditWriteBehindService, value);
+    }
+}
@@ -0,0 +1,141 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.batch.service.BatchStatisticsServiceImpl;
+import org.apache.fineract.config.PaymentMode;
+import org.apache.fineract.config.PaymentModeConfiguration;
+import org.apache.fineract.operations.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchStatisticsServiceTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    @Mock
+    private PaymentModeConfiguration paymentModeConfig;
+
+    @InjectMocks
+    private BatchStatisticsServiceImpl batchStatisticsService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        Field maxAgeSeconds = BatchStatisticsServiceImpl.class.getDeclaredField("maxAgeSeconds");
+        maxAgeSeconds.setAccessible(true);
+        maxAgeSeconds.set(batchStatisticsService, 600L);
+        when(paymentModeConfig.getByMode("mojaloop")).thenReturn(new PaymentMode("mojaloop", "PAYMENT"));
+        when(paymentModeConfig.getByMode("slcb")).thenReturn(new PaymentMode("slcb", "BATCH"));
+        when(batchRepository.save(any(Batch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    // Builds the counters from the grouped transfer totals, skipping batch typed payment modes
+    @Test
+    void testRefreshFromGroupedSummary() {
+        Batch batch = new Batch();
+        batch.setBatchId("batch1");
+        Batch subBatch = new Batch();
+        subBatch.setBatchId("batch1");
+        subBatch.setSubBatchId("sub1");
+        subBatch.setTotalTransactions(5L);
+        subBatch.setTotalAmount(new BigDecimal("50"));
+        subBatch.setCompleted(5L);
+        subBatch.setCompletedAmount(new BigDecimal("50"));
+        when(batchRepository.findAllByBatchId("batch1")).thenReturn(Arrays.asList(batch, subBatch));
+        when(transferRepository.summarizeByBatchId("batch1")).thenReturn(Arrays.asList(
+                new TransferStatusSummary(TransferStatus.COMPLETED, "\"mojaloop\"", 3L, new BigDecimal("30")),
+                new TransferStatusSummary(TransferStatus.FAILED, "\"mojaloop\"", 1L, new BigDecimal("10")),
+                new TransferStatusSummary(TransferStatus.IN_PROGRESS, null, 2L, new BigDecimal("20.25")),
+                new TransferStatusSummary(TransferStatus.COMPLETED, "\"slcb\"", 5L, new BigDecimal("50"))));
+
+        Batch result = batchStatisticsService.refresh(batch);
+
+        assertEquals(11L, result.getTotalTransactions());
+        assertEquals(8L, result.getCompleted());
+        assertEquals(1L, result.getFailed());
+        assertEquals(2L, result.getOngoing());
+        assertEquals(new BigDecimal("110.25"), result.getTotalAmount());
+        assertEquals(new BigDecimal("80"), result.getCompletedAmount());
+        assertEquals(new BigDecimal("20.25"), result.getOngoingAmount());
+        assertNotNull(result.getResultGeneratedAt());
+        verify(transferRepository, never()).findAllByBatchId(anyString());
+    }
+
+    // Writes only the counter columns of a stored batch, guarded by the version it was read at
+    @Test
+    void testRefreshStoresCountersOfStoredBatch() {
+        Batch batch = storedBatch();
+        when(batchRepository.storeCounters(eq(7L), eq(3L), anyLong(), anyLong(), anyLong(), anyLong(), any(), any(), any(),
+                any(), any(Date.class))).thenReturn(1);
+
+        Batch result = batchStatisticsService.refresh(batch);
+
+        assertEquals(1L, result.getTotalTransactions());
+        assertEquals(new BigDecimal("12.50"), result.getCompletedAmount());
+        assertEquals(4L, result.getStatisticsVersion());
+        verify(batchRepository).storeCounters(eq(7L), eq(3L), eq(1L), eq(0L), eq(1L), eq(0L), eq(new BigDecimal("12.50")),
+                eq(BigDecimal.ZERO), eq(new BigDecimal("12.50")), eq(BigDecimal.ZERO), any(Date.class));
+        verify(batchRepository, never()).save(any(Batch.class));
+    }
+
+    // Counters stored by another recount meanwhile win, this recount is not stored
+    @Test
+    void testRefreshKeepsCountersStoredDuringRecount() {
+        Batch batch = storedBatch();
+        batch.setCompleted(5L);
+        when(batchRepository.storeCounters(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), any(), any(), any(),
+                any(), any(Date.class))).thenReturn(0);
+
+        Batch result = batchStatisticsService.refresh(batch);
+
+        assertEquals(5L, result.getCompleted());
+        assertNull(result.getResultGeneratedAt());
+        assertEquals(3L, result.getStatisticsVersion());
+        verify(batchRepository, never()).save(any(Batch.class));
+    }
+
+    @Test
+    void testIsStale() {
+        Batch batch = new Batch();
+        assertTrue(batchStatisticsService.isStale(batch));
+
+        batch.setResultGeneratedAt(new Date());
+        assertFalse(batchStatisticsService.isStale(batch));
+
+        batch.setResultGeneratedAt(new Date(System.currentTimeMillis() - 601 * 1000L));
+        assertTrue(batchStatisticsService.isStale(batch));
+
+        batch.setCompletedAt(new Date(System.currentTimeMillis() - 602 * 1000L));
+        assertFalse(batchStatisticsService.isStale(batch));
+    }
+
+    private Batch storedBatch() {
+        Batch batch = new Batch();
+        batch.setId(7L);
+        batch.setBatchId("batch3");
+        batch.setStatisticsVersion(3L);
+        when(batchRepository.findAllByBatchId("batch3")).thenReturn(Collections.singletonList(batch));
+        when(transferRepository.summarizeByBatchId("batch3")).thenReturn(Collections.singletonList(
+                new TransferStatusSummary(TransferStatus.COMPLETED, null, 1L, new BigDecimal("12.50"))));
+        return batch;
+    }
+}
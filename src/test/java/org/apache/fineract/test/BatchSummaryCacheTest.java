@@ -0,0 +1,122 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.batch.service.BatchSummaryCache;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.operations.BatchDTO;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSummaryCacheTest {
+
+    private final BatchSummaryCache batchSummaryCache = new BatchSummaryCache();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @BeforeEach
+    void setup() throws Exception {
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("ttlMs", 60000L);
+        setField("maxSize", 100);
+        batchSummaryCache.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_concurrent_callers_share_one_computation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<BatchDTO> slowSummary = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return summary();
+        };
+        ExecutorService pollers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<BatchDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> batchSummaryCache.get("batch1", null, slowSummary), pollers));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            BatchDTO first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<BatchDTO> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            pollers.shutdownNow();
+        }
+    }
+
+    @Test
+    void test_summary_is_recomputed_after_ttl() throws Exception {
+        setField("ttlMs", 0L);
+
+        batchSummaryCache.get("batch1", null, this::summary);
+        batchSummaryCache.get("batch1", null, this::summary);
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void test_summaries_are_kept_per_tenant() {
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        batchSummaryCache.get("batch1", null, this::summary);
+        batchSummaryCache.get("batch1", null, this::summary);
+        ThreadLocalContextUtil.setTenant(tenant(2L));
+        batchSummaryCache.get("batch1", null, this::summary);
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void test_failed_computation_is_not_cached() {
+        assertThrows(IllegalStateException.class, () -> batchSummaryCache.get("batch1", null, () -> {
+            throw new IllegalStateException("db down");
+        }));
+        batchSummaryCache.get("batch1", null, this::summary);
+
+        assertEquals(1, computations.get());
+    }
+
+    private BatchDTO summary() {
+        computations.incrementAndGet();
+        return new BatchDTO("batch1", null, 0L, 0L, 0L, 0L, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, null, null, "0.0", "0.0");
+    }
+
+    private TenantServerConnection tenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        return tenant;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = BatchSummaryCache.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(batchSummaryCache, value);
+    }
+}
@@ -0,0 +1,135 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.core.http.ChannelConnectorClient;
+import org.apache.fineract.data.RefundOutcome;
+import org.apache.fineract.exception.ChannelConnectorUnavailableException;
+import org.apache.fineract.operations.Transfer;
+import org.apache.fineract.operations.TransferRepository;
+import org.apache.fineract.operations.TransferStatus;
+import org.apache.fineract.operations.refund.BulkRefundService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BulkRefundServiceTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @Mock
+    private ChannelConnectorClient channelConnectorClient;
+
+    @InjectMocks
+    private BulkRefundService bulkRefundService;
+
+    private ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("refundDispatchExecutor", executor);
+        setField("parallelism", 2);
+        setField("maxTransactions", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void test_every_distinct_transaction_gets_one_outcome() {
+        when(transferRepository.findByTransactionIdInAndDirectionAndStatus(anyCollection(), eq("INCOMING"), eq(TransferStatus.COMPLETED)))
+                .thenReturn(Arrays.asList(transfer("t1"), transfer("t2"), transfer("t3")));
+        when(channelConnectorClient.postTransfer(eq("tenant1"), contains("\"partyIdentifier\":\"payer-t1\"")))
+                .thenReturn(new ResponseEntity<>("{}", HttpStatus.ACCEPTED));
+        when(channelConnectorClient.postTransfer(eq("tenant1"), contains("\"partyIdentifier\":\"payer-t2\"")))
+                .thenReturn(new ResponseEntity<>("{\"error\":\"rejected\"}", HttpStatus.BAD_REQUEST));
+        when(channelConnectorClient.postTransfer(eq("tenant1"), contains("\"partyIdentifier\":\"payer-t3\"")))
+                .thenThrow(new ChannelConnectorUnavailableException("circuit open"));
+
+        List<RefundOutcome> outcomes = new ArrayList<>();
+        bulkRefundService.refund("tenant1", Arrays.asList("t1", "t2", "t1", "t3", "missing", " "), "refund", outcomes::add);
+
+        Map<String, RefundOutcome> byId = outcomes.stream().collect(Collectors.toMap(RefundOutcome::getTransactionId, Function.identity()));
+        assertEquals(4, outcomes.size());
+        assertEquals(RefundOutcome.Status.SUBMITTED, byId.get("t1").getStatus());
+        assertEquals(RefundOutcome.Status.FAILED, byId.get("t2").getStatus());
+        assertEquals(Integer.valueOf(400), byId.get("t2").getHttpStatus());
+        assertEquals(RefundOutcome.Status.UNAVAILABLE, byId.get("t3").getStatus());
+        assertEquals(RefundOutcome.Status.NOT_ELIGIBLE, byId.get("missing").getStatus());
+        verify(transferRepository, times(1)).findByTransactionIdInAndDirectionAndStatus(anyCollection(), anyString(), any());
+        verify(channelConnectorClient, times(3)).postTransfer(eq("tenant1"), anyString());
+    }
+
+    @Test
+    void test_dispatch_is_bounded_by_parallelism() {
+        List<Transfer> transfers = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            transfers.add(transfer("t" + i));
+            ids.add("t" + i);
+        }
+        when(transferRepository.findByTransactionIdInAndDirectionAndStatus(anyCollection(), eq("INCOMING"), eq(TransferStatus.COMPLETED)))
+                .thenReturn(transfers);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(channelConnectorClient.postTransfer(anyString(), anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return new ResponseEntity<>("{}", HttpStatus.OK);
+        });
+
+        List<RefundOutcome> outcomes = new ArrayList<>();
+        bulkRefundService.refund("tenant1", ids, null, outcomes::add);
+
+        assertEquals(10, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(o -> o.getStatus() == RefundOutcome.Status.SUBMITTED));
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    private Transfer transfer(String transactionId) {
+        Transfer transfer = new Transfer();
+        transfer.setTransactionId(transactionId);
+        transfer.setDirection("INCOMING");
+        transfer.setStatus(TransferStatus.COMPLETED);
+        transfer.setPayeePartyIdType("MSISDN");
+        transfer.setPayeePartyId("payer-" + transactionId);
+        transfer.setPayerPartyIdType("MSISDN");
+        transfer.setPayerPartyId("payee-" + transactionId);
+        transfer.setAmount(BigDecimal.TEN);
+        transfer.setCurrency("KES");
+        return transfer;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = BulkRefundService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(bulkRefundService, value);
+    }
+}
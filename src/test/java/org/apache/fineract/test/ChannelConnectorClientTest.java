@@ -0,0 +1,219 @@
+package org.apache.fineract.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.config.ChannelConnectorHttpProperties;
+import org.apache.fineract.core.http.ChannelConnectorClient;
+import org.apache.fineract.core.http.CircuitBreaker;
+import org.apache.fineract.exception.ChannelConnectorException;
+import org.apache.fineract.exception.ChannelConnectorUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelConnectorClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<String> tenantHeader = new AtomicReference<>();
+    private final AtomicReference<String> authorizationHeader = new AtomicReference<>();
+    private volatile int status = 200;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChannelConnectorHttpProperties properties = new ChannelConnectorHttpProperties();
+    private ChannelConnectorClient client = new ChannelConnectorClient();
+    private boolean started;
+
+    @BeforeEach
+    void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/channel/transfer", this::handle);
+        server.start();
+
+        properties.setReadTimeoutMs(500);
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxWaitMs(0);
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        properties.getCircuitBreaker().setOpenMs(60000);
+        setField("properties", properties);
+        setField("meterRegistry", meterRegistry);
+        setField("channelConnectorUrl", "http://localhost:" + server.getAddress().getPort());
+        setField("channelConnectorTransferPath", "/channel/transfer");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (started) {
+            client.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void test_error_response_is_relayed_with_tenant_header() {
+        status = 400;
+        start();
+
+        ResponseEntity<String> response = client.postTransfer("tenant1", "{}");
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("{\"status\":400}", response.getBody());
+        assertEquals("tenant1", tenantHeader.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        assertEquals(1, meterRegistry.get("channel_connector.requests").tag("outcome", "client_error").timer().count());
+    }
+
+    @Test
+    void test_auth_token_is_sent_when_configured() {
+        start();
+        client.postTransfer("tenant1", "{}");
+        assertNull(authorizationHeader.get());
+
+        properties.setAuthToken("secret");
+        client.postTransfer("tenant1", "{}");
+        assertEquals("Bearer secret", authorizationHeader.get());
+    }
+
+    @Test
+    void test_slow_connector_times_out() {
+        release = new CountDownLatch(1);
+        start();
+
+        assertThrows(ChannelConnectorException.class, () -> client.postTransfer("tenant1", "{}"));
+        assertEquals(1, meterRegistry.get("channel_connector.requests").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void test_refused_connection_is_unavailable() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        setField("channelConnectorUrl", "http://localhost:" + closedPort);
+        start();
+
+        assertThrows(ChannelConnectorUnavailableException.class, () -> client.postTransfer("tenant1", "{}"));
+        assertEquals(1, meterRegistry.get("channel_connector.requests").tag("outcome", "connect_error").timer().count());
+    }
+
+    @Test
+    void test_pool_timeout_is_unavailable_and_not_a_failure() throws Exception {
+        properties.setReadTimeoutMs(5000);
+        properties.setMaxConnections(1);
+        properties.setConnectionRequestTimeoutMs(50);
+        properties.getBulkhead().setMaxConcurrentCalls(2);
+        properties.getCircuitBreaker().setFailureThreshold(1);
+        release = new CountDownLatch(1);
+        start();
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() -> client.postTransfer("tenant1", "{}"));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (calls.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThrows(ChannelConnectorUnavailableException.class, () -> client.postTransfer("tenant1", "{}"));
+        release.countDown();
+
+        assertEquals(200, first.get(2, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        assertEquals(1, meterRegistry.get("channel_connector.requests").tag("outcome", "pool_timeout").timer().count());
+    }
+
+    @Test
+    void test_circuit_opens_after_consecutive_failures() {
+        status = 503;
+        start();
+
+        client.postTransfer("tenant1", "{}");
+        client.postTransfer("tenant1", "{}");
+        assertThrows(ChannelConnectorUnavailableException.class, () -> client.postTransfer("tenant1", "{}"));
+
+        assertEquals(2, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(1.0, meterRegistry.counter("channel_connector.rejected", "reason", "circuit_open").count());
+    }
+
+    @Test
+    void test_bulkhead_rejects_calls_beyond_limit() throws Exception {
+        properties.setReadTimeoutMs(5000);
+        release = new CountDownLatch(1);
+        start();
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() -> client.postTransfer("tenant1", "{}"));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (calls.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThrows(ChannelConnectorUnavailableException.class, () -> client.postTransfer("tenant1", "{}"));
+        release.countDown();
+
+        assertEquals(200, first.get(2, TimeUnit.SECONDS).getStatusCodeValue());
+        assertEquals(1.0, meterRegistry.counter("channel_connector.rejected", "reason", "bulkhead_full").count());
+    }
+
+    @Test
+    void test_half_open_circuit_lets_one_trial_through() {
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 1000, now::get);
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        now.set(1000);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.releasePermission();
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void start() {
+        client.start();
+        started = true;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        tenantHeader.set(exchange.getRequestHeaders().getFirst("Platform-TenantId"));
+        authorizationHeader.set(exchange.getRequestHeaders().getFirst("Authorization"));
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = ("{\"status\":" + status + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = ChannelConnectorClient.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(client, value);
+    }
+}
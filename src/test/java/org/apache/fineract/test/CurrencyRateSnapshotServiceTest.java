@@ -0,0 +1,99 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.operations.CurrencyRate;
+import org.apache.fineract.operations.CurrencyRateRepository;
+import org.apache.fineract.operations.exchange.CurrencyRateSnapshotService;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CurrencyRateSnapshotServiceTest {
+
+    @Mock
+    private CurrencyRateRepository currencyRateRepository;
+
+    @InjectMocks
+    private CurrencyRateSnapshotService currencyRateSnapshotService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("ttlSeconds", 60L);
+        currencyRateSnapshotService.registerMetrics();
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_rates_are_served_from_snapshot_until_refresh() {
+        when(currencyRateRepository.findAll())
+                .thenReturn(Collections.singletonList(rate("USD", "KES", "110")))
+                .thenReturn(Collections.singletonList(rate("USD", "KES", "120")));
+
+        assertEquals(new BigDecimal("110"), currencyRateSnapshotService.getRate("USD", "KES"));
+        assertEquals(new BigDecimal("110"), currencyRateSnapshotService.getRate("USD", "KES"));
+        assertNull(currencyRateSnapshotService.getRate("KES", "USD"));
+        verify(currencyRateRepository, times(1)).findAll();
+
+        currencyRateSnapshotService.refresh();
+        assertEquals(new BigDecimal("120"), currencyRateSnapshotService.getRate("USD", "KES"));
+        verify(currencyRateRepository, times(2)).findAll();
+    }
+
+    @Test
+    void test_snapshots_are_held_per_tenant() {
+        when(currencyRateRepository.findAll())
+                .thenReturn(Collections.singletonList(rate("USD", "KES", "110")))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(new BigDecimal("110"), currencyRateSnapshotService.getRate("USD", "KES"));
+        ThreadLocalContextUtil.setTenant(tenant(2L));
+        assertNull(currencyRateSnapshotService.getRate("USD", "KES"));
+        verify(currencyRateRepository, times(2)).findAll();
+    }
+
+    @Test
+    void test_expired_snapshot_is_reloaded() throws Exception {
+        setField("ttlSeconds", 0L);
+        when(currencyRateRepository.findAll()).thenReturn(Collections.singletonList(rate("USD", "KES", "110")));
+
+        currencyRateSnapshotService.getRate("USD", "KES");
+        currencyRateSnapshotService.getRate("USD", "KES");
+        verify(currencyRateRepository, times(2)).findAll();
+    }
+
+    private CurrencyRate rate(String from, String to, String rate) {
+        return new CurrencyRate(from, to, new BigDecimal(rate), new Date());
+    }
+
+    private TenantServerConnection tenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        return tenant;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = CurrencyRateSnapshotService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(currencyRateSnapshotService, value);
+    }
+}
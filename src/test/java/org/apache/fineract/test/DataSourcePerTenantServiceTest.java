@@ -0,0 +1,214 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.core.service.DataSourcePerTenantService;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DataSourcePerTenantServiceTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final List<DataSource> pools = new ArrayList<>();
+    private final AtomicInteger createdReplicas = new AtomicInteger();
+    private final AtomicLong replicationLag = new AtomicLong();
+
+    private final DataSourcePerTenantService service = new DataSourcePerTenantService() {
+        @Override
+        protected DataSource createNewDataSourceFor(TenantServerConnection tenant) {
+            created.incrementAndGet();
+            DataSource pool = mock(DataSource.class);
+            pools.add(pool);
+            return pool;
+        }
+
+        @Override
+        protected DataSource createNewReplicaDataSourceFor(TenantServerConnection tenant) {
+            createdReplicas.incrementAndGet();
+            return mock(DataSource.class);
+        }
+
+        @Override
+        protected long measureReplicationLagSeconds(DataSource replica) {
+            return replicationLag.get();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_concurrent_checkouts_create_one_pool_per_tenant() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<DataSource>> checkouts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                long tenantId = i % 4 + 1;
+                checkouts.add(() -> {
+                    ThreadLocalContextUtil.setTenant(tenant(tenantId));
+                    try {
+                        return service.retrieveDataSource();
+                    } finally {
+                        ThreadLocalContextUtil.clear();
+                    }
+                });
+            }
+            List<Future<DataSource>> results = executor.invokeAll(checkouts);
+            for (int i = 4; i < results.size(); i++) {
+                assertSame(results.get(i % 4).get(), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4, created.get());
+    }
+
+    @Test
+    void test_idle_tenant_pool_is_evicted() throws Exception {
+        setField("idleEvictionSeconds", 0L);
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        DataSource first = service.retrieveDataSource();
+        ThreadLocalContextUtil.clear();
+        DataSource defaultDataSource = service.retrieveDataSource();
+
+        Thread.sleep(5);
+        service.evictIdleDataSources();
+
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        assertNotSame(first, service.retrieveDataSource());
+        ThreadLocalContextUtil.clear();
+        assertSame(defaultDataSource, service.retrieveDataSource());
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    void test_evict_single_tenant() {
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        DataSource first = service.retrieveDataSource();
+
+        service.evictDataSource(1L);
+
+        assertNotSame(first, service.retrieveDataSource());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void test_checkout_after_eviction_is_served_by_new_pool() throws Exception {
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        DataSource retrieved = service.retrieveDataSource();
+
+        service.evictDataSource(1L);
+        retrieved.getConnection();
+
+        assertEquals(2, created.get());
+        verify(pools.get(0), never()).getConnection();
+        verify(pools.get(1)).getConnection();
+    }
+
+    @Test
+    void test_replica_is_used_once_in_sync() {
+        ThreadLocalContextUtil.setTenant(replicaTenant(1L));
+
+        assertNull(service.retrieveReplicaDataSource());
+        service.checkReplicaLag();
+        DataSource replica = service.retrieveReplicaDataSource();
+
+        assertNotNull(replica);
+        assertNotSame(service.retrieveDataSource(), replica);
+        assertEquals(1, createdReplicas.get());
+    }
+
+    @Test
+    void test_lagging_replica_falls_back_to_primary_until_caught_up() {
+        ThreadLocalContextUtil.setTenant(replicaTenant(1L));
+        service.retrieveReplicaDataSource();
+        service.checkReplicaLag();
+
+        replicationLag.set(31);
+        service.checkReplicaLag();
+        assertNull(service.retrieveReplicaDataSource());
+
+        replicationLag.set(-1);
+        service.checkReplicaLag();
+        assertNull(service.retrieveReplicaDataSource());
+
+        replicationLag.set(2);
+        service.checkReplicaLag();
+        assertNotNull(service.retrieveReplicaDataSource());
+    }
+
+    @Test
+    void test_unavailable_replica_is_skipped_until_next_check() {
+        ThreadLocalContextUtil.setTenant(replicaTenant(1L));
+        service.retrieveReplicaDataSource();
+        service.checkReplicaLag();
+
+        service.markReplicaUnavailable();
+        assertNull(service.retrieveReplicaDataSource());
+
+        service.checkReplicaLag();
+        assertNotNull(service.retrieveReplicaDataSource());
+    }
+
+    @Test
+    void test_tenant_without_replica_has_no_replica_pool() {
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+        service.retrieveReplicaDataSource();
+        service.checkReplicaLag();
+
+        assertNull(service.retrieveReplicaDataSource());
+        assertEquals(0, createdReplicas.get());
+    }
+
+    @Test
+    void test_evict_single_tenant_closes_replica_pool() {
+        ThreadLocalContextUtil.setTenant(replicaTenant(1L));
+        service.retrieveReplicaDataSource();
+        service.checkReplicaLag();
+        DataSource replica = service.retrieveReplicaDataSource();
+
+        service.evictDataSource(1L);
+        service.retrieveReplicaDataSource();
+        service.checkReplicaLag();
+
+        assertNotSame(replica, service.retrieveReplicaDataSource());
+        assertEquals(2, createdReplicas.get());
+    }
+
+    private TenantServerConnection replicaTenant(long id) {
+        TenantServerConnection connection = tenant(id);
+        connection.setReplicaServer("replica-" + id);
+        connection.setReplicaMaxLagSeconds(30);
+        return connection;
+    }
+
+    private TenantServerConnection tenant(long id) {
+        TenantServerConnection connection = new TenantServerConnection();
+        connection.setId(id);
+        return connection;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = DataSourcePerTenantService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
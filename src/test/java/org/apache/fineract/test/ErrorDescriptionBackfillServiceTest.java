@@ -0,0 +1,61 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.operations.TransactionRequestErrorDescriptionRepository;
+import org.apache.fineract.operations.backfill.ErrorDescriptionBackfillService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ErrorDescriptionBackfillServiceTest {
+
+    @Mock
+    private TransactionRequestErrorDescriptionRepository repository;
+
+    @InjectMocks
+    private ErrorDescriptionBackfillService backfillService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        Field chunkSize = ErrorDescriptionBackfillService.class.getDeclaredField("chunkSize");
+        chunkSize.setAccessible(true);
+        chunkSize.set(backfillService, 100L);
+    }
+
+    @Test
+    void test_copies_next_chunk_from_last_position() {
+        when(repository.findPendingBackfill()).thenReturn(Collections.singletonList(new Object[]{200L, 1000L}));
+
+        assertTrue(backfillService.copyNextChunk());
+
+        verify(repository).copyFromVariables(200L, 300L);
+        verify(repository).updateBackfill(300L, false);
+    }
+
+    @Test
+    void test_last_chunk_completes_backfill() {
+        when(repository.findPendingBackfill()).thenReturn(Collections.singletonList(new Object[]{950L, 1000L}));
+
+        assertFalse(backfillService.copyNextChunk());
+
+        verify(repository).copyFromVariables(950L, 1000L);
+        verify(repository).updateBackfill(1000L, true);
+    }
+
+    @Test
+    void test_completed_backfill_does_nothing() {
+        when(repository.findPendingBackfill()).thenReturn(Collections.emptyList());
+
+        assertFalse(backfillService.copyNextChunk());
+
+        verify(repository, never()).copyFromVariables(anyLong(), anyLong());
+    }
+}
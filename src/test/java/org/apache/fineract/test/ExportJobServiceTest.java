@@ -0,0 +1,213 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.core.service.CursorQueryService;
+import org.apache.fineract.export.data.ExportJob;
+import org.apache.fineract.export.data.ExportJobRepository;
+import org.apache.fineract.export.data.ExportJobStatus;
+import org.apache.fineract.export.service.ExportJobService;
+import org.apache.fineract.file.FileTransferService;
+import org.apache.fineract.file.LocalFileTransferImpl;
+import org.apache.fineract.operations.Transfer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportJobServiceTest {
+
+    @Mock
+    private ExportJobRepository exportJobRepository;
+
+    @Mock
+    private CursorQueryService cursorQueryService;
+
+    @Mock
+    private BeanFactory beanFactory;
+
+    @Mock
+    private ThreadPoolTaskExecutor exportJobExecutor;
+
+    @InjectMocks
+    private ExportJobService exportJobService;
+
+    private Path baseDir;
+
+    private final Map<String, ExportJob> jobs = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null));
+        baseDir = Files.createTempDirectory("exports");
+        LocalFileTransferImpl localStorage = new LocalFileTransferImpl();
+        setField(LocalFileTransferImpl.class, localStorage, "baseDir", baseDir.toString());
+        setField(ExportJobService.class, exportJobService, "storage", "localStorage");
+        setField(ExportJobService.class, exportJobService, "bucketName", "bucket");
+        when(beanFactory.containsBean("localStorage")).thenReturn(true);
+        when(beanFactory.getBean("localStorage", FileTransferService.class)).thenReturn(localStorage);
+        when(exportJobRepository.save(any(ExportJob.class))).thenAnswer(invocation -> {
+            ExportJob job = invocation.getArgument(0);
+            jobs.put(job.getJobId(), job);
+            return job;
+        });
+        when(exportJobRepository.findByJobId(anyString())).thenAnswer(invocation -> jobs.get(invocation.<String>getArgument(0)));
+        // runs the job right away on the calling thread
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(exportJobExecutor).execute(any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    @Test
+    void testSubmitExportsIntoLocalStorage() throws Exception {
+        doAnswer(invocation -> {
+            CursorQueryService.RowHandler<Transfer, Exception> handler = invocation.getArgument(4);
+            Transfer transfer = new Transfer();
+            transfer.setTransactionId("txn1");
+            handler.handle(transfer);
+            return 1L;
+        }).when(cursorQueryService).stream(eq(Transfer.class), any(), eq(Sort.Direction.DESC), eq("startedAt"), any());
+
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1L, job.getRowCount());
+        assertNotNull(job.getFileLocation());
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        exportJobService.download(job, content);
+        String csv = new String(content.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(csv.contains("TRANSACTIONID"));
+        assertTrue(csv.contains("txn1"));
+    }
+
+    @Test
+    void testStorageLocationIsNotKeptAsFileLocation() throws Exception {
+        FileTransferService s3 = mock(FileTransferService.class);
+        when(beanFactory.getBean("localStorage", FileTransferService.class)).thenReturn(s3);
+        when(s3.uploadFile(any(File.class), anyString(), eq("bucket"))).thenReturn("https://bucket.s3.amazonaws.com/transfer_.csv");
+        doReturn(1L).when(cursorQueryService).stream(eq(Transfer.class), any(), eq(Sort.Direction.DESC), eq("startedAt"), any());
+
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+        verify(s3).uploadFile(any(File.class), eq(job.getFileLocation()), eq("bucket"));
+        assertFalse(job.getFileLocation().startsWith("http"));
+    }
+
+    @Test
+    void testSubmitWithoutRowsCompletesWithoutFile() {
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertEquals(ExportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(0L, job.getRowCount());
+        assertNull(job.getFileLocation());
+    }
+
+    @Test
+    void testSubmitRejectedWhenQueueIsFull() {
+        doThrow(new TaskRejectedException("queue full")).when(exportJobExecutor).execute(any(Runnable.class));
+
+        assertThrows(TaskRejectedException.class,
+                () -> exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_"));
+        assertEquals(ExportJobStatus.FAILED, jobs.values().iterator().next().getStatus());
+    }
+
+    @Test
+    void testJobIsOnlyFoundByItsSubmitter() {
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertSame(job, exportJobService.getJob(job.getJobId()));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("bob", null));
+        assertNull(exportJobService.getJob(job.getJobId()));
+        SecurityContextHolder.clearContext();
+        assertNull(exportJobService.getJob(job.getJobId()));
+    }
+
+    @Test
+    void testFailureKeepsTruncatedErrorMessage() throws Exception {
+        StringBuilder message = new StringBuilder();
+        while (message.length() <= ExportJob.ERROR_MESSAGE_LENGTH) {
+            message.append("row can not be read ");
+        }
+        when(cursorQueryService.stream(eq(Transfer.class), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException(message.toString()));
+
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertEquals(ExportJobStatus.FAILED, job.getStatus());
+        assertEquals(ExportJob.ERROR_MESSAGE_LENGTH, job.getErrorMessage().length());
+        assertNotNull(job.getCompletedAt());
+    }
+
+    @Test
+    void testFailureWithoutMessageKeepsExceptionName() throws Exception {
+        when(cursorQueryService.stream(eq(Transfer.class), any(), any(), any(), any())).thenThrow(new NullPointerException());
+
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        assertEquals(ExportJobStatus.FAILED, job.getStatus());
+        assertEquals(NullPointerException.class.getName(), job.getErrorMessage());
+    }
+
+    @Test
+    void testJobIsMarkedFailedWhenResultCanNotBeSaved() {
+        when(exportJobRepository.save(any(ExportJob.class))).thenAnswer(invocation -> {
+            ExportJob job = invocation.getArgument(0);
+            if (job.getStatus() == ExportJobStatus.COMPLETED) {
+                throw new IllegalStateException("Data truncation");
+            }
+            ExportJob copy = new ExportJob();
+            copy.setJobId(job.getJobId());
+            copy.setStatus(job.getStatus());
+            copy.setErrorMessage(job.getErrorMessage());
+            copy.setCreatedBy(job.getCreatedBy());
+            jobs.put(job.getJobId(), copy);
+            return job;
+        });
+
+        ExportJob job = exportJobService.submit(Transfer.class, null, Sort.Direction.DESC, "startedAt", "transfer_");
+
+        ExportJob saved = jobs.get(job.getJobId());
+        assertEquals(ExportJobStatus.FAILED, saved.getStatus());
+        assertEquals("Unable to save the result of the export", saved.getErrorMessage());
+    }
+}
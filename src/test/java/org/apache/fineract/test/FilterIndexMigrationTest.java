@@ -0,0 +1,127 @@
+package org.apache.fineract.test;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the index migrations to an in-memory MySQL compatible database and checks that the queries of the
+ * repository methods and listing filters are planned on an index instead of a table scan.
+ */
+class FilterIndexMigrationTest {
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:operations;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE `transfers` (`ID` bigint NOT NULL AUTO_INCREMENT, `WORKFLOW_INSTANCE_KEY` bigint, "
+                    + "`TRANSACTION_ID` varchar(255), `DIRECTION` varchar(10), `STATUS` varchar(255), `STARTED_AT` datetime, "
+                    + "`PAYER_PARTY_ID` varchar(255), `PAYEE_PARTY_ID` varchar(255), `BATCH_ID` varchar(255), "
+                    + "`CLIENTCORRELATIONID` varchar(255), `AMOUNT` decimal(38,0), PRIMARY KEY (`ID`))");
+            statement.execute("CREATE INDEX `idx_transfers_key` ON `transfers` (`WORKFLOW_INSTANCE_KEY`)");
+            statement.execute("CREATE TABLE `transaction_requests` (`ID` bigint NOT NULL AUTO_INCREMENT, `WORKFLOW_INSTANCE_KEY` bigint, "
+                    + "`TRANSACTION_ID` varchar(255), `STATE` varchar(255), `STARTED_AT` datetime, `PAYER_PARTY_ID` varchar(255), "
+                    + "`PAYEE_PARTY_ID` varchar(255), `CLIENTCORRELATIONID` varchar(255), PRIMARY KEY (`ID`))");
+            statement.execute("CREATE TABLE `variables` (`ID` bigint NOT NULL AUTO_INCREMENT, `WORKFLOW_INSTANCE_KEY` bigint, "
+                    + "`NAME` varchar(255), `VALUE` longtext, PRIMARY KEY (`ID`))");
+            statement.execute("CREATE TABLE `batches` (`ID` bigint NOT NULL AUTO_INCREMENT, `SUB_BATCH_ID` varchar(255), "
+                    + "`STARTED_AT` datetime, PRIMARY KEY (`ID`))");
+        }
+        apply("V48__keyset_pagination_indexes.sql");
+        apply("V49__filter_column_indexes.sql");
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void test_find_all_by_batch_id_uses_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `BATCH_ID` = 'b1'", "idx_transfers_batch_id_status");
+    }
+
+    @Test
+    void test_find_all_by_batch_id_and_status_uses_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `BATCH_ID` = 'b1' AND `STATUS` = 'COMPLETED'", "idx_transfers_batch_id_status");
+    }
+
+    @Test
+    void test_find_first_by_transaction_id_and_direction_uses_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `TRANSACTION_ID` = 't1' AND `DIRECTION` = 'INCOMING' LIMIT 1",
+                "idx_transfers_transaction_id_direction");
+    }
+
+    @Test
+    void test_find_first_by_workflow_instance_key_uses_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `WORKFLOW_INSTANCE_KEY` = 1 LIMIT 1", "idx_transfers_key");
+    }
+
+    @Test
+    void test_transfer_filters_use_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `STATUS` = 'FAILED' ORDER BY `STARTED_AT` DESC LIMIT 20",
+                "idx_transfers_status_started_at");
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `PAYER_PARTY_ID` = '254700000000'", "idx_transfers_payer_party_id");
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `PAYEE_PARTY_ID` = '254700000000'", "idx_transfers_payee_party_id");
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `CLIENTCORRELATIONID` IN ('c1', 'c2')", "idx_transfers_client_correlation_id");
+        assertIndexUsed("SELECT * FROM `transfers` WHERE `STARTED_AT` >= '2022-01-01 00:00:00' AND `STARTED_AT` <= '2022-01-31 00:00:00'",
+                "idx_transfers_started_at_id");
+    }
+
+    @Test
+    void test_transaction_request_filters_use_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `transaction_requests` WHERE `TRANSACTION_ID` IN ('t1', 't2')", "idx_transaction_requests_transaction_id");
+        assertIndexUsed("SELECT * FROM `transaction_requests` WHERE `STATE` = 'ACCEPTED' ORDER BY `STARTED_AT` DESC LIMIT 20",
+                "idx_transaction_requests_state_started_at");
+        assertIndexUsed("SELECT * FROM `transaction_requests` WHERE `PAYEE_PARTY_ID` = '254700000000'", "idx_transaction_requests_payee_party_id");
+        assertIndexUsed("SELECT * FROM `transaction_requests` WHERE `CLIENTCORRELATIONID` = 'c1'", "idx_transaction_requests_client_correlation_id");
+    }
+
+    @Test
+    void test_payment_mode_variable_lookup_uses_index() throws SQLException {
+        assertIndexUsed("SELECT * FROM `variables` WHERE `WORKFLOW_INSTANCE_KEY` = 1 AND `NAME` = 'paymentMode'", "idx_variables_key_name");
+    }
+
+    private static void assertIndexUsed(String query, String index) throws SQLException {
+        String plan = explain(query);
+        assertTrue(plan.toLowerCase().contains(index), () -> "expected " + index + " in plan: " + plan);
+        assertFalse(plan.contains("tableScan"), () -> "unexpected table scan in plan: " + plan);
+    }
+
+    private static String explain(String query) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery("EXPLAIN " + query)) {
+            StringBuilder plan = new StringBuilder();
+            while (result.next()) {
+                plan.append(result.getString(1));
+            }
+            return plan.toString();
+        }
+    }
+
+    private static void apply(String migration) throws IOException, SQLException {
+        try (InputStream input = FilterIndexMigrationTest.class.getResourceAsStream("/sql/migrations/tenant/" + migration);
+             Scanner scanner = new Scanner(input, StandardCharsets.UTF_8.name()).useDelimiter(";");
+             Statement statement = connection.createStatement()) {
+            while (scanner.hasNext()) {
+                String sql = scanner.next().replaceAll("(?m)^--.*$", "").trim();
+                if (!sql.isEmpty()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+}
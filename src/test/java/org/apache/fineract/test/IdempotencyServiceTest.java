@@ -0,0 +1,196 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.idempotency.IdempotencyRecord;
+import org.apache.fineract.core.idempotency.IdempotencyRecordRepository;
+import org.apache.fineract.core.idempotency.IdempotencyService;
+import org.apache.fineract.core.idempotency.IdempotentResponse;
+import org.apache.fineract.exception.ChannelConnectorException;
+import org.apache.fineract.exception.ChannelConnectorUnavailableException;
+import org.apache.fineract.exception.IdempotencyConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("ttlSeconds", 3600L);
+        setField("pendingTimeoutSeconds", 60L);
+        setField("maxSize", 100);
+        idempotencyService.registerMetrics();
+        when(repository.claim(anyString(), anyString(), anyString(), any(Date.class), any(Date.class))).thenReturn(1);
+    }
+
+    @Test
+    void test_write_without_key_runs_every_time() {
+        idempotencyService.execute(null, "refund:t1", "{}", this::write);
+        idempotencyService.execute(null, "refund:t1", "{}", this::write);
+
+        assertEquals(2, writes.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void test_completed_response_is_replayed() {
+        IdempotentResponse first = idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+        IdempotentResponse second = idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+
+        assertEquals(1, writes.get());
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals("done-1", second.getBody());
+        verify(repository).complete(eq("key-1"), eq("refund:t1"), eq(200), eq("done-1"), any(Date.class));
+    }
+
+    @Test
+    void test_concurrent_requests_share_one_execution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<IdempotentResponse> slowWrite = () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return write();
+        };
+
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("key-1", "refund:t1", "{}", slowWrite));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotentResponse> second = CompletableFuture.supplyAsync(
+                () -> idempotencyService.execute("key-1", "refund:t1", "{}", this::write));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("done-1", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("done-1", second.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void test_key_reused_for_different_request_is_a_conflict() {
+        idempotencyService.execute("key-1", "refund:t1", "{\"comment\":\"a\"}", this::write);
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", "refund:t1", "{\"comment\":\"b\"}", this::write));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void test_response_stored_by_another_instance_is_replayed() {
+        when(repository.claim(anyString(), anyString(), anyString(), any(Date.class), any(Date.class))).thenReturn(0);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setRequestHash(sha256Of("{}"));
+        record.setStatusCode(200);
+        record.setResponseBody("stored");
+        record.setExpiresAt(new Date(System.currentTimeMillis() + 60000));
+        when(repository.findOneByIdempotencyKeyAndOperation("key-1", "refund:t1")).thenReturn(record);
+
+        IdempotentResponse response = idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+
+        assertTrue(response.isReplayed());
+        assertEquals("stored", response.getBody());
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void test_key_in_progress_on_another_instance_is_a_conflict() {
+        when(repository.claim(anyString(), anyString(), anyString(), any(Date.class), any(Date.class))).thenReturn(0);
+        when(repository.claimExpired(anyString(), anyString(), anyString(), any(Date.class), any(Date.class))).thenReturn(0);
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", "refund:t1", "{}", this::write));
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void test_write_not_applied_releases_key_for_retry() {
+        assertThrows(ChannelConnectorUnavailableException.class, () -> idempotencyService.execute("key-1", "refund:t1", "{}", () -> {
+            throw new ChannelConnectorUnavailableException("circuit open");
+        }));
+        verify(repository).release("key-1", "refund:t1");
+
+        idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void test_failure_with_unknown_outcome_keeps_key() {
+        assertThrows(ChannelConnectorException.class, () -> idempotencyService.execute("key-1", "refund:t1", "{}", () -> {
+            throw new ChannelConnectorException("read timed out", null);
+        }));
+        IdempotentResponse retry = idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+
+        assertEquals(0, writes.get());
+        assertTrue(retry.isReplayed());
+        assertEquals(502, retry.getStatusCode());
+        verify(repository, never()).release(anyString(), anyString());
+        verify(repository).complete(eq("key-1"), eq("refund:t1"), eq(502), anyString(), any(Date.class));
+    }
+
+    @Test
+    void test_server_error_response_is_kept() {
+        idempotencyService.execute("key-1", "refund:t1", "{}", () -> new IdempotentResponse(500, "failed"));
+        IdempotentResponse retry = idempotencyService.execute("key-1", "refund:t1", "{}", this::write);
+
+        assertEquals(0, writes.get());
+        assertEquals("failed", retry.getBody());
+        verify(repository).complete(eq("key-1"), eq("refund:t1"), eq(500), eq("failed"), any(Date.class));
+        verify(repository, never()).release(anyString(), anyString());
+    }
+
+    private IdempotentResponse write() {
+        return new IdempotentResponse(200, "done-" + writes.incrementAndGet());
+    }
+
+    private String sha256Of(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = IdempotencyService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(idempotencyService, value);
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.operations.CurrencyRateLockRepository;
+import org.apache.fineract.operations.exchange.RateLockPurgeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RateLockPurgeServiceTest {
+
+    @Mock
+    private CurrencyRateLockRepository currencyRateLockRepository;
+
+    @InjectMocks
+    private RateLockPurgeService rateLockPurgeService;
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("chunkSize", 100);
+        setField("graceSeconds", 3600L);
+    }
+
+    @Test
+    void test_full_chunk_reports_more_to_purge() {
+        when(currencyRateLockRepository.deleteExpired(any(Date.class), eq(100))).thenReturn(100);
+
+        assertTrue(rateLockPurgeService.purgeNextChunk());
+    }
+
+    @Test
+    void test_partial_chunk_completes_purge() {
+        when(currencyRateLockRepository.deleteExpired(any(Date.class), eq(100))).thenReturn(42);
+
+        assertFalse(rateLockPurgeService.purgeNextChunk());
+    }
+
+    @Test
+    void test_locks_within_grace_period_are_kept() {
+        long before = System.currentTimeMillis();
+        rateLockPurgeService.purgeNextChunk();
+
+        ArgumentCaptor<Date> expiredBefore = ArgumentCaptor.forClass(Date.class);
+        verify(currencyRateLockRepository).deleteExpired(expiredBefore.capture(), eq(100));
+        assertTrue(expiredBefore.getValue().getTime() <= before - 3600 * 1000L + 1000L);
+        assertTrue(expiredBefore.getValue().getTime() >= before - 3600 * 1000L);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = RateLockPurgeService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(rateLockPurgeService, value);
+    }
+}
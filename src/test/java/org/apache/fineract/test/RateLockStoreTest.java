@@ -0,0 +1,203 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.operations.CurrencyRateLock;
+import org.apache.fineract.operations.CurrencyRateLockRepository;
+import org.apache.fineract.operations.exchange.RateLock;
+import org.apache.fineract.operations.exchange.RateLockBatchWriter;
+import org.apache.fineract.operations.exchange.RateLockStore;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RateLockStoreTest {
+
+    @Mock
+    private CurrencyRateLockRepository currencyRateLockRepository;
+
+    @Mock
+    private RateLockBatchWriter rateLockBatchWriter;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RateLockStore rateLockStore;
+
+    @BeforeEach
+    void setup() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        setField("meterRegistry", meterRegistry);
+        setField("maxSize", 100);
+        setField("batchSize", 100);
+        setField("flushIntervalMs", 50L);
+        setField("shutdownTimeoutMs", 5000L);
+        ThreadLocalContextUtil.setTenant(tenant(1L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_created_lock_is_inserted_and_found_without_database() throws Exception {
+        setField("queueCapacity", 100);
+        rateLockStore.start();
+
+        rateLockStore.create("key-1", "USD", "KES", new BigDecimal("110.5"), inSeconds(300));
+        RateLock found = rateLockStore.find("key-1");
+        rateLockStore.shutdown();
+
+        assertEquals(new BigDecimal("110.5"), found.getRate());
+        verify(currencyRateLockRepository, never()).findOneByUniqueKey(anyString());
+        verify(rateLockBatchWriter).insert(found);
+        verify(rateLockBatchWriter, never()).extend(anyList());
+    }
+
+    @Test
+    void test_lock_key_taken_by_another_instance_is_not_created() throws Exception {
+        setField("queueCapacity", 100);
+        rateLockStore.start();
+        doThrow(new DuplicateKeyException("Duplicate entry 'key-1'")).when(rateLockBatchWriter).insert(any(RateLock.class));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> rateLockStore.create("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300)));
+        rateLockStore.find("key-1");
+        rateLockStore.shutdown();
+
+        verify(currencyRateLockRepository).findOneByUniqueKey("key-1");
+    }
+
+    @Test
+    void test_unknown_lock_is_read_from_database_once() throws Exception {
+        setField("queueCapacity", 100);
+        rateLockStore.start();
+        when(currencyRateLockRepository.findOneByUniqueKey("key-1"))
+                .thenReturn(new CurrencyRateLock("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300)));
+
+        assertEquals(BigDecimal.TEN, rateLockStore.find("key-1").getRate());
+        assertEquals(BigDecimal.TEN, rateLockStore.find("key-1").getRate());
+        assertNull(rateLockStore.find("key-2"));
+        rateLockStore.shutdown();
+
+        verify(currencyRateLockRepository, times(1)).findOneByUniqueKey("key-1");
+        verify(rateLockBatchWriter, never()).extend(anyList());
+    }
+
+    @Test
+    void test_locks_are_isolated_per_tenant() throws Exception {
+        setField("queueCapacity", 100);
+        rateLockStore.start();
+
+        rateLockStore.create("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+        ThreadLocalContextUtil.setTenant(tenant(2L));
+        RateLock found = rateLockStore.find("key-1");
+        rateLockStore.shutdown();
+
+        assertNull(found);
+        verify(currencyRateLockRepository).findOneByUniqueKey("key-1");
+    }
+
+    @Test
+    void test_extension_is_persisted_behind_and_keeps_the_rate() throws Exception {
+        setField("queueCapacity", 100);
+        rateLockStore.start();
+
+        RateLock lock = rateLockStore.create("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+        Date expireBy = inSeconds(600);
+        rateLockStore.extend(lock, expireBy);
+        rateLockStore.shutdown();
+
+        ArgumentCaptor<List<RateLock>> batches = ArgumentCaptor.forClass(List.class);
+        verify(rateLockBatchWriter).extend(batches.capture());
+        assertEquals(expireBy, batches.getValue().get(0).getExpireBy());
+        assertEquals(BigDecimal.TEN, rateLockStore.find("key-1").getRate());
+        assertEquals(1.0, meterRegistry.counter("imu.rate_lock.write_behind.written").count());
+    }
+
+    @Test
+    void test_only_latest_state_of_a_lock_is_written_per_batch() throws Exception {
+        setField("queueCapacity", 100);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).doNothing().when(rateLockBatchWriter).extend(anyList());
+        rateLockStore.start();
+
+        RateLock lock = rateLockStore.create("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+        lock = rateLockStore.extend(lock, inSeconds(450));
+        verify(rateLockBatchWriter, timeout(1000)).extend(anyList());
+        lock = rateLockStore.extend(lock, inSeconds(600));
+        Date latest = inSeconds(900);
+        rateLockStore.extend(lock, latest);
+        release.countDown();
+        rateLockStore.shutdown();
+
+        ArgumentCaptor<List<RateLock>> batches = ArgumentCaptor.forClass(List.class);
+        verify(rateLockBatchWriter, times(2)).extend(batches.capture());
+        List<RateLock> second = batches.getAllValues().get(1);
+        assertEquals(1, second.size());
+        assertEquals(latest, second.get(0).getExpireBy());
+        assertEquals(latest, rateLockStore.find("key-1").getExpireBy());
+    }
+
+    @Test
+    void test_extension_is_written_inline_when_queue_is_full() throws Exception {
+        setField("queueCapacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).doNothing().when(rateLockBatchWriter).extend(anyList());
+        rateLockStore.start();
+        RateLock first = rateLockStore.create("key-1", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+        RateLock second = rateLockStore.create("key-2", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+        RateLock third = rateLockStore.create("key-3", "USD", "KES", BigDecimal.TEN, inSeconds(300));
+
+        rateLockStore.extend(first, inSeconds(600));
+        verify(rateLockBatchWriter, timeout(1000)).extend(anyList());
+        rateLockStore.extend(second, inSeconds(600));
+        rateLockStore.extend(third, inSeconds(600));
+
+        assertEquals(1.0, meterRegistry.counter("imu.rate_lock.write_behind.inline").count());
+        release.countDown();
+        rateLockStore.shutdown();
+        assertEquals(3.0, meterRegistry.counter("imu.rate_lock.write_behind.written").count());
+    }
+
+    private Date inSeconds(int seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000L);
+    }
+
+    private TenantServerConnection tenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        return tenant;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = RateLockStore.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(rateLockStore, value);
+    }
+}
@@ -0,0 +1,122 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.core.service.DataSourcePerTenantService;
+import org.apache.fineract.core.service.RoutingDataSource;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoutingDataSourceTest {
+
+    private final DataSourcePerTenantService dataSourcePerTenantService = mock(DataSourcePerTenantService.class);
+    private final RoutingDataSource routingDataSource = new RoutingDataSource();
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Field field = RoutingDataSource.class.getDeclaredField("dataSourcePerTenantService");
+        field.setAccessible(true);
+        field.set(routingDataSource, dataSourcePerTenantService);
+        when(dataSourcePerTenantService.retrieveDataSource()).thenReturn(primary);
+        when(dataSourcePerTenantService.retrieveReplicaDataSource()).thenReturn(replica);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_read_only_transaction_reads_from_replica() throws Exception {
+        beginTransaction(true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void test_writing_transaction_uses_primary() throws Exception {
+        beginTransaction(false);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void test_thread_reads_its_own_writes_from_primary() throws Exception {
+        beginTransaction(false);
+        routingDataSource.getConnection();
+        endTransaction();
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        ThreadLocalContextUtil.clear();
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void test_read_only_request_outside_transaction_reads_from_replica() throws Exception {
+        assertSame(primaryConnection, routingDataSource.getConnection());
+
+        ThreadLocalContextUtil.setReadOnly(true);
+        assertSame(replicaConnection, routingDataSource.getConnection());
+    }
+
+    @Test
+    void test_unreachable_replica_falls_back_to_primary() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection is not available"));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verify(dataSourcePerTenantService).markReplicaUnavailable();
+    }
+
+    @Test
+    void test_replica_pool_creation_failure_falls_back_to_primary() throws Exception {
+        when(dataSourcePerTenantService.retrieveReplicaDataSource()).thenThrow(new IllegalStateException("Unknown host replica-1"));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        verify(dataSourcePerTenantService).markReplicaUnavailable();
+    }
+
+    @Test
+    void test_connection_with_credentials_is_routed_like_the_default_one() throws Exception {
+        when(replica.getConnection("reader", "secret")).thenReturn(replicaConnection);
+        when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+
+        beginTransaction(true);
+        assertSame(replicaConnection, routingDataSource.getConnection("reader", "secret"));
+        endTransaction();
+
+        beginTransaction(false);
+        assertSame(primaryConnection, routingDataSource.getConnection("reader", "secret"));
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void endTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
@@ -0,0 +1,231 @@
+package org.apache.fineract.test;
+
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.zaxxer.hikari.HikariConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.DataSourcePerTenantService;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServerPoolingTest {
+
+    private final List<HikariConfig> serverPools = new ArrayList<>();
+    private final DataSource serverPool = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DataSourcePerTenantService service = new DataSourcePerTenantService() {
+        @Override
+        protected DataSource createServerPool(HikariConfig config) {
+            serverPools.add(config);
+            return serverPool;
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws Exception {
+        setField("poolingMode", DataSourcePerTenantService.PoolingMode.SERVER);
+        setField("meterRegistry", meterRegistry);
+        setField("serverMaximumPoolSize", 50);
+        setField("jdbcProtocol", "jdbc");
+        setField("jdbcSubprotocol", "mysql");
+        setField("driverClass", "com.mysql.cj.jdbc.Driver");
+        setField("defaultMaximumPoolSize", 20);
+        when(serverPool.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_tenants_of_a_server_share_one_pool() {
+        DataSource first = dataSourceOf(tenant(1L, "tenant1", "db1"));
+        DataSource second = dataSourceOf(tenant(2L, "tenant2", "db1"));
+        dataSourceOf(tenant(3L, "tenant3", "db2"));
+
+        assertNotSame(first, second);
+        assertEquals(2, serverPools.size());
+        assertEquals("jdbc:mysql://db1:3306/?useCursorFetch=true", serverPools.get(0).getJdbcUrl());
+        assertEquals(50, serverPools.get(0).getMaximumPoolSize());
+    }
+
+    @Test
+    void test_checkout_selects_the_schema_of_the_tenant() throws Exception {
+        try (Connection tenant1 = dataSourceOf(tenant(1L, "tenant1", "db1")).getConnection()) {
+            verify(connection).setCatalog("tenant1");
+        }
+        try (Connection tenant2 = dataSourceOf(tenant(2L, "tenant2", "db1")).getConnection()) {
+            verify(connection).setCatalog("tenant2");
+        }
+    }
+
+    @Test
+    void test_connection_can_not_be_switched_to_another_schema() throws Exception {
+        try (Connection tenant1 = dataSourceOf(tenant(1L, "tenant1", "db1")).getConnection()) {
+            assertThrows(SQLException.class, () -> tenant1.setCatalog("tenant2"));
+            tenant1.setCatalog("tenant1");
+        }
+        verify(connection, times(1)).setCatalog("tenant1");
+        verify(connection, never()).setCatalog("tenant2");
+    }
+
+    @Test
+    void test_connection_can_not_be_unwrapped() throws Exception {
+        try (Connection tenant1 = dataSourceOf(tenant(1L, "tenant1", "db1")).getConnection()) {
+            assertSame(tenant1, tenant1.unwrap(Connection.class));
+            assertFalse(tenant1.isWrapperFor(JdbcConnection.class));
+            assertThrows(SQLException.class, () -> tenant1.unwrap(JdbcConnection.class));
+        }
+        verify(connection, never()).unwrap(any());
+    }
+
+    @Test
+    void test_server_pool_does_not_cache_statements() {
+        dataSourceOf(tenant(1L, "tenant1", "db1"));
+
+        assertEquals("false", serverPools.get(0).getDataSourceProperties().getProperty("cachePrepStmts"));
+    }
+
+    @Test
+    void test_unreachable_replica_does_not_fail_pool_creation() {
+        TenantServerConnection tenant = tenant(1L, "tenant1", "db1");
+        tenant.setReplicaServer("replica1");
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        assertNull(service.retrieveReplicaDataSource());
+
+        assertEquals("jdbc:mysql://replica1:3306/?useCursorFetch=true", serverPools.get(0).getJdbcUrl());
+        assertEquals(-1, serverPools.get(0).getInitializationFailTimeout());
+        assertTrue(serverPools.get(0).isReadOnly());
+    }
+
+    @Test
+    void test_failed_schema_switch_does_not_hand_out_the_connection() throws Exception {
+        SQLException unknownSchema = new SQLException("Unknown database 'tenant1'");
+        doThrow(unknownSchema).when(connection).setCatalog("tenant1");
+        DataSource dataSource = dataSourceOf(tenant(1L, "tenant1", "db1"));
+
+        assertSame(unknownSchema, assertThrows(SQLException.class, dataSource::getConnection));
+        verify(connection).close();
+        assertEquals(0, activeConnections("tenant1"));
+    }
+
+    @Test
+    void test_tenant_can_not_hold_more_than_its_maximum() throws Exception {
+        TenantServerConnection tenant = tenant(1L, "tenant1", "db1");
+        tenant.setPoolMaximumSize(1);
+        DataSource dataSource = dataSourceOf(tenant);
+
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        held.close();
+        assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void test_usage_is_reported_per_tenant() throws Exception {
+        DataSource dataSource = dataSourceOf(tenant(1L, "tenant1", "db1"));
+
+        Connection held = dataSource.getConnection();
+        assertEquals(1, activeConnections("tenant1"));
+        held.close();
+        held.close();
+
+        assertEquals(0, activeConnections("tenant1"));
+        assertEquals(1, meterRegistry.get("datasource.tenant.connections.usage").tag("tenant", "tenant1").timer().count());
+    }
+
+    @Test
+    void test_server_pool_is_closed_with_its_last_tenant() {
+        dataSourceOf(tenant(1L, "tenant1", "db1"));
+        dataSourceOf(tenant(2L, "tenant2", "db1"));
+
+        service.evictDataSource(1L);
+        dataSourceOf(tenant(3L, "tenant3", "db1"));
+        assertEquals(1, serverPools.size());
+
+        service.evictDataSource(2L);
+        service.evictDataSource(3L);
+        dataSourceOf(tenant(1L, "tenant1", "db1"));
+        assertEquals(2, serverPools.size());
+        assertTrue(meterRegistry.find("datasource.tenant.connections.active").tag("tenant", "tenant2").gauges().isEmpty());
+    }
+
+    @Test
+    void test_evicted_tenant_pool_is_closed_once_its_connections_are_returned() throws Exception {
+        Connection held = dataSourceOf(tenant(1L, "tenant1", "db1")).getConnection();
+
+        service.evictDataSource(1L);
+        service.evictIdleDataSources();
+        assertFalse(meterRegistry.find("datasource.tenant.connections.active").tag("tenant", "tenant1").gauges().isEmpty());
+
+        held.close();
+        service.evictIdleDataSources();
+        assertTrue(meterRegistry.find("datasource.tenant.connections.active").tag("tenant", "tenant1").gauges().isEmpty());
+        verify(connection).close();
+
+        dataSourceOf(tenant(1L, "tenant1", "db1"));
+        assertEquals(2, serverPools.size());
+    }
+
+    private DataSource dataSourceOf(TenantServerConnection tenant) {
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
+            return service.retrieveDataSource();
+        } finally {
+            ThreadLocalContextUtil.clear();
+        }
+    }
+
+    private double activeConnections(String schemaName) {
+        return meterRegistry.get("datasource.tenant.connections.active").tag("tenant", schemaName).gauge().value();
+    }
+
+    private TenantServerConnection tenant(long id, String schemaName, String server) {
+        TenantServerConnection connection = new TenantServerConnection();
+        connection.setId(id);
+        connection.setSchemaName(schemaName);
+        connection.setSchemaServer(server);
+        connection.setSchemaServerPort("3306");
+        connection.setSchemaUsername("root");
+        return connection;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = DataSourcePerTenantService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
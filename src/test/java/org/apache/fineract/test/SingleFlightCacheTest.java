@@ -0,0 +1,44 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.core.service.SingleFlightCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    @Test
+    void test_full_cache_drops_expired_values_and_skips_new_keys() {
+        SingleFlightCache<String> cache = new SingleFlightCache<>(2);
+        long now = System.currentTimeMillis();
+
+        cache.put("expired", "a", now - 1);
+        cache.put("live", "b", now + 60000);
+        cache.put("new", "c", now + 60000);
+        cache.put("overflow", "d", now + 60000);
+
+        assertNull(cache.getIfPresent("expired"));
+        assertEquals("b", cache.getIfPresent("live"));
+        assertEquals("c", cache.getIfPresent("new"));
+        assertNull(cache.getIfPresent("overflow"));
+    }
+
+    @Test
+    void test_follower_gets_failure_of_leader_and_key_is_released() {
+        SingleFlightCache<String> cache = new SingleFlightCache<>(10);
+        SingleFlightCache.Flight<String> leader = cache.flight("key");
+        SingleFlightCache.Flight<String> follower = cache.flight("key");
+        assertTrue(leader.isLeader());
+        assertFalse(follower.isLeader());
+
+        IllegalStateException failure = new IllegalStateException("down");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> leader.lead(() -> {
+            throw failure;
+        })));
+        assertSame(failure, assertThrows(IllegalStateException.class, follower::await));
+
+        SingleFlightCache.Flight<String> retry = cache.flight("key");
+        assertTrue(retry.isLeader());
+        assertEquals("value", retry.lead(() -> "value"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.apache.fineract.test;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import org.apache.fineract.config.TenantAwareCache;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantAwareCacheTest {
+
+    private CacheManager cacheManager;
+    private TenantAwareCache cache;
+
+    @BeforeEach
+    void setup() {
+        cacheManager = CacheManager.newInstance(new Configuration().name("tenant-aware-cache-test"));
+        Cache ehcache = new Cache(new CacheConfiguration("users", 100));
+        cacheManager.addCache(ehcache);
+        cache = new TenantAwareCache(ehcache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+        cacheManager.shutdown();
+    }
+
+    @Test
+    void test_entries_are_not_shared_between_tenants() {
+        asTenant(1L);
+        cache.put("mifos", "user of tenant 1");
+
+        asTenant(2L);
+        assertNull(cache.get("mifos"));
+        cache.put("mifos", "user of tenant 2");
+
+        asTenant(1L);
+        assertEquals("user of tenant 1", cache.get("mifos", String.class));
+    }
+
+    @Test
+    void test_clear_only_removes_entries_of_current_tenant() {
+        asTenant(1L);
+        cache.put("mifos", "user of tenant 1");
+        asTenant(2L);
+        cache.put("mifos", "user of tenant 2");
+
+        cache.clear();
+
+        assertNull(cache.get("mifos"));
+        asTenant(1L);
+        assertEquals("user of tenant 1", cache.get("mifos", String.class));
+    }
+
+    @Test
+    void test_evict_removes_entry_of_current_tenant() {
+        asTenant(1L);
+        cache.put("mifos", "user of tenant 1");
+        asTenant(2L);
+        cache.evict("mifos");
+
+        asTenant(1L);
+        assertNotNull(cache.get("mifos"));
+        cache.evict("mifos");
+        assertNull(cache.get("mifos"));
+    }
+
+    private void asTenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        ThreadLocalContextUtil.setTenant(tenant);
+    }
+}
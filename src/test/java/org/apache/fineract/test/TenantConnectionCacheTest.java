@@ -0,0 +1,114 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.DataSourcePerTenantService;
+import org.apache.fineract.core.service.TenantConnectionCache;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.tenant.TenantServerConnectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TenantConnectionCacheTest {
+
+    private final TenantServerConnectionRepository repository = mock(TenantServerConnectionRepository.class);
+    private final DataSourcePerTenantService dataSourcePerTenantService = mock(DataSourcePerTenantService.class);
+
+    private final TenantConnectionCache cache = new TenantConnectionCache();
+
+    @BeforeEach
+    void setup() throws Exception {
+        setField("repository", repository);
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("dataSourcePerTenantService", dataSourcePerTenantService);
+        setField("ttlSeconds", 300L);
+        setField("negativeTtlSeconds", 30L);
+        setField("maxSize", 2);
+        cache.registerMetrics();
+    }
+
+    @Test
+    void test_lookup_is_cached() {
+        TenantServerConnection connection = new TenantServerConnection();
+        when(repository.findOneBySchemaName("tenant1")).thenReturn(connection);
+
+        assertSame(connection, cache.get("tenant1"));
+        assertSame(connection, cache.get("tenant1"));
+
+        verify(repository, times(1)).findOneBySchemaName("tenant1");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void test_unknown_tenant_is_negatively_cached() {
+        assertNull(cache.get("unknown"));
+        assertNull(cache.get("unknown"));
+
+        verify(repository, times(1)).findOneBySchemaName("unknown");
+    }
+
+    @Test
+    void test_invalidate_reloads_tenant() {
+        when(repository.findOneBySchemaName("tenant1")).thenReturn(new TenantServerConnection());
+        cache.get("tenant1");
+
+        cache.invalidate("tenant1");
+        cache.get("tenant1");
+
+        verify(repository, times(2)).findOneBySchemaName("tenant1");
+    }
+
+    @Test
+    void test_invalidate_evicts_pools_of_tenant() {
+        when(repository.findOneBySchemaName("tenant1")).thenReturn(connection(1L, "db1"));
+        cache.get("tenant1");
+
+        cache.invalidate("tenant1");
+        cache.invalidate("tenant1");
+
+        verify(dataSourcePerTenantService, times(1)).evictDataSource(1L);
+    }
+
+    @Test
+    void test_changed_connection_details_evict_pools_on_reload() throws Exception {
+        setField("ttlSeconds", 0L);
+        when(repository.findOneBySchemaName("tenant1"))
+                .thenReturn(connection(1L, "db1"), connection(1L, "db1"), connection(1L, "db2"));
+
+        cache.get("tenant1");
+        cache.get("tenant1");
+        verify(dataSourcePerTenantService, never()).evictDataSource(any());
+
+        cache.get("tenant1");
+        verify(dataSourcePerTenantService).evictDataSource(1L);
+    }
+
+    @Test
+    void test_full_cache_still_resolves() {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        cache.get("c");
+
+        verify(repository, times(2)).findOneBySchemaName("c");
+    }
+
+    private TenantServerConnection connection(Long id, String server) {
+        TenantServerConnection connection = new TenantServerConnection();
+        connection.setId(id);
+        connection.setSchemaServer(server);
+        return connection;
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = TenantConnectionCache.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(cache, value);
+    }
+}
@@ -0,0 +1,57 @@
+package org.apache.fineract.test;
+
+import org.apache.fineract.operations.TransactionRequest;
+import org.apache.fineract.operations.TransactionRequestErrorDescription;
+import org.apache.fineract.operations.TransactionRequestSpecs;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionRequestSpecsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test_error_description_is_matched_on_the_indexed_table() {
+        List<String> errorDescriptions = Arrays.asList("AMS Local is disabled", "Payee not found");
+        Specification<TransactionRequest> specification = TransactionRequestSpecs.errorDescriptionIn(errorDescriptions);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        Root<TransactionRequest> root = mock(Root.class);
+        Subquery<String> subquery = mock(Subquery.class);
+        Root<TransactionRequestErrorDescription> errorDescription = mock(Root.class);
+        Path<Object> description = mock(Path.class);
+        Path<Object> subqueryKey = mock(Path.class);
+        Path<Object> requestKey = mock(Path.class);
+        Predicate descriptionIn = mock(Predicate.class);
+        Predicate keyIn = mock(Predicate.class);
+        when(query.subquery(String.class)).thenReturn(subquery);
+        when(subquery.from(TransactionRequestErrorDescription.class)).thenReturn(errorDescription);
+        when(subquery.select(any())).thenReturn(subquery);
+        when(errorDescription.get("workflowInstanceKey")).thenReturn(subqueryKey);
+        when(errorDescription.get("errorDescription")).thenReturn(description);
+        when(description.in(errorDescriptions)).thenReturn(descriptionIn);
+        when(root.get("workflowInstanceKey")).thenReturn(requestKey);
+        when(requestKey.in(subquery)).thenReturn(keyIn);
+
+        assertSame(keyIn, specification.toPredicate(root, query, cb));
+
+        verify(subquery).select((Path) subqueryKey);
+        verify(subquery).where(descriptionIn);
+        verify(root, never()).join("variables");
+    }
+}
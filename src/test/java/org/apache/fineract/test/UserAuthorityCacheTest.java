@@ -0,0 +1,113 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.core.service.UserAuthorityCache;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.apache.fineract.organisation.user.AppUser;
+import org.apache.fineract.organisation.user.AppUserRepository;
+import org.apache.fineract.organisation.user.AuthoritySnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserAuthorityCacheTest {
+
+    private final AppUserRepository repository = mock(AppUserRepository.class);
+
+    private final UserAuthorityCache cache = new UserAuthorityCache();
+
+    private final AppUser user = new AppUser();
+
+    @BeforeEach
+    void setup() throws Exception {
+        setField("appUserRepository", repository);
+        setField("meterRegistry", new SimpleMeterRegistry());
+        setField("ttlSeconds", 300L);
+        setField("maxSize", 100);
+        cache.registerMetrics();
+        user.setId(7L);
+        asTenant(1L);
+        when(repository.findPermissionCodes(7L)).thenReturn(Arrays.asList("READ_AUDIT", "ALL_FUNCTIONS"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_snapshot_is_built_once() {
+        AuthoritySnapshot snapshot = cache.get(user);
+
+        assertSame(snapshot, cache.get(user));
+        assertTrue(snapshot.hasPermission("READ_AUDIT"));
+        assertFalse(snapshot.hasPermission("DELETE_USER"));
+        assertEquals(2, snapshot.getAuthorities().size());
+        verify(repository, times(1)).findPermissionCodes(7L);
+    }
+
+    @Test
+    void test_invalidate_rebuilds_snapshot_of_user() {
+        cache.get(user);
+
+        cache.invalidate(7L);
+        cache.get(user);
+
+        verify(repository, times(2)).findPermissionCodes(7L);
+    }
+
+    @Test
+    void test_snapshot_loaded_across_invalidation_is_not_cached() {
+        when(repository.findPermissionCodes(7L)).thenAnswer(invocation -> {
+            cache.invalidate(7L);
+            return Arrays.asList("READ_AUDIT");
+        }).thenReturn(Arrays.asList("READ_AUDIT", "ALL_FUNCTIONS"));
+
+        assertFalse(cache.get(user).hasPermission("ALL_FUNCTIONS"));
+
+        assertTrue(cache.get(user).hasPermission("ALL_FUNCTIONS"));
+        assertTrue(cache.get(user).hasPermission("ALL_FUNCTIONS"));
+        verify(repository, times(2)).findPermissionCodes(7L);
+    }
+
+    @Test
+    void test_invalidate_tenant_keeps_snapshots_of_other_tenants() {
+        cache.get(user);
+        asTenant(2L);
+        cache.get(user);
+
+        cache.invalidateTenant();
+        cache.get(user);
+        asTenant(1L);
+        cache.get(user);
+
+        verify(repository, times(3)).findPermissionCodes(7L);
+    }
+
+    @Test
+    void test_user_with_snapshot_does_not_walk_roles() {
+        user.setAuthoritySnapshot(cache.get(user));
+
+        assertTrue(user.hasPermission("ALL_FUNCTIONS"));
+        assertEquals(2, user.getAuthorities().size());
+    }
+
+    private void asTenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        ThreadLocalContextUtil.setTenant(tenant);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = UserAuthorityCache.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(cache, value);
+    }
+}
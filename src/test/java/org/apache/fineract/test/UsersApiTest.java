@@ -1,6 +1,7 @@
 package org.apache.fineract.test;
 
 import org.apache.fineract.api.UsersApi;
+import org.apache.fineract.core.service.UserAuthorityCache;
 import org.apache.fineract.organisation.user.AppUser;
 import org.apache.fineract.organisation.user.AppUserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +24,9 @@ class UsersApiTest {
     @Mock
     private AppUserRepository appUserRepository;
 
+    @Mock
+    private UserAuthorityCache userAuthorityCache;
+
     @InjectMocks
     private UsersApi usersApi;
 
@@ -0,0 +1,95 @@
+package org.apache.fineract.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.fineract.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.core.service.WriteBehindQueue;
+import org.apache.fineract.organisation.tenant.TenantServerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> written = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalContextUtil.clear();
+    }
+
+    @Test
+    void test_flush_writes_per_tenant_and_keeps_tenant_of_caller() {
+        WriteBehindQueue<TenantServerConnection> queue = queue(entries -> {
+            for (TenantServerConnection entry : entries) {
+                assertSame(entry, ThreadLocalContextUtil.getTenant());
+            }
+            written.add(entries.size() + "x" + ThreadLocalContextUtil.getTenant().getId());
+        });
+        TenantServerConnection caller = tenant(9L);
+        ThreadLocalContextUtil.setTenant(caller);
+        TenantServerConnection tenant1 = tenant(1L);
+        TenantServerConnection tenant2 = tenant(2L);
+
+        assertTrue(queue.offer(tenant1));
+        assertTrue(queue.offer(tenant2));
+        assertTrue(queue.offer(tenant1));
+        queue.flush();
+
+        assertEquals(2, written.size());
+        assertTrue(written.contains("2x1"));
+        assertTrue(written.contains("1x2"));
+        assertSame(caller, ThreadLocalContextUtil.getTenant());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void test_failed_tenant_is_counted_and_others_are_written() {
+        WriteBehindQueue<TenantServerConnection> queue = queue(entries -> {
+            if (ThreadLocalContextUtil.getTenant().getId() == 1L) {
+                throw new IllegalStateException("db down");
+            }
+            written.add("x" + ThreadLocalContextUtil.getTenant().getId());
+        });
+
+        queue.offer(tenant(1L));
+        queue.offer(tenant(2L));
+        queue.flush();
+
+        assertEquals(1.0, meterRegistry.counter("failed").count());
+        assertEquals(1, written.size());
+        assertNull(ThreadLocalContextUtil.getTenant());
+    }
+
+    @Test
+    void test_queue_is_drained_before_shutdown_completes() throws Exception {
+        WriteBehindQueue<TenantServerConnection> queue = queue(entries -> written.add("x" + entries.size()));
+        queue.start();
+
+        List<TenantServerConnection> entries = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            entries.add(tenant(1L));
+        }
+        entries.forEach(queue::offer);
+        queue.shutdown();
+
+        assertFalse(queue.isRunning());
+        assertEquals(0, queue.size());
+        assertEquals(5, written.stream().mapToInt(w -> Integer.parseInt(w.substring(1))).sum());
+    }
+
+    private WriteBehindQueue<TenantServerConnection> queue(WriteBehindQueue.TenantWriter<TenantServerConnection> writer) {
+        return new WriteBehindQueue<>("test", 10, 10, 50L, 5000L, tenant -> tenant, writer, meterRegistry.counter("failed"));
+    }
+
+    private TenantServerConnection tenant(Long id) {
+        TenantServerConnection tenant = new TenantServerConnection();
+        tenant.setId(id);
+        return tenant;
+    }
+}